@@ -24,12 +24,13 @@ public class JUnit4TestAdapterCache extends HashMap<Description, Test> {
 	}
 
 	public List<Test> asTestList(Plan plan) {
-		Description description= plan.getDescription();
-		if (description.isTest())
-			return Arrays.asList(asTestCase(description));
+		// the plan keeps its children: asking it costs nothing
+		if (plan.isTest())
+			return Arrays.asList(asTestCase(plan.getDescription()));
 		else {
-			List<Test> returnThis= new ArrayList<Test>();
-			for (Plan child : plan.getChildren()) {
+			List<Plan> children= plan.getChildren();
+			List<Test> returnThis= new ArrayList<Test>(children.size());
+			for (Plan child : children) {
 				returnThis.add(asTest(child));
 			}
 			return returnThis;
@@ -37,11 +38,10 @@ public class JUnit4TestAdapterCache extends HashMap<Description, Test> {
 	}
 
 	public Test asTest(Plan plan) {
-		Description description= plan.getDescription();
-		if (description.isSuite())
+		if (plan.isSuite())
 			return asTestSuite(plan);
 		else
-			return asTestCase(description);
+			return asTestCase(plan.getDescription());
 	}
 
 	private Test asTestSuite(Plan plan) {
@@ -56,9 +56,12 @@ public class JUnit4TestAdapterCache extends HashMap<Description, Test> {
 	}
 	
 	private Test asTestCase(Description description) {
-		if (!containsKey(description))
-			put(description, createTestCase(description));
-		return get(description);
+		Test test= get(description);
+		if (test == null) {
+			test= createTestCase(description);
+			put(description, test);
+		}
+		return test;
 	}
 
 	private Test createTestCase(Description description) {
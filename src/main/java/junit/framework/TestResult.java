@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A <code>TestResult</code> collects the results of executing
@@ -24,7 +25,8 @@ public class TestResult extends Object {
 	public TestResult() {
 		fFailures= new ArrayList<TestFailure>();
 		fErrors= new ArrayList<TestFailure>();
-		fListeners= new ArrayList<TestListener>();
+		// copied on write, so events iterate over it without copying it
+		fListeners= new CopyOnWriteArrayList<TestListener>();
 		fRunTests= 0;
 		fStop= false;
 	}
@@ -34,7 +36,7 @@ public class TestResult extends Object {
 	 */
 	public synchronized void addError(Test test, Throwable t) {
 		fErrors.add(new TestFailure(test, t));
-		for (TestListener each : cloneListeners())
+		for (TestListener each : fListeners)
 			each.addError(test, t);
 	}
 	/**
@@ -43,7 +45,7 @@ public class TestResult extends Object {
 	 */
 	public synchronized void addFailure(Test test, AssertionFailedError t) {
 		fFailures.add(new TestFailure(test, t));
-		for (TestListener each : cloneListeners())
+		for (TestListener each : fListeners)
 			each.addFailure(test, t);
 	}
 	/**
@@ -58,19 +60,11 @@ public class TestResult extends Object {
 	public synchronized void removeListener(TestListener listener) {
 		fListeners.remove(listener);
 	}
-	/**
-	 * Returns a copy of the listeners.
-	 */
-	private synchronized List<TestListener> cloneListeners() {
-		List<TestListener> result= new ArrayList<TestListener>();
-		result.addAll(fListeners);
-		return result;
-	}
 	/**
 	 * Informs the result that a test was completed.
 	 */
 	public void endTest(Test test) {
-		for (TestListener each : cloneListeners())
+		for (TestListener each : fListeners)
 			each.endTest(test);
 	}
 	/**
@@ -151,7 +145,7 @@ public class TestResult extends Object {
 		synchronized(this) {
 			fRunTests+= count;
 		}
-		for (TestListener each : cloneListeners())
+		for (TestListener each : fListeners)
 			each.startTest(test);
 	}
 	/**
@@ -1,14 +1,24 @@
 package org.junit.experimental;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
+import org.junit.experimental.parallel.ConcurrencyBudget;
+import org.junit.experimental.parallel.FailFast;
+import org.junit.experimental.parallel.ParallelScheduler;
+import org.junit.experimental.parallel.WorkerPool;
 import org.junit.runner.Computer;
+import org.junit.runner.Description;
 import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sortable;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.ParentRunner;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.RunnerBuilder;
@@ -19,9 +29,37 @@ public class ParallelComputer extends Computer {
 
 	private final boolean fMethods;
 
+	private final Executor fExecutor;
+
+	private ConcurrencyBudget fBudget= null;
+
+	private Comparator<Description> fOrder= null;
+
+	private FailFast fFailFast= null;
+
+	/**
+	 * Creates a computer that runs classes and/or methods in parallel, using as
+	 * many threads as there are children to run.
+	 */
 	public ParallelComputer(boolean classes, boolean methods) {
+		this(classes, methods, Executors.newCachedThreadPool(daemonThreads()));
+	}
+
+	/**
+	 * Creates a computer that runs classes and/or methods in parallel on a
+	 * single {@link WorkerPool} of at most {@code parallelism} threads, shared
+	 * by the suite and every class. A parent waiting for its children helps to
+	 * run them, so nesting schedules cannot exhaust the pool.
+	 */
+	public ParallelComputer(boolean classes, boolean methods, int parallelism) {
+		this(classes, methods, new WorkerPool(parallelism));
+	}
+
+	private ParallelComputer(boolean classes, boolean methods,
+			Executor executor) {
 		fClasses= classes;
 		fMethods= methods;
+		fExecutor= executor;
 	}
 
 	public static Computer classes() {
@@ -32,41 +70,115 @@ public class ParallelComputer extends Computer {
 		return new ParallelComputer(false, true);
 	}
 
-	private static <T> Runner parallelize(Runner runner) {
-		if (runner instanceof ParentRunner<?>) {
-			((ParentRunner<?>) runner).setScheduler(new RunnerScheduler() {
-				private final List<Future<Object>> fResults= new ArrayList<Future<Object>>();
-
-				private final ExecutorService fService= Executors
-						.newCachedThreadPool();
-
-				public void schedule(final Runnable childStatement) {
-					fResults.add(fService.submit(new Callable<Object>() {
-						public Object call() throws Exception {
-							childStatement.run();
-							return null;
-						}
-					}));
-				}
-
-				public void finished() {
-					for (Future<Object> each : fResults)
-						try {
-							each.get();
-						} catch (Exception e) {
-							e.printStackTrace();
-						}
-				}
-			});
+	/**
+	 * Returns a computer that runs classes and methods in parallel, starting a
+	 * virtual thread for each child, which suits tests that mostly block on
+	 * I/O. Every child runs on a virtual thread of its own: a waiting parent
+	 * never runs its children inline. On a JDK without virtual threads, this
+	 * falls back to {@code new ParallelComputer(true, true)}.
+	 */
+	public static Computer virtualThreads() {
+		Executor executor= newVirtualThreadExecutor();
+		if (executor == null)
+			return new ParallelComputer(true, true);
+		return new ParallelComputer(true, true, executor);
+	}
+
+	private static Executor newVirtualThreadExecutor() {
+		try {
+			Method factory= Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor");
+			return (Executor) factory.invoke(null);
+		} catch (Exception e) {
+			// not available (or only as a preview feature) on this JDK
+			return null;
 		}
+	}
+
+	/**
+	 * Limits the number of tests and classes running at the same time, across
+	 * the whole run, to {@code permits}. Nested suites and classes draw from
+	 * the same budget, so {@code new ParallelComputer(true, true)} no longer
+	 * runs classes times methods statements at once.
+	 * 
+	 * @return this computer
+	 */
+	public ParallelComputer withConcurrencyBudget(int permits) {
+		return withConcurrencyBudget(new ConcurrencyBudget(permits));
+	}
+
+	/**
+	 * Limits the number of tests and classes running at the same time, across
+	 * the whole run, with {@code budget}. For example, an
+	 * {@link org.junit.experimental.parallel.AdaptiveConcurrency} budget
+	 * follows the load of the host while the run is going.
+	 * 
+	 * @return this computer
+	 */
+	public ParallelComputer withConcurrencyBudget(ConcurrencyBudget budget) {
+		fBudget= budget;
+		return this;
+	}
+
+	/**
+	 * Submits the children of each suite and class in the order given by
+	 * {@code order}, instead of the order in which they are declared. For
+	 * example, {@link org.junit.experimental.max.MaxHistory#longestFirst()}
+	 * starts the children that took longest in earlier runs first, so that a
+	 * long child does not start last and delay the end of the run.
+	 * 
+	 * @return this computer
+	 */
+	public ParallelComputer withChildOrder(Comparator<Description> order) {
+		fOrder= order;
+		return this;
+	}
+
+	/**
+	 * Stops the run at the first failure, or when
+	 * {@link RunNotifier#pleaseStop()} is called: children that have not
+	 * started are dropped, statements still running after {@code graceMillis}
+	 * milliseconds are interrupted, and the tests that did not run are
+	 * reported as ignored.
+	 * 
+	 * @return this computer
+	 */
+	public ParallelComputer withFailFast(long graceMillis) {
+		fFailFast= new FailFast(graceMillis);
+		return this;
+	}
+
+	private static ThreadFactory daemonThreads() {
+		return new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread= new Thread(r);
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+	private Runner parallelize(Runner runner) {
+		if (runner instanceof ParentRunner<?>)
+			((ParentRunner<?>) runner).setScheduler(createScheduler());
 		return runner;
 	}
 
+	/**
+	 * Returns the scheduler for one suite or class. Every scheduler created by
+	 * this computer shares the same executor and concurrency budget.
+	 */
+	protected RunnerScheduler createScheduler() {
+		return new ParallelScheduler(fExecutor, fBudget, fOrder, fFailFast);
+	}
+
 	@Override
 	public Runner getSuite(RunnerBuilder builder, java.lang.Class<?>[] classes)
 			throws InitializationError {
 		Runner suite= super.getSuite(builder, classes);
-		return fClasses ? parallelize(suite) : suite;
+		if (fClasses)
+			parallelize(suite);
+		return fFailFast == null ? suite : new FailFastRunner(suite, fFailFast);
 	}
 
 	@Override
@@ -75,4 +187,34 @@ public class ParallelComputer extends Computer {
 		Runner runner= super.getRunner(builder, testClass);
 		return fMethods ? parallelize(runner) : runner;
 	}
+
+	private static class FailFastRunner extends Runner implements Filterable,
+			Sortable {
+		private final Runner fRunner;
+
+		private final FailFast fFailFast;
+
+		FailFastRunner(Runner runner, FailFast failFast) {
+			fRunner= runner;
+			fFailFast= failFast;
+		}
+
+		@Override
+		public Description getDescription() {
+			return fRunner.getDescription();
+		}
+
+		@Override
+		public void run(RunNotifier notifier) {
+			fFailFast.run(fRunner, notifier);
+		}
+
+		public void filter(Filter filter) throws NoTestsRemainException {
+			filter.apply(fRunner);
+		}
+
+		public void sort(Sorter sorter) {
+			sorter.apply(fRunner);
+		}
+	}
 }
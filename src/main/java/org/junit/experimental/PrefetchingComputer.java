@@ -0,0 +1,120 @@
+package org.junit.experimental;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.experimental.parallel.WorkerPool;
+import org.junit.runner.Computer;
+import org.junit.runner.Describable;
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runners.ParentRunner;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * Runs classes one after the other, but starts the {@code @BeforeClass}
+ * methods of the next few classes on a background thread while the current
+ * class's tests run. A class whose {@code @BeforeClass} methods failed fails
+ * when its turn comes, and every class runs its {@code @AfterClass} methods
+ * right after its own tests, in the usual order. Note that the
+ * {@code @BeforeClass} methods of a class may run before the
+ * {@code @AfterClass} methods of the class before it, and on another thread.
+ *
+ * WARNING: still experimental, may go away.
+ */
+public class PrefetchingComputer extends Computer {
+	private final int fDepth;
+
+	private final Executor fExecutor= new WorkerPool(1);
+
+	/**
+	 * Creates a computer that prepares at most {@code depth} classes ahead of
+	 * the one that is running
+	 */
+	public PrefetchingComputer(int depth) {
+		if (depth < 1)
+			throw new IllegalArgumentException(
+					"depth must be at least 1, but was " + depth);
+		fDepth= depth;
+	}
+
+	@Override
+	public Runner getSuite(final RunnerBuilder builder, Class<?>[] classes)
+			throws InitializationError {
+		final List<Runner> runners= new ArrayList<Runner>();
+		Runner suite= super.getSuite(new RunnerBuilder() {
+			@Override
+			public Runner runnerForClass(Class<?> testClass) throws Throwable {
+				Runner runner= builder.runnerForClass(testClass);
+				if (runner != null)
+					runners.add(runner);
+				return runner;
+			}
+		}, classes);
+		if (suite instanceof ParentRunner<?>)
+			((ParentRunner<?>) suite).setScheduler(new PrefetchingScheduler(
+					runners));
+		return suite;
+	}
+
+	private class PrefetchingScheduler implements RunnerScheduler {
+		private final List<Runner> fRunners;
+
+		private final List<Runnable> fChildren= new ArrayList<Runnable>();
+
+		PrefetchingScheduler(List<Runner> runners) {
+			fRunners= runners;
+		}
+
+		public void schedule(Runnable childStatement) {
+			fChildren.add(childStatement);
+		}
+
+		public void finished() {
+			List<ParentRunner<?>> classes= classRunners();
+			try {
+				for (int i= 0; i < fChildren.size(); i++) {
+					for (int j= i + 1; j <= i + fDepth && j < classes.size(); j++)
+						if (classes.get(j) != null)
+							classes.get(j).prepareClass(fExecutor);
+					fChildren.get(i).run();
+				}
+			} finally {
+				// clean up after classes that were prepared, but not run
+				for (ParentRunner<?> each : classes)
+					if (each != null)
+						each.discardPreparedClass();
+				fChildren.clear();
+			}
+		}
+
+		/**
+		 * Finds the runner behind each child statement, in the order in which
+		 * they will run: filtering and sorting may have changed it since the
+		 * runners were built.
+		 */
+		private List<ParentRunner<?>> classRunners() {
+			List<Runner> unmatched= new ArrayList<Runner>(fRunners);
+			List<ParentRunner<?>> results= new ArrayList<ParentRunner<?>>();
+			for (Runnable each : fChildren)
+				results.add(take(unmatched, each));
+			return results;
+		}
+
+		private ParentRunner<?> take(List<Runner> runners, Runnable child) {
+			if (!(child instanceof Describable))
+				return null;
+			Description description= ((Describable) child).getDescription();
+			for (int i= 0; i < runners.size(); i++)
+				if (runners.get(i).getDescription().equals(description)) {
+					Runner runner= runners.remove(i);
+					return runner instanceof ParentRunner<?> ? (ParentRunner<?>) runner
+							: null;
+				}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,310 @@
+package org.junit.experimental.discovery;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.internal.builders.AllDefaultPossibilitiesBuilder;
+import org.junit.internal.requests.ClassesRequest;
+import org.junit.internal.runners.ErrorReportingRunner;
+import org.junit.runner.Computer;
+import org.junit.runner.Description;
+import org.junit.runner.Plan;
+import org.junit.runner.Request;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sortable;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.JUnit4;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+
+/**
+ * Remembers, from one run to the next, the test methods of each plain JUnit 4
+ * class (one run by {@link BlockJUnit4ClassRunner}) that passed validation,
+ * along with a fingerprint of the class files of the class and its
+ * superclasses. As long as the fingerprint is unchanged, the class is
+ * described without scanning it, and it is neither scanned nor validated
+ * until it is filtered, sorted or run; it is not validated again then
+ * either. This pays off most where classes are described in one place and
+ * run in another, as with {@link org.junit.experimental.fork.ForkedComputer}:
+ * 
+ * <pre>
+ * DiscoveryCache cache= DiscoveryCache.forFile(new File(&quot;.junit-discovery&quot;));
+ * new JUnitCore().run(cache.classes(new ForkedComputer(4), classes));
+ * cache.save();
+ * </pre>
+ * 
+ * Classes with other runners, and classes that failed validation, are built
+ * as usual every time. The cache assumes that an unchanged class gets the same
+ * runner as it did last time, so use each cache file with one kind of
+ * {@link RunnerBuilder}.
+ * 
+ * WARNING: still experimental, may go away.
+ */
+public class DiscoveryCache implements Serializable {
+	private static final long serialVersionUID= 1L;
+
+	/**
+	 * Loads a {@link DiscoveryCache} from {@code file}, or creates an empty
+	 * one that will be saved to {@code file}.
+	 */
+	public static DiscoveryCache forFile(File file) {
+		if (file.exists())
+			try {
+				return readCache(file);
+			} catch (IOException e) {
+				e.printStackTrace();
+				file.delete();
+			}
+		return new DiscoveryCache(file);
+	}
+
+	private static DiscoveryCache readCache(File storedCache) throws IOException {
+		FileInputStream file= new FileInputStream(storedCache);
+		try {
+			ObjectInputStream stream= new ObjectInputStream(file);
+			try {
+				return (DiscoveryCache) stream.readObject();
+			} catch (ClassNotFoundException e) {
+				throw new IOException(e.toString());
+			} finally {
+				stream.close();
+			}
+		} finally {
+			file.close();
+		}
+	}
+
+	private static class Entry implements Serializable {
+		private static final long serialVersionUID= 1L;
+
+		private final String fFingerprint;
+
+		private final ArrayList<String> fMethodNames;
+
+		Entry(String fingerprint, ArrayList<String> methodNames) {
+			fFingerprint= fingerprint;
+			fMethodNames= methodNames;
+		}
+	}
+
+	private final Map<String, Entry> fEntries= new HashMap<String, Entry>();
+
+	private final File fStore;
+
+	private transient int fHits= 0;
+
+	private DiscoveryCache(File store) {
+		fStore= store;
+	}
+
+	/**
+	 * Writes this cache to the file it was loaded from
+	 */
+	public synchronized void save() throws IOException {
+		ObjectOutputStream stream= new ObjectOutputStream(new FileOutputStream(
+				fStore));
+		try {
+			stream.writeObject(this);
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * @return the number of classes described from this cache since it was
+	 *         loaded
+	 */
+	public synchronized int getHits() {
+		return fHits;
+	}
+
+	/**
+	 * @return a request for the tests in {@code classes}, built with
+	 *         {@code computer} and the default builders, by way of this cache
+	 */
+	public Request classes(Computer computer, Class<?>... classes) {
+		return new ClassesRequest(computer,
+				builder(new AllDefaultPossibilitiesBuilder(true)), classes);
+	}
+
+	/**
+	 * @return a builder that builds runners with {@code delegate}, except for
+	 *         classes it finds in this cache
+	 */
+	public RunnerBuilder builder(final RunnerBuilder delegate) {
+		return new RunnerBuilder() {
+			@Override
+			public Runner runnerForClass(Class<?> testClass) throws Throwable {
+				return DiscoveryCache.this.runnerForClass(delegate, testClass);
+			}
+		};
+	}
+
+	private Runner runnerForClass(RunnerBuilder delegate, Class<?> testClass)
+			throws Throwable {
+		String fingerprint= fingerprint(testClass);
+		if (fingerprint != null) {
+			Runner cached= cachedRunner(testClass, fingerprint);
+			if (cached != null)
+				return cached;
+		}
+		Runner runner= delegate.runnerForClass(testClass);
+		if (fingerprint != null && runner != null && isPlainJUnit4(runner))
+			put(testClass.getName(), new Entry(fingerprint,
+					methodNames(runner.getPlan())));
+		else
+			remove(testClass.getName());
+		return runner;
+	}
+
+	private Runner cachedRunner(Class<?> testClass, String fingerprint) {
+		Entry entry= get(testClass.getName());
+		if (entry == null || !entry.fFingerprint.equals(fingerprint))
+			return null;
+		Description description= Description.createSuiteDescription(
+				testClass.getName(), testClass.getAnnotations());
+		try {
+			for (String each : entry.fMethodNames)
+				description.addChild(Description.createTestDescription(
+						testClass, each, testClass.getMethod(each)
+								.getAnnotations()));
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+		synchronized (this) {
+			fHits++;
+		}
+		return new CachedClassRunner(testClass, description);
+	}
+
+	private synchronized Entry get(String className) {
+		return fEntries.get(className);
+	}
+
+	private synchronized void put(String className, Entry entry) {
+		fEntries.put(className, entry);
+	}
+
+	private synchronized void remove(String className) {
+		fEntries.remove(className);
+	}
+
+	private static boolean isPlainJUnit4(Runner runner) {
+		// subclasses may describe, validate or run a class differently
+		return runner.getClass() == BlockJUnit4ClassRunner.class
+				|| runner.getClass() == JUnit4.class;
+	}
+
+	private static ArrayList<String> methodNames(Plan plan) {
+		ArrayList<String> results= new ArrayList<String>();
+		for (Plan each : plan.getChildren())
+			results.add(each.getDescription().getMethodName());
+		return results;
+	}
+
+	/**
+	 * @return a digest of the class files of {@code testClass} and its
+	 *         superclasses, or null if one of them can't be read
+	 */
+	private static String fingerprint(Class<?> testClass) {
+		try {
+			MessageDigest digest= MessageDigest.getInstance("SHA-1");
+			byte[] buffer= new byte[8192];
+			for (Class<?> each= testClass; each != null; each= each.getSuperclass()) {
+				ClassLoader loader= each.getClassLoader();
+				if (loader == null)
+					continue; // part of the JDK
+				InputStream stream= loader.getResourceAsStream(each.getName()
+						.replace('.', '/') + ".class");
+				if (stream == null)
+					return null;
+				try {
+					for (int read; (read= stream.read(buffer)) != -1;)
+						digest.update(buffer, 0, read);
+				} finally {
+					stream.close();
+				}
+			}
+			return new BigInteger(1, digest.digest()).toString(16);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Describes a class from the cache, and builds its runner the first time
+	 * it is needed
+	 */
+	private static class CachedClassRunner extends Runner implements
+			Filterable, Sortable {
+		private final Class<?> fTestClass;
+
+		private final Description fDescription;
+
+		private Runner fRunner= null;
+
+		CachedClassRunner(Class<?> testClass, Description description) {
+			fTestClass= testClass;
+			fDescription= description;
+		}
+
+		@Override
+		public synchronized Description getDescription() {
+			return fRunner == null ? fDescription : fRunner.getDescription();
+		}
+
+		@Override
+		public void run(RunNotifier notifier) {
+			getRunner().run(notifier);
+		}
+
+		public void filter(Filter filter) throws NoTestsRemainException {
+			filter.apply(getRunner());
+		}
+
+		public void sort(Sorter sorter) {
+			sorter.apply(getRunner());
+		}
+
+		private synchronized Runner getRunner() {
+			if (fRunner == null)
+				try {
+					fRunner= new ValidatedClassRunner(fTestClass);
+				} catch (InitializationError e) {
+					fRunner= new ErrorReportingRunner(fTestClass, e);
+				}
+			return fRunner;
+		}
+	}
+
+	/**
+	 * Runs a class that passed validation when it was cached
+	 */
+	private static class ValidatedClassRunner extends BlockJUnit4ClassRunner {
+		ValidatedClassRunner(Class<?> testClass) throws InitializationError {
+			super(testClass);
+		}
+
+		@Override
+		protected void collectInitializationErrors(List<Throwable> errors) {
+			// its class files are unchanged since it was validated
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package org.junit.experimental.fork;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.security.SecureRandom;
+
+/**
+ * The messages exchanged between a {@link ForkedComputer} and its
+ * {@link ForkedWorker}s. The parent sends the name of a class to run (or
+ * {@link #EXIT}); the worker answers with one event per test, identified by
+ * display name, and then {@link #CLASS_DONE}. Before anything else, the
+ * worker sends the token the parent wrote to its standard input, so that the
+ * parent never reads objects from another process that connected first.
+ */
+final class ForkProtocol {
+	static final String EXIT= "";
+
+	static final byte STARTED= 1;
+
+	static final byte FINISHED= 2;
+
+	static final byte IGNORED= 3;
+
+	static final byte FAILURE= 4;
+
+	static final byte ASSUMPTION_FAILURE= 5;
+
+	static final byte CLASS_DONE= 6;
+
+	static final int TOKEN_LENGTH= 16;
+
+	private static final SecureRandom RANDOM= new SecureRandom();
+
+	private ForkProtocol() {
+	}
+
+	static byte[] newToken() {
+		byte[] token= new byte[TOKEN_LENGTH];
+		RANDOM.nextBytes(token);
+		return token;
+	}
+
+	/**
+	 * Writes {@code string} as its length and UTF-8 bytes: unlike
+	 * {@link DataOutputStream#writeUTF(String)}, this takes names of any
+	 * length, such as those of parameterized tests.
+	 */
+	static void writeString(DataOutputStream out, String string)
+			throws IOException {
+		byte[] bytes= string.getBytes("UTF-8");
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(DataInputStream in) throws IOException {
+		byte[] bytes= new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+
+	static void writeThrowable(DataOutputStream out, Throwable thrown)
+			throws IOException {
+		byte[] bytes;
+		try {
+			bytes= serialize(thrown);
+		} catch (IOException e) {
+			// something in the exception cannot be serialized: send its text
+			Exception substitute= new Exception(thrown.toString());
+			substitute.setStackTrace(thrown.getStackTrace());
+			bytes= serialize(substitute);
+		}
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] serialize(Throwable thrown) throws IOException {
+		ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+		ObjectOutputStream stream= new ObjectOutputStream(bytes);
+		stream.writeObject(thrown);
+		stream.close();
+		return bytes.toByteArray();
+	}
+
+	static Throwable readThrowable(DataInputStream in) throws IOException {
+		byte[] bytes= new byte[in.readInt()];
+		in.readFully(bytes);
+		try {
+			ObjectInputStream stream= new ObjectInputStream(
+					new ByteArrayInputStream(bytes));
+			return (Throwable) stream.readObject();
+		} catch (ClassNotFoundException e) {
+			return new Exception("Could not read the exception thrown in a forked JVM", e);
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package org.junit.experimental.fork;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.experimental.parallel.ParallelScheduler;
+import org.junit.experimental.parallel.WorkerPool;
+import org.junit.runner.Computer;
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.ParentRunner;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * Runs each test class in one of several worker JVMs, forked from this one
+ * with the same class path. Classes are handed out to the workers as they
+ * become idle, and the workers' test events are fired at the parent's
+ * {@link RunNotifier}, so listeners and the {@link org.junit.runner.Result}
+ * of the run see a single run:
+ * 
+ * <pre>
+ * JUnitCore.runClasses(new ForkedComputer(4), classes);
+ * </pre>
+ * 
+ * If a worker JVM dies, the test it was running fails, and the remaining
+ * classes go to a new worker. So does a worker that hangs: one that sends no
+ * test event for 30 minutes (see {@link #withIdleTimeout(long)}) is killed.
+ * Filters and sorters apply to whole classes only.
+ * 
+ * WARNING: still experimental, may go away.
+ */
+public class ForkedComputer extends Computer {
+	private static final long DEFAULT_IDLE_TIMEOUT_MILLIS= 30L * 60 * 1000;
+
+	private final int fWorkers;
+
+	private final List<String> fJvmArgs;
+
+	private final List<ForkedJvm> fIdle= new ArrayList<ForkedJvm>();
+
+	private long fIdleTimeoutMillis= DEFAULT_IDLE_TIMEOUT_MILLIS;
+
+	/**
+	 * Creates a computer that runs classes in at most {@code workers} JVMs at
+	 * once, each started with {@code jvmArgs}
+	 */
+	public ForkedComputer(int workers, String... jvmArgs) {
+		if (workers < 1)
+			throw new IllegalArgumentException(
+					"workers must be at least 1, but was " + workers);
+		fWorkers= workers;
+		fJvmArgs= Arrays.asList(jvmArgs);
+	}
+
+	/**
+	 * Kills a worker, and fails the test it is running, when it sends no test
+	 * event for {@code millis} milliseconds; 0 waits forever.
+	 * 
+	 * @return this computer
+	 */
+	public ForkedComputer withIdleTimeout(long millis) {
+		if (millis < 0)
+			throw new IllegalArgumentException(
+					"timeout must not be negative, but was " + millis);
+		fIdleTimeoutMillis= millis;
+		return this;
+	}
+
+	@Override
+	public Runner getSuite(RunnerBuilder builder, Class<?>[] classes)
+			throws InitializationError {
+		Runner suite= super.getSuite(builder, classes);
+		((ParentRunner<?>) suite).setScheduler(new RunnerScheduler() {
+			private final RunnerScheduler fDelegate= new ParallelScheduler(
+					new WorkerPool(fWorkers));
+
+			public void schedule(Runnable childStatement) {
+				fDelegate.schedule(childStatement);
+			}
+
+			public void finished() {
+				try {
+					fDelegate.finished();
+				} finally {
+					closeIdleJvms();
+				}
+			}
+		});
+		return suite;
+	}
+
+	@Override
+	protected Runner getRunner(RunnerBuilder builder, Class<?> testClass)
+			throws Throwable {
+		Runner runner= super.getRunner(builder, testClass);
+		return runner == null ? null : new ForkedClassRunner(testClass, runner);
+	}
+
+	private ForkedJvm takeJvm() throws IOException {
+		synchronized (fIdle) {
+			if (!fIdle.isEmpty())
+				return fIdle.remove(fIdle.size() - 1);
+		}
+		return new ForkedJvm(fJvmArgs, fIdleTimeoutMillis);
+	}
+
+	private void giveBack(ForkedJvm jvm) {
+		if (!jvm.isAlive())
+			return;
+		synchronized (fIdle) {
+			fIdle.add(jvm);
+		}
+	}
+
+	private void closeIdleJvms() {
+		synchronized (fIdle) {
+			for (ForkedJvm each : fIdle)
+				each.close();
+			fIdle.clear();
+		}
+	}
+
+	/**
+	 * Describes a class as the parent sees it, but runs it in a worker
+	 */
+	private class ForkedClassRunner extends Runner {
+		private final Class<?> fTestClass;
+
+		private final Runner fLocal;
+
+		ForkedClassRunner(Class<?> testClass, Runner local) {
+			fTestClass= testClass;
+			fLocal= local;
+		}
+
+		@Override
+		public Description getDescription() {
+			return fLocal.getDescription();
+		}
+
+		@Override
+		public void run(RunNotifier notifier) {
+			Description description= getDescription();
+			ForkedJvm jvm;
+			try {
+				jvm= takeJvm();
+			} catch (IOException e) {
+				notifier.fireTestFailure(new Failure(description, e));
+				return;
+			}
+			try {
+				jvm.run(fTestClass.getName(), description,
+						byDisplayName(description), notifier);
+			} finally {
+				giveBack(jvm);
+			}
+		}
+
+		@SuppressWarnings("deprecation")
+		private Map<String, Description> byDisplayName(Description root) {
+			Map<String, Description> results= new HashMap<String, Description>();
+			List<Description> pending= new ArrayList<Description>();
+			pending.add(root);
+			while (!pending.isEmpty()) {
+				Description each= pending.remove(pending.size() - 1);
+				if (!results.containsKey(each.getDisplayName()))
+					results.put(each.getDisplayName(), each);
+				pending.addAll(each.getChildren());
+			}
+			return results;
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package org.junit.experimental.fork;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.runner.Description;
+import org.junit.runner.Plan;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * The parent's end of one {@link ForkedWorker}: starts the JVM, sends it
+ * classes to run, and replays the events it streams back.
+ */
+class ForkedJvm {
+	private static final int CONNECT_TIMEOUT_MILLIS= 60000;
+
+	private static final int EXIT_TIMEOUT_MILLIS= 5000;
+
+	private final Process fProcess;
+
+	private final Socket fSocket;
+
+	private final DataInputStream fIn;
+
+	private final DataOutputStream fOut;
+
+	private final long fIdleTimeoutMillis;
+
+	private boolean fAlive= true;
+
+	/**
+	 * Starts a JVM with {@code jvmArgs} that is killed if it sends no event
+	 * for {@code idleTimeoutMillis} milliseconds (never, if 0) while running
+	 * a class
+	 */
+	ForkedJvm(List<String> jvmArgs, long idleTimeoutMillis) throws IOException {
+		fIdleTimeoutMillis= idleTimeoutMillis;
+		byte[] token= ForkProtocol.newToken();
+		ServerSocket server= new ServerSocket(0, 1, InetAddress.getByName(null));
+		Process process= null;
+		Socket socket= null;
+		try {
+			process= new ProcessBuilder(command(jvmArgs, server.getLocalPort()))
+					.start();
+			pipe(process.getInputStream(), System.out);
+			pipe(process.getErrorStream(), System.err);
+			// not on the command line, where other processes could read it
+			OutputStream stdin= process.getOutputStream();
+			stdin.write(token);
+			stdin.close();
+			socket= acceptWorker(server, token);
+		} finally {
+			server.close();
+			if (socket == null && process != null)
+				process.destroy();
+		}
+		fProcess= process;
+		fSocket= socket;
+		// an int of milliseconds is over three weeks: enough to mean forever
+		fSocket.setSoTimeout((int) Math.min(idleTimeoutMillis,
+				Integer.MAX_VALUE));
+		fIn= new DataInputStream(new BufferedInputStream(fSocket
+				.getInputStream()));
+		fOut= new DataOutputStream(new BufferedOutputStream(fSocket
+				.getOutputStream()));
+	}
+
+	/**
+	 * Accepts connections until one sends {@code token}, and closes the others
+	 * without reading anything more from them
+	 */
+	private static Socket acceptWorker(ServerSocket server, byte[] token)
+			throws IOException {
+		long deadline= System.currentTimeMillis() + CONNECT_TIMEOUT_MILLIS;
+		while (true) {
+			long remaining= deadline - System.currentTimeMillis();
+			if (remaining <= 0)
+				throw new SocketTimeoutException(
+						"Forked JVM did not connect within "
+								+ CONNECT_TIMEOUT_MILLIS + " ms");
+			server.setSoTimeout((int) remaining);
+			Socket socket= server.accept();
+			try {
+				socket.setSoTimeout((int) remaining);
+				byte[] received= new byte[token.length];
+				new DataInputStream(socket.getInputStream())
+						.readFully(received);
+				if (MessageDigest.isEqual(token, received))
+					return socket;
+			} catch (IOException e) {
+				// not the worker: it sends the token as soon as it connects
+			}
+			socket.close();
+		}
+	}
+
+	private static List<String> command(List<String> jvmArgs, int port) {
+		List<String> command= new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin"
+				+ File.separator + "java");
+		command.addAll(jvmArgs);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(ForkedWorker.class.getName());
+		command.add(String.valueOf(port));
+		return command;
+	}
+
+	private static void pipe(final InputStream from, final PrintStream to) {
+		Thread thread= new Thread("junit-fork-output") {
+			@Override
+			public void run() {
+				byte[] buffer= new byte[4096];
+				try {
+					for (int read= from.read(buffer); read != -1; read= from
+							.read(buffer))
+						write(to, buffer, read);
+				} catch (IOException e) {
+					// the worker is gone
+				}
+			}
+		};
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private static void write(OutputStream to, byte[] buffer, int length) {
+		synchronized (to) {
+			try {
+				to.write(buffer, 0, length);
+				to.flush();
+			} catch (IOException e) {
+				// nowhere else to report it
+			}
+		}
+	}
+
+	boolean isAlive() {
+		return fAlive;
+	}
+
+	/**
+	 * Runs the tests of {@code className} in this JVM, firing their events at
+	 * {@code notifier}. Display names are mapped back to the parent's
+	 * {@code descriptions} where possible. If the JVM dies, the test it was
+	 * running, and every test of {@code classDescription} that had not
+	 * started, are reported as failed, and this JVM is no longer
+	 * {@link #isAlive() alive}. So is a JVM that hangs: one that sends no
+	 * event within the idle timeout is killed.
+	 */
+	void run(String className, Description classDescription,
+			Map<String, Description> descriptions, RunNotifier notifier) {
+		Description running= null;
+		Set<Description> reported= new HashSet<Description>();
+		try {
+			ForkProtocol.writeString(fOut, className);
+			fOut.flush();
+			while (true) {
+				byte event= fIn.readByte();
+				if (event == ForkProtocol.CLASS_DONE)
+					return;
+				Description description= lookUp(descriptions, ForkProtocol
+						.readString(fIn));
+				switch (event) {
+				case ForkProtocol.STARTED:
+					running= description;
+					reported.add(description);
+					notifier.fireTestStarted(description);
+					break;
+				case ForkProtocol.FINISHED:
+					running= null;
+					notifier.fireTestFinished(description);
+					break;
+				case ForkProtocol.IGNORED:
+					reported.add(description);
+					notifier.fireTestIgnored(description);
+					break;
+				case ForkProtocol.FAILURE:
+					notifier.fireTestFailure(new Failure(description,
+							ForkProtocol.readThrowable(fIn)));
+					break;
+				case ForkProtocol.ASSUMPTION_FAILURE:
+					notifier.fireTestAssumptionFailed(new Failure(description,
+							ForkProtocol.readThrowable(fIn)));
+					break;
+				default:
+					throw new IOException("Unknown event from forked JVM: "
+							+ event);
+				}
+			}
+		} catch (IOException e) {
+			crashed(running, reported, classDescription, notifier, e);
+		} catch (RuntimeException e) {
+			// for example, the run was stopped: the worker is mid-class
+			fAlive= false;
+			close();
+			throw e;
+		}
+	}
+
+	private static Description lookUp(Map<String, Description> descriptions,
+			String displayName) {
+		Description description= descriptions.get(displayName);
+		if (description == null)
+			return Description.createSuiteDescription(displayName);
+		return description;
+	}
+
+	private void crashed(Description running, Set<Description> reported,
+			Description classDescription, RunNotifier notifier,
+			IOException cause) {
+		fAlive= false;
+		closeSocket();
+		Exception crash;
+		if (cause instanceof SocketTimeoutException) {
+			fProcess.destroy();
+			crash= new Exception("Forked JVM sent no events for "
+					+ fIdleTimeoutMillis + " ms, and was killed"
+					+ exitStatus(), cause);
+		} else
+			crash= new Exception("Forked JVM crashed" + exitStatus(), cause);
+		if (running != null) {
+			notifier.fireTestFailure(new Failure(running, crash));
+			notifier.fireTestFinished(running);
+		}
+		// the tests the worker never got to would otherwise go unreported
+		for (Plan each : Plan.fromDescription(classDescription).getLeaves())
+			if (!reported.contains(each.getDescription())) {
+				notifier.fireTestStarted(each.getDescription());
+				notifier.fireTestFailure(new Failure(each.getDescription(),
+						crash));
+				notifier.fireTestFinished(each.getDescription());
+			}
+	}
+
+	/**
+	 * Waits a while for the JVM to exit, and kills it if it doesn't: it may
+	 * only have closed its end of the socket
+	 */
+	private String exitStatus() {
+		try {
+			for (int waited= 0; waited < EXIT_TIMEOUT_MILLIS; waited+= 10)
+				try {
+					return " with exit code " + fProcess.exitValue();
+				} catch (IllegalThreadStateException e) {
+					Thread.sleep(10);
+				}
+			fProcess.destroy();
+			return " with exit code " + fProcess.waitFor();
+		} catch (InterruptedException e) {
+			fProcess.destroy();
+			Thread.currentThread().interrupt();
+			return "";
+		}
+	}
+
+	/**
+	 * Asks the JVM to exit if it is idle, or kills it otherwise, and releases
+	 * its resources
+	 */
+	void close() {
+		try {
+			if (fAlive) {
+				ForkProtocol.writeString(fOut, ForkProtocol.EXIT);
+				fOut.flush();
+			} else
+				fProcess.destroy();
+		} catch (IOException e) {
+			fProcess.destroy();
+		}
+		fAlive= false;
+		closeSocket();
+	}
+
+	private void closeSocket() {
+		try {
+			fSocket.close();
+		} catch (IOException e) {
+			// already closed
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package org.junit.experimental.fork;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * The main class of a JVM forked by {@link ForkedComputer}. Connects back to
+ * the parent on the port given as the only argument, and proves who it is with
+ * the token the parent wrote to its standard input. Then runs the classes the
+ * parent sends, one at a time, streaming test events back, until told to exit
+ * or the connection closes.
+ * 
+ * WARNING: still experimental, may go away.
+ */
+public class ForkedWorker {
+	private final DataOutputStream fOut;
+
+	private ForkedWorker(DataOutputStream out) {
+		fOut= out;
+	}
+
+	public static void main(String... args) throws IOException {
+		byte[] token= new byte[ForkProtocol.TOKEN_LENGTH];
+		new DataInputStream(System.in).readFully(token);
+		Socket socket= new Socket(InetAddress.getByName(null), Integer
+				.parseInt(args[0]));
+		DataInputStream in= new DataInputStream(new BufferedInputStream(
+				socket.getInputStream()));
+		DataOutputStream out= new DataOutputStream(new BufferedOutputStream(
+				socket.getOutputStream()));
+		try {
+			out.write(token);
+			out.flush();
+			new ForkedWorker(out).serve(in);
+		} finally {
+			socket.close();
+		}
+		System.exit(0);
+	}
+
+	private void serve(DataInputStream in) throws IOException {
+		while (true) {
+			String className;
+			try {
+				className= ForkProtocol.readString(in);
+			} catch (EOFException e) {
+				return; // the parent went away
+			}
+			if (className.equals(ForkProtocol.EXIT))
+				return;
+			runClass(className);
+		}
+	}
+
+	private void runClass(String className) throws IOException {
+		RunListener listener= new StreamingListener();
+		try {
+			JUnitCore core= new JUnitCore();
+			core.addListener(listener);
+			core.run(Class.forName(className));
+		} catch (ClassNotFoundException e) {
+			send(ForkProtocol.FAILURE, Description
+					.createSuiteDescription(className), e);
+		}
+		synchronized (fOut) {
+			fOut.writeByte(ForkProtocol.CLASS_DONE);
+			fOut.flush();
+		}
+	}
+
+	private void send(byte event, Description description) throws IOException {
+		synchronized (fOut) {
+			fOut.writeByte(event);
+			ForkProtocol.writeString(fOut, description.getDisplayName());
+			fOut.flush();
+		}
+	}
+
+	private void send(byte event, Description description, Throwable thrown)
+			throws IOException {
+		synchronized (fOut) {
+			fOut.writeByte(event);
+			ForkProtocol.writeString(fOut, description.getDisplayName());
+			ForkProtocol.writeThrowable(fOut, thrown);
+			fOut.flush();
+		}
+	}
+
+	private class StreamingListener extends RunListener {
+		@Override
+		public void testStarted(Description description) throws Exception {
+			send(ForkProtocol.STARTED, description);
+		}
+
+		@Override
+		public void testFinished(Description description) throws Exception {
+			send(ForkProtocol.FINISHED, description);
+		}
+
+		@Override
+		public void testIgnored(Description description) throws Exception {
+			send(ForkProtocol.IGNORED, description);
+		}
+
+		@Override
+		public void testFailure(Failure failure) throws Exception {
+			send(ForkProtocol.FAILURE, failure.getDescription(), failure
+					.getException());
+		}
+
+		@Override
+		public void testAssumptionFailure(Failure failure) {
+			try {
+				send(ForkProtocol.ASSUMPTION_FAILURE, failure.getDescription(),
+						failure.getException());
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+}
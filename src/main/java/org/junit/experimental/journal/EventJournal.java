@@ -0,0 +1,290 @@
+package org.junit.experimental.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.runner.Description;
+import org.junit.runner.Plan;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Replays a journal written by {@link JournalingListener}. The listener gets
+ * the events in the order they happened; the descriptions it gets have the
+ * display names, and the tree, of the ones that ran, but no annotations. A
+ * journal that a crash cut short is replayed up to its last event, and then
+ * the run is finished. Durations in the replayed {@link Result} are those of
+ * the replay, not of the run.
+ *
+ * <pre>
+ * Result result= EventJournal.replay(new File("run.journal"), new XmlReportListener());
+ * </pre>
+ *
+ * WARNING: still experimental, may go away.
+ */
+public class EventJournal {
+	static final int MAGIC= 0x4a554e4a;
+
+	static final byte VERSION= 1;
+
+	static final byte NAME= 1;
+
+	static final byte RUN_STARTED= 2;
+
+	static final byte TEST_STARTED= 3;
+
+	static final byte TEST_FINISHED= 4;
+
+	static final byte TEST_IGNORED= 5;
+
+	static final byte TEST_FAILURE= 6;
+
+	static final byte TEST_ASSUMPTION_FAILURE= 7;
+
+	static final byte RUN_FINISHED= 8;
+
+	static final byte TESTS_DISCOVERED= 9;
+
+	/**
+	 * Replays {@code journal}, and returns the {@link Result} of the recorded
+	 * run
+	 */
+	public static Result replay(File journal) throws IOException {
+		return replay(journal, new RunListener());
+	}
+
+	/**
+	 * Replays {@code journal} into {@code listener}
+	 *
+	 * @return the {@link Result} of the recorded run
+	 */
+	public static Result replay(File journal, RunListener listener)
+			throws IOException {
+		Result result= new Result();
+		RunNotifier notifier= new RunNotifier();
+		notifier.addFirstListener(result.createListener());
+		notifier.addListener(listener);
+		FileInputStream stream= new FileInputStream(journal);
+		try {
+			FileChannel channel= stream.getChannel();
+			new EventJournal(channel.map(MapMode.READ_ONLY, 0, channel.size()))
+					.replay(notifier, result);
+		} finally {
+			stream.close();
+		}
+		return result;
+	}
+
+	private final ByteBuffer fBuffer;
+
+	private final List<Description> fNames= new ArrayList<Description>();
+
+	private EventJournal(ByteBuffer buffer) {
+		fBuffer= buffer;
+	}
+
+	private void replay(RunNotifier notifier, Result result) throws IOException {
+		try {
+			if (fBuffer.getInt() != MAGIC || fBuffer.get() != VERSION)
+				throw new IOException("not a journal of this version");
+		} catch (BufferUnderflowException e) {
+			throw new IOException("not a journal of this version");
+		}
+		try {
+			while (fBuffer.hasRemaining() && replayEvent(notifier))
+				;
+		} catch (BufferUnderflowException e) {
+			// a crash cut the journal short: replay what is there
+		}
+		notifier.fireTestRunFinished(result);
+	}
+
+	/**
+	 * @return false once the run is over
+	 */
+	private boolean replayEvent(RunNotifier notifier) throws IOException {
+		byte type= fBuffer.get();
+		switch (type) {
+		case NAME:
+			int id= fBuffer.getInt();
+			byte[] bytes= new byte[fBuffer.getInt()];
+			fBuffer.get(bytes);
+			while (fNames.size() <= id)
+				fNames.add(null);
+			fNames.set(id, Description.createSuiteDescription(decode(bytes)));
+			return true;
+		case RUN_STARTED:
+			notifier.fireTestRunStarted(Plan.fromDescription(readTree()));
+			return true;
+		case TESTS_DISCOVERED:
+			notifier.fireTestsDiscovered(Plan.fromDescription(readTree()));
+			return true;
+		case TEST_STARTED:
+			notifier.fireTestStarted(readName());
+			return true;
+		case TEST_FINISHED:
+			notifier.fireTestFinished(readName());
+			return true;
+		case TEST_IGNORED:
+			notifier.fireTestIgnored(readName());
+			return true;
+		case TEST_FAILURE:
+			notifier.fireTestFailure(readFailure());
+			return true;
+		case TEST_ASSUMPTION_FAILURE:
+			notifier.fireTestAssumptionFailed(readFailure());
+			return true;
+		default:
+			// RUN_FINISHED, or the zeros after the last event
+			return false;
+		}
+	}
+
+	/**
+	 * Builds a new node for each name in the tree, as a suite may hold a
+	 * class twice, or tests with the same name: only events share the
+	 * descriptions of {@link #fNames}
+	 */
+	private Description readTree() {
+		Description node= Description.createSuiteDescription(readName()
+				.getDisplayName());
+		int children= fBuffer.getInt();
+		for (int i= 0; i < children; i++) {
+			Description child= readTree();
+			node.addChild(child);
+			child.setParent(node);
+		}
+		return node;
+	}
+
+	private Description readName() {
+		return fNames.get(fBuffer.getInt());
+	}
+
+	private Failure readFailure() throws IOException {
+		Description description= readName();
+		Throwable text= readText();
+		byte[] serialized= new byte[fBuffer.getInt()];
+		fBuffer.get(serialized);
+		return new Failure(description, deserialize(serialized, text));
+	}
+
+	private Throwable readText() {
+		JournaledException exception= new JournaledException(readString(),
+				readString());
+		StackTraceElement[] trace= new StackTraceElement[fBuffer.getInt()];
+		for (int i= 0; i < trace.length; i++)
+			trace[i]= new StackTraceElement(readString(), readString(),
+					readString(), fBuffer.getInt());
+		exception.setStackTrace(trace);
+		return exception;
+	}
+
+	private static Throwable deserialize(byte[] serialized, Throwable text) {
+		if (serialized.length == 0)
+			return text;
+		try {
+			ObjectInputStream stream= new ObjectInputStream(
+					new ByteArrayInputStream(serialized));
+			try {
+				return (Throwable) stream.readObject();
+			} finally {
+				stream.close();
+			}
+		} catch (Exception e) {
+			// its class isn't here, say
+			return text;
+		}
+	}
+
+	private String readString() {
+		int length= fBuffer.getInt();
+		if (length < 0)
+			return null;
+		byte[] bytes= new byte[length];
+		fBuffer.get(bytes);
+		return decode(bytes);
+	}
+
+	static void writeText(Throwable exception, OutputStream out)
+			throws IOException {
+		writeString(exception.getClass().getName(), out);
+		writeString(exception.getMessage(), out);
+		StackTraceElement[] trace= exception.getStackTrace();
+		writeInt(trace.length, out);
+		for (StackTraceElement each : trace) {
+			writeString(each.getClassName(), out);
+			writeString(each.getMethodName(), out);
+			writeString(each.getFileName(), out);
+			writeInt(each.getLineNumber(), out);
+		}
+	}
+
+	private static void writeString(String string, OutputStream out)
+			throws IOException {
+		if (string == null) {
+			writeInt(-1, out);
+			return;
+		}
+		byte[] bytes= encode(string);
+		writeInt(bytes.length, out);
+		out.write(bytes);
+	}
+
+	static void writeInt(int value, OutputStream out) throws IOException {
+		out.write(value >>> 24);
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+	static byte[] encode(String string) {
+		try {
+			return string.getBytes("UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new RuntimeException(e); // every JVM has UTF-8
+		}
+	}
+
+	private static String decode(byte[] bytes) {
+		try {
+			return new String(bytes, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new RuntimeException(e); // every JVM has UTF-8
+		}
+	}
+
+	/**
+	 * Stands in for an exception that could not be serialized, or whose class
+	 * is missing where the journal is replayed
+	 */
+	private static class JournaledException extends Exception {
+		private static final long serialVersionUID= 1L;
+
+		private final String fClassName;
+
+		JournaledException(String className, String message) {
+			super(message);
+			fClassName= className;
+		}
+
+		@Override
+		public String toString() {
+			String message= getLocalizedMessage();
+			return message == null ? fClassName : fClassName + ": " + message;
+		}
+	}
+}
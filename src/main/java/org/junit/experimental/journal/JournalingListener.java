@@ -0,0 +1,225 @@
+package org.junit.experimental.journal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.runner.Description;
+import org.junit.runner.Plan;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Writes every event of a run to a binary journal, through a memory-mapped
+ * file, so that reports can be made after the run, or in another process, with
+ * {@link EventJournal#replay(File, RunListener)}. Each display name is written
+ * once, and then referred to by number; a failure's exception is written both
+ * serialized and as text, so that it can be read where its class is missing.
+ * Events are written in place as they happen, so the journal of a run that
+ * crashed can still be replayed up to the crash. The journal is complete once
+ * {@link #testRunFinished(Result)} returns.
+ *
+ * <pre>
+ * core.addListener(new JournalingListener(new File("run.journal")));
+ * </pre>
+ *
+ * WARNING: still experimental, may go away.
+ */
+@RunListener.ThreadSafe
+public class JournalingListener extends RunListener {
+	private static final int REGION= 1 << 20;
+
+	private final RandomAccessFile fFile;
+
+	private final FileChannel fChannel;
+
+	private MappedByteBuffer fBuffer;
+
+	private long fRegionStart= 0;
+
+	private int fRecordStart;
+
+	private final Map<String, Integer> fNames= new HashMap<String, Integer>();
+
+	private boolean fRunStarted= false;
+
+	/**
+	 * Creates a listener that writes to {@code journal}, replacing whatever
+	 * {@code journal} held
+	 */
+	public JournalingListener(File journal) throws IOException {
+		fFile= new RandomAccessFile(journal, "rw");
+		fFile.setLength(0);
+		fChannel= fFile.getChannel();
+		fBuffer= fChannel.map(MapMode.READ_WRITE, 0, REGION);
+		fBuffer.putInt(EventJournal.MAGIC);
+		fBuffer.put(EventJournal.VERSION);
+	}
+
+	@Override
+	public synchronized void testRunStarted(Plan plan) throws Exception {
+		if (fRunStarted)
+			return;
+		fRunStarted= true;
+		writePlan(EventJournal.RUN_STARTED, plan);
+	}
+
+	@Override
+	public synchronized void testsDiscovered(Plan plan) throws Exception {
+		writePlan(EventJournal.TESTS_DISCOVERED, plan);
+	}
+
+	private void writePlan(byte type, Plan plan) throws IOException {
+		List<Integer> tree= new ArrayList<Integer>();
+		writeTree(plan, tree);
+		begin(4 * tree.size());
+		for (int each : tree)
+			fBuffer.putInt(each);
+		commit(type);
+	}
+
+	/**
+	 * Names every node of {@code plan}, and lists each node's name and number
+	 * of children, in pre-order
+	 */
+	private void writeTree(Plan plan, List<Integer> tree) throws IOException {
+		List<Plan> children= plan.getChildren();
+		tree.add(name(plan.getDescription()));
+		tree.add(children.size());
+		for (Plan each : children)
+			writeTree(each, tree);
+	}
+
+	@SuppressWarnings("deprecation")
+	@Override
+	public void testRunStarted(Description description) throws Exception {
+		// a notifier that fires only the old event still gets a journal
+		testRunStarted(Plan.fromDescription(description));
+	}
+
+	@Override
+	public synchronized void testStarted(Description description) throws Exception {
+		writeEvent(EventJournal.TEST_STARTED, description);
+	}
+
+	@Override
+	public synchronized void testFinished(Description description) throws Exception {
+		writeEvent(EventJournal.TEST_FINISHED, description);
+	}
+
+	@Override
+	public synchronized void testIgnored(Description description) throws Exception {
+		writeEvent(EventJournal.TEST_IGNORED, description);
+	}
+
+	@Override
+	public synchronized void testFailure(Failure failure) throws Exception {
+		writeFailure(EventJournal.TEST_FAILURE, failure);
+	}
+
+	@Override
+	public synchronized void testAssumptionFailure(Failure failure) {
+		try {
+			writeFailure(EventJournal.TEST_ASSUMPTION_FAILURE, failure);
+		} catch (IOException e) {
+			// this event can't throw: the journal stays without it
+		}
+	}
+
+	@Override
+	public synchronized void testRunFinished(Result result) throws Exception {
+		if (fBuffer == null)
+			return;
+		begin(0);
+		commit(EventJournal.RUN_FINISHED);
+		fBuffer.force();
+		long length= fRegionStart + fBuffer.position();
+		fBuffer= null;
+		try {
+			fChannel.truncate(length);
+		} catch (IOException e) {
+			// some platforms can't shrink a mapped file: the reader stops at
+			// the zeros that follow the last event
+		}
+		fFile.close();
+	}
+
+	private void writeEvent(byte type, Description description) throws IOException {
+		int name= name(description);
+		begin(4);
+		fBuffer.putInt(name);
+		commit(type);
+	}
+
+	private void writeFailure(byte type, Failure failure) throws IOException {
+		int name= name(failure.getDescription());
+		byte[] exception= describe(failure.getException());
+		begin(4 + exception.length);
+		fBuffer.putInt(name);
+		fBuffer.put(exception);
+		commit(type);
+	}
+
+	private int name(Description description) throws IOException {
+		String displayName= description.getDisplayName();
+		Integer id= fNames.get(displayName);
+		if (id != null)
+			return id;
+		id= fNames.size();
+		fNames.put(displayName, id);
+		byte[] bytes= EventJournal.encode(displayName);
+		begin(4 + 4 + bytes.length);
+		fBuffer.putInt(id);
+		fBuffer.putInt(bytes.length);
+		fBuffer.put(bytes);
+		commit(EventJournal.NAME);
+		return id;
+	}
+
+	private byte[] describe(Throwable exception) throws IOException {
+		ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+		EventJournal.writeText(exception, bytes);
+		ByteArrayOutputStream serialized= new ByteArrayOutputStream();
+		try {
+			ObjectOutputStream stream= new ObjectOutputStream(serialized);
+			stream.writeObject(exception);
+			stream.close();
+		} catch (IOException e) {
+			// not serializable: the text will have to do
+			serialized.reset();
+		}
+		EventJournal.writeInt(serialized.size(), bytes);
+		serialized.writeTo(bytes);
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Makes room for a record of {@code size} bytes, and starts it with a
+	 * blank type, so that a reader never sees it half written
+	 */
+	private void begin(int size) throws IOException {
+		if (fBuffer == null)
+			throw new IllegalStateException("the run is over: journal closed");
+		if (fBuffer.remaining() < 1 + size) {
+			fRegionStart+= fBuffer.position();
+			fBuffer= fChannel.map(MapMode.READ_WRITE, fRegionStart, Math.max(
+					REGION, 1 + size));
+		}
+		fRecordStart= fBuffer.position();
+		fBuffer.put((byte) 0);
+	}
+
+	private void commit(byte type) {
+		fBuffer.put(fRecordStart, type);
+	}
+}
@@ -6,13 +6,23 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.PrintStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.junit.experimental.parallel.WeightedOrder;
 import org.junit.runner.Description;
+import org.junit.runner.Plan;
 import org.junit.runner.Result;
+import org.junit.runner.manipulation.Filter;
 import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunListener;
 
@@ -77,30 +87,41 @@ public class MaxHistory implements Serializable {
 		stream.close();
 	}
 
-	Long getFailureTimestamp(Description key) {
+	synchronized Long getFailureTimestamp(Description key) {
 		return fFailureTimestamps.get(key.toString());
 	}
 
-	void putTestFailureTimestamp(Description key, long end) {
+	synchronized void putTestFailureTimestamp(Description key, long end) {
 		fFailureTimestamps.put(key.toString(), end);
 	}
 
-	boolean isNewTest(Description key) {
+	synchronized boolean isNewTest(Description key) {
 		return !fDurations.containsKey(key.toString());
 	}
 
-	Long getTestDuration(Description key) {
+	synchronized Long getTestDuration(Description key) {
 		return fDurations.get(key.toString());
 	}
 
-	void putTestDuration(Description description, long duration) {
+	synchronized void putTestDuration(Description description, long duration) {
 		fDurations.put(description.toString(), duration);
 	}
 
+	private synchronized long averageTestDuration() {
+		if (fDurations.isEmpty())
+			return 0;
+		long total= 0;
+		for (Long each : fDurations.values())
+			total+= each;
+		return total / fDurations.size();
+	}
+
+	@RunListener.ThreadSafe
 	private final class RememberingListener extends RunListener {
 		private long overallStart= System.currentTimeMillis();
 
-		private Map<Description, Long> starts= new HashMap<Description, Long>();
+		private Map<Description, Long> starts= Collections
+				.synchronizedMap(new HashMap<Description, Long>());
 
 		@Override
 		public void testStarted(Description description) throws Exception {
@@ -148,6 +169,197 @@ public class MaxHistory implements Serializable {
 		}
 	}
 
+	private synchronized Map<String, Long> classDurations() {
+		Map<String, Long> results= new HashMap<String, Long>();
+		for (Map.Entry<String, Long> each : fDurations.entrySet()) {
+			String className= Description.createSuiteDescription(
+					each.getKey()).getClassName();
+			Long total= results.get(className);
+			results.put(className, (total == null ? 0 : total)
+					+ each.getValue());
+		}
+		return results;
+	}
+
+	private class ShardFilter extends Filter {
+		private final int fIndex;
+
+		private final int fTotal;
+
+		private final Set<String> fAll= new HashSet<String>();
+
+		private final Set<String> fMine= new HashSet<String>();
+
+		ShardFilter(int index, int total, Class<?>[] classes) {
+			fIndex= index;
+			fTotal= total;
+			pack(classes);
+		}
+
+		/**
+		 * Deals classes out longest first, each to the shard with the least
+		 * expected duration so far (or the fewest classes, on a tie)
+		 */
+		private void pack(Class<?>[] classes) {
+			final Map<String, Long> durations= classDurations();
+			long estimate= 1;
+			if (!durations.isEmpty()) {
+				long sum= 0;
+				for (Long each : durations.values())
+					sum+= each;
+				estimate= Math.max(1, sum / durations.size());
+			}
+			List<String> names= new ArrayList<String>();
+			for (Class<?> each : classes)
+				if (fAll.add(each.getName())) {
+					names.add(each.getName());
+					if (!durations.containsKey(each.getName()))
+						durations.put(each.getName(), estimate);
+				}
+			Collections.sort(names, new Comparator<String>() {
+				public int compare(String o1, String o2) {
+					int result= durations.get(o2).compareTo(durations.get(o1));
+					return result != 0 ? result : o1.compareTo(o2);
+				}
+			});
+			long[] loads= new long[fTotal];
+			int[] counts= new int[fTotal];
+			for (String each : names) {
+				int least= 0;
+				for (int i= 1; i < fTotal; i++)
+					if (loads[i] < loads[least] || loads[i] == loads[least]
+							&& counts[i] < counts[least])
+						least= i;
+				loads[least]+= durations.get(each);
+				counts[least]++;
+				if (least == fIndex)
+					fMine.add(each);
+			}
+		}
+
+		@Override
+		public boolean shouldRunClass(Class<?> testClass) {
+			return isMine(testClass.getName());
+		}
+
+		@Override
+		public boolean shouldRun(Description description) {
+			return isMine(description.isTest() ? description.getClassName()
+					: description.getDisplayName());
+		}
+
+		@Override
+		public boolean mayRemoveAllTests() {
+			// with more shards than classes, some shards are empty
+			return true;
+		}
+
+		private boolean isMine(String className) {
+			return !fAll.contains(className) || fMine.contains(className);
+		}
+
+		@Override
+		public String describe() {
+			return String.format("duration-balanced shard %d of %d", fIndex,
+					fTotal);
+		}
+	}
+
+	private class LongestFirstComparator implements WeightedOrder {
+		private final long fEstimate= averageTestDuration();
+
+		public int compare(Description o1, Description o2) {
+			long d1= weightOf(o1);
+			long d2= weightOf(o2);
+			return d1 < d2 ? 1 : (d1 > d2 ? -1 : 0);
+		}
+
+		/**
+		 * Sums a suite's tests on every call, so that nothing is kept for the
+		 * descriptions of earlier sorts: sorting by weight, as
+		 * {@link org.junit.experimental.parallel.ParallelScheduler} and
+		 * {@link MaxHistory#predictWallTime(Plan, int)} do, calls it once per
+		 * child.
+		 * 
+		 * @return the expected duration of {@code description}
+		 */
+		@SuppressWarnings("deprecation")
+		public long weightOf(Description description) {
+			if (description.isTest()) {
+				Long result= getTestDuration(description);
+				return result == null ? fEstimate : result; // never ran: assume an average test
+			}
+			long result= 0;
+			for (Description each : description.getChildren())
+				result+= weightOf(each);
+			return result;
+		}
+	}
+
+	private final class WallTimeListener extends RunListener {
+		private final PrintStream fWriter;
+
+		private final int fParallelism;
+
+		private long fPredicted;
+
+		private long fStart;
+
+		public WallTimeListener(PrintStream writer, int parallelism) {
+			fWriter= writer;
+			fParallelism= parallelism;
+		}
+
+		@Override
+		public void testRunStarted(Plan plan) throws Exception {
+			fPredicted= predictWallTime(plan, fParallelism);
+			fStart= System.nanoTime();
+		}
+
+		@Override
+		public void testRunFinished(Result result) throws Exception {
+			long actual= System.nanoTime() - fStart;
+			fWriter.println(String.format(
+					"Predicted wall time: %.3f s, actual: %.3f s",
+					fPredicted / 1e9, actual / 1e9));
+		}
+	}
+
+	/**
+	 * @return the wall time, in nanoseconds, predicted from this history for
+	 *         running the top-level children of {@code plan} on
+	 *         {@code parallelism} threads: each child, longest first, goes to
+	 *         the least loaded thread, and the largest load is returned.
+	 */
+	public long predictWallTime(Plan plan, int parallelism) {
+		LongestFirstComparator comparator= new LongestFirstComparator();
+		List<Description> jobs= new ArrayList<Description>();
+		for (Plan each : plan.getChildren())
+			jobs.add(each.getDescription());
+		if (jobs.isEmpty())
+			jobs.add(plan.getDescription());
+		final Map<Description, Long> expected= new IdentityHashMap<Description, Long>();
+		for (Description each : jobs)
+			expected.put(each, comparator.weightOf(each));
+		Collections.sort(jobs, new Comparator<Description>() {
+			public int compare(Description o1, Description o2) {
+				return expected.get(o2).compareTo(expected.get(o1));
+			}
+		});
+		long[] loads= new long[parallelism];
+		for (Description each : jobs) {
+			int least= 0;
+			for (int i= 1; i < loads.length; i++)
+				if (loads[i] < loads[least])
+					least= i;
+			loads[least]+= expected.get(each);
+		}
+		long result= 0;
+		for (long each : loads)
+			result= Math.max(result, each);
+		return result;
+	}
+
 	/**
 	 * @return a listener that will update this history based on the test
 	 *         results reported.
@@ -163,4 +375,43 @@ public class MaxHistory implements Serializable {
 	public Comparator<Description> testComparator() {
 		return new TestComparator();
 	}
+
+	/**
+	 * @return a comparator that ranks tests and suites by their expected
+	 *         duration, longest first. A test that has never run is expected
+	 *         to take as long as the average recorded test; a suite is
+	 *         expected to take as long as all of its tests together. The
+	 *         comparator is a {@link WeightedOrder}, weighing each child by
+	 *         its expected duration.
+	 */
+	public Comparator<Description> longestFirst() {
+		return new LongestFirstComparator();
+	}
+
+	/**
+	 * @return a filter that runs only shard {@code index} (counting from 0) of
+	 *         {@code total} shards of {@code classes}. Whole classes are
+	 *         assigned to shards so that the durations recorded in this
+	 *         history add up to about the same for every shard; a class that
+	 *         has never run is expected to take as long as the average class.
+	 *         Applied to {@link org.junit.runner.Request#classes(Class[])},
+	 *         no runner is built for the classes of other shards. A shard
+	 *         that gets no classes runs nothing.
+	 */
+	public Filter shard(int index, int total, Class<?>... classes) {
+		if (index < 0 || index >= total)
+			throw new IllegalArgumentException(String.format(
+					"shard %d does not exist: there are %d shards", index, total));
+		return new ShardFilter(index, total, classes);
+	}
+
+	/**
+	 * @return a listener that, when the run finishes, prints to {@code writer}
+	 *         the wall time predicted from this history for running the
+	 *         top-level children of the run, longest first, on
+	 *         {@code parallelism} threads, next to the actual wall time.
+	 */
+	public RunListener wallTimeReport(PrintStream writer, int parallelism) {
+		return new WallTimeListener(writer, parallelism);
+	}
 }
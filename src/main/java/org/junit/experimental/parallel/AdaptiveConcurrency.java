@@ -0,0 +1,310 @@
+package org.junit.experimental.parallel;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link ConcurrencyBudget} that adjusts itself while the run is going.
+ * About twice a second, when a child asks for a permit, it samples the CPU
+ * load, the length of the run queue (the system load average) and the share
+ * of wall time spent in garbage collection. If the host is overloaded it
+ * takes away a quarter of the permits; if it is underused and children are
+ * waiting for permits, it adds one. Every change is reported to the
+ * registered {@link Listener}s.
+ *
+ * WARNING: still experimental, may go away.
+ */
+public class AdaptiveConcurrency extends ConcurrencyBudget {
+	/**
+	 * Is told about every change in the number of permits
+	 */
+	public interface Listener {
+		void adjusted(Decision decision);
+	}
+
+	/**
+	 * The load of the host at one point of the run. Values that cannot be
+	 * measured on this JVM are {@link Double#NaN}.
+	 */
+	public static class Sample {
+		private final double fCpuLoad;
+
+		private final double fLoadAverage;
+
+		private final double fGcShare;
+
+		private final int fWaiting;
+
+		/**
+		 * @param cpuLoad
+		 *            the CPU load of the whole host, between 0 and 1
+		 * @param loadAverage
+		 *            the average number of runnable threads on the host
+		 * @param gcShare
+		 *            the share of wall time spent collecting garbage since the
+		 *            previous sample, between 0 and 1
+		 * @param waiting
+		 *            the number of children waiting for a permit
+		 */
+		public Sample(double cpuLoad, double loadAverage, double gcShare,
+				int waiting) {
+			fCpuLoad= cpuLoad;
+			fLoadAverage= loadAverage;
+			fGcShare= gcShare;
+			fWaiting= waiting;
+		}
+
+		public double getCpuLoad() {
+			return fCpuLoad;
+		}
+
+		public double getLoadAverage() {
+			return fLoadAverage;
+		}
+
+		public double getGcShare() {
+			return fGcShare;
+		}
+
+		public int getWaiting() {
+			return fWaiting;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"cpu load %.2f, load average %.2f, gc %.2f, %d waiting",
+					fCpuLoad, fLoadAverage, fGcShare, fWaiting);
+		}
+	}
+
+	/**
+	 * A change in the number of permits, and what led to it
+	 */
+	public static class Decision {
+		private final Sample fSample;
+
+		private final int fFrom;
+
+		private final int fTo;
+
+		private final String fReason;
+
+		Decision(Sample sample, int from, int to, String reason) {
+			fSample= sample;
+			fFrom= from;
+			fTo= to;
+			fReason= reason;
+		}
+
+		public Sample getSample() {
+			return fSample;
+		}
+
+		public int getFrom() {
+			return fFrom;
+		}
+
+		public int getTo() {
+			return fTo;
+		}
+
+		public String getReason() {
+			return fReason;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("concurrency %d -> %d: %s (%s)", fFrom, fTo,
+					fReason, fSample);
+		}
+	}
+
+	private static final long SAMPLE_NANOS= 500L * 1000 * 1000;
+
+	private static final double GC_LIMIT= 0.10;
+
+	private static final double CPU_LIMIT= 0.90;
+
+	private static final double CPU_TARGET= 0.75;
+
+	private final int fMin;
+
+	private final int fMax;
+
+	private final int fProcessors= Runtime.getRuntime().availableProcessors();
+
+	private final OperatingSystemMXBean fSystem= ManagementFactory
+			.getOperatingSystemMXBean();
+
+	private final List<GarbageCollectorMXBean> fCollectors= ManagementFactory
+			.getGarbageCollectorMXBeans();
+
+	private final Method fCpuLoad= systemMethod(
+			"com.sun.management.OperatingSystemMXBean", "getSystemCpuLoad");
+
+	private final Method fLoadAverage= systemMethod(
+			"java.lang.management.OperatingSystemMXBean",
+			"getSystemLoadAverage");
+
+	private final List<Listener> fListeners= new CopyOnWriteArrayList<Listener>();
+
+	private final AtomicBoolean fSampling= new AtomicBoolean(false);
+
+	private volatile long fLastSample= System.nanoTime();
+
+	private long fLastGcMillis= gcMillis();
+
+	/**
+	 * Creates a budget that starts with one permit per processor, and never
+	 * goes below {@code min} or above {@code max} permits
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if {@code min} is less than 1, or {@code max} is less than
+	 *             {@code min}
+	 */
+	public AdaptiveConcurrency(int min, int max) {
+		super(Math.max(min, Math.min(max, Runtime.getRuntime()
+				.availableProcessors())));
+		// with no permit left, no child could ever start
+		if (min < 1)
+			throw new IllegalArgumentException(
+					"min must be at least 1, but was " + min);
+		if (max < min)
+			throw new IllegalArgumentException(String.format(
+					"max (%d) must not be less than min (%d)", max, min));
+		fMin= min;
+		fMax= max;
+	}
+
+	/**
+	 * @return a listener that prints each decision to {@code writer}
+	 */
+	public static Listener printingTo(final PrintStream writer) {
+		return new Listener() {
+			public void adjusted(Decision decision) {
+				writer.println(decision);
+			}
+		};
+	}
+
+	/**
+	 * Reports every change in the number of permits to {@code listener}
+	 *
+	 * @return this budget
+	 */
+	public AdaptiveConcurrency addListener(Listener listener) {
+		fListeners.add(listener);
+		return this;
+	}
+
+	@Override
+	void enter() {
+		if (System.nanoTime() - fLastSample >= SAMPLE_NANOS)
+			sampleAndAdjust();
+		super.enter();
+	}
+
+	private void sampleAndAdjust() {
+		if (!fSampling.compareAndSet(false, true))
+			return;
+		try {
+			adjust(sample());
+		} finally {
+			fSampling.set(false);
+		}
+	}
+
+	/**
+	 * Measures the load of the host since the previous sample
+	 */
+	protected Sample sample() {
+		long now= System.nanoTime();
+		long gc= gcMillis();
+		double elapsedMillis= (now - fLastSample) / 1e6;
+		double gcShare= elapsedMillis > 0 && gc >= 0 ? (gc - fLastGcMillis)
+				/ elapsedMillis : Double.NaN;
+		fLastSample= now;
+		fLastGcMillis= gc;
+		return new Sample(measure(fCpuLoad), measure(fLoadAverage), gcShare,
+				getWaiting());
+	}
+
+	/**
+	 * Changes the number of permits, if {@code sample} calls for it
+	 *
+	 * @return the change, or {@code null} if there was none
+	 */
+	public synchronized Decision adjust(Sample sample) {
+		int from= getPermits();
+		int to= from;
+		String reason= overload(sample);
+		if (reason != null)
+			to= Math.max(fMin, from - Math.max(1, from / 4));
+		else if (sample.getWaiting() > 0 && hasHeadroom(sample)) {
+			to= Math.min(fMax, from + 1);
+			reason= "host has headroom";
+		}
+		if (to == from)
+			return null;
+		setPermits(to);
+		Decision decision= new Decision(sample, from, to, reason);
+		for (Listener each : fListeners)
+			each.adjusted(decision);
+		return decision;
+	}
+
+	private String overload(Sample sample) {
+		if (sample.getGcShare() > GC_LIMIT)
+			return "garbage collection is slowing the run down";
+		if (sample.getCpuLoad() > CPU_LIMIT)
+			return "CPU is saturated";
+		if (sample.getLoadAverage() > 1.5 * fProcessors)
+			return "run queue is longer than the processors can serve";
+		return null;
+	}
+
+	private boolean hasHeadroom(Sample sample) {
+		// NaN compares false, so a missing measure never blocks an increase
+		return !(sample.getCpuLoad() >= CPU_TARGET)
+				&& !(sample.getLoadAverage() >= fProcessors)
+				&& !(sample.getGcShare() >= GC_LIMIT / 2);
+	}
+
+	private long gcMillis() {
+		long total= 0;
+		for (GarbageCollectorMXBean each : fCollectors) {
+			long time= each.getCollectionTime();
+			if (time > 0)
+				total+= time;
+		}
+		return total;
+	}
+
+	private double measure(Method method) {
+		if (method == null)
+			return Double.NaN;
+		try {
+			double value= ((Number) method.invoke(fSystem)).doubleValue();
+			return value < 0 ? Double.NaN : value;
+		} catch (Exception e) {
+			return Double.NaN;
+		}
+	}
+
+	private Method systemMethod(String type, String name) {
+		try {
+			Class<?> bean= Class.forName(type);
+			return bean.isInstance(fSystem) ? bean.getMethod(name) : null;
+		} catch (Exception e) {
+			// not available on this JVM
+			return null;
+		}
+	}
+}
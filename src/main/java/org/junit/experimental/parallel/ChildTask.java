@@ -0,0 +1,151 @@
+package org.junit.experimental.parallel;
+
+import java.util.SortedMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.experimental.parallel.ResourceLock.Mode;
+import org.junit.runner.Describable;
+import org.junit.runner.Description;
+
+/**
+ * Wraps a child statement so that exactly one thread runs it: either a worker
+ * that picked it up from an executor, or the parent that is waiting for it in
+ * {@link ParallelScheduler#finished()}.
+ */
+class ChildTask implements Runnable {
+	private final Runnable fChild;
+
+	private final ConcurrencyBudget fBudget;
+
+	private final FailFast fFailFast;
+
+	private final LockScope fParentScope;
+
+	private final AtomicBoolean fClaimed= new AtomicBoolean(false);
+
+	private final CountDownLatch fDone= new CountDownLatch(1);
+
+	private volatile Throwable fThrown= null;
+
+	private Description fDescription= null;
+
+	/**
+	 * Must be called on the thread that schedules {@code child}, so that the
+	 * child can find the resource locks held by its parent.
+	 */
+	ChildTask(Runnable child, ConcurrencyBudget budget, FailFast failFast) {
+		fChild= child;
+		fBudget= budget;
+		fFailFast= failFast;
+		fParentScope= LockScope.current();
+	}
+
+	public void run() {
+		if (!fClaimed.compareAndSet(false, true))
+			return;
+		if (fFailFast == null) {
+			runAndRecord();
+			return;
+		}
+		fFailFast.enter();
+		try {
+			runAndRecord();
+		} finally {
+			fFailFast.exit();
+		}
+	}
+
+	private void runAndRecord() {
+		try {
+			if (!isCancelled())
+				runLocked();
+		} catch (Throwable e) {
+			fThrown= e;
+			if (fFailFast != null)
+				fFailFast.cancel();
+		} finally {
+			fDone.countDown();
+		}
+	}
+
+	private boolean isCancelled() {
+		return fFailFast != null && fFailFast.isCancelled();
+	}
+
+	/**
+	 * @return the description of the child, or {@code null} if it cannot
+	 *         describe itself
+	 */
+	synchronized Description getDescription() {
+		if (fDescription == null && fChild instanceof Describable)
+			fDescription= ((Describable) fChild).getDescription();
+		return fDescription;
+	}
+
+	private void runLocked() {
+		SortedMap<String, Mode> locks= LockScope.requiredBy(getDescription());
+		if (locks.isEmpty()) {
+			runInScope(fParentScope);
+			return;
+		}
+		// Don't sit on a permit while waiting for a lock: its holder may need
+		// the permit for its own children
+		boolean held= fBudget != null && fBudget.suspend();
+		LockScope scope;
+		try {
+			scope= fParentScope.acquire(locks);
+		} finally {
+			if (fBudget != null)
+				fBudget.resume(held);
+		}
+		try {
+			runInScope(scope);
+		} finally {
+			scope.release();
+		}
+	}
+
+	private void runInScope(LockScope scope) {
+		LockScope previous= LockScope.current();
+		LockScope.setCurrent(scope);
+		try {
+			runWithinBudget();
+		} finally {
+			LockScope.setCurrent(previous);
+		}
+	}
+
+	private void runWithinBudget() {
+		if (isCancelled()) // while this child waited for its locks
+			return;
+		if (fBudget == null) {
+			fChild.run();
+			return;
+		}
+		fBudget.enter();
+		try {
+			fChild.run();
+		} finally {
+			fBudget.exit();
+		}
+	}
+
+	void await() {
+		boolean interrupted= false;
+		while (true) {
+			try {
+				fDone.await();
+				break;
+			} catch (InterruptedException e) {
+				interrupted= true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	Throwable getThrown() {
+		return fThrown;
+	}
+}
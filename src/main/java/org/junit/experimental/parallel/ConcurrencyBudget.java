@@ -0,0 +1,104 @@
+package org.junit.experimental.parallel;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits how many child statements may run at the same time across every
+ * {@link ParallelScheduler} of a test run, no matter how deeply suites and
+ * classes are nested. A thread holds at most one permit: children it runs
+ * itself reuse it, and a parent gives its permit back while it waits for
+ * children running on other threads, so an exhausted budget cannot deadlock.
+ * 
+ * WARNING: still experimental, may go away.
+ */
+public class ConcurrencyBudget {
+	private volatile int fPermits;
+
+	private final Permits fSemaphore;
+
+	private final ThreadLocal<int[]> fDepth= new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[1];
+		}
+	};
+
+	/**
+	 * Creates a budget that lets at most {@code permits} children run at once
+	 */
+	public ConcurrencyBudget(int permits) {
+		if (permits < 1)
+			throw new IllegalArgumentException(
+					"permits must be at least 1, but was " + permits);
+		fPermits= permits;
+		fSemaphore= new Permits(permits);
+	}
+
+	/**
+	 * @return the number of children that may run at once
+	 */
+	public int getPermits() {
+		return fPermits;
+	}
+
+	/**
+	 * Changes the number of children that may run at once. Lowering it does
+	 * not stop running children: new ones wait until enough have finished.
+	 */
+	public synchronized void setPermits(int permits) {
+		if (permits < 1)
+			throw new IllegalArgumentException(
+					"permits must be at least 1, but was " + permits);
+		if (permits > fPermits)
+			fSemaphore.release(permits - fPermits);
+		else if (permits < fPermits)
+			fSemaphore.reducePermits(fPermits - permits);
+		fPermits= permits;
+	}
+
+	/**
+	 * @return the number of threads waiting for a permit
+	 */
+	int getWaiting() {
+		return fSemaphore.getQueueLength();
+	}
+
+	void enter() {
+		int[] depth= fDepth.get();
+		if (depth[0] == 0)
+			fSemaphore.acquireUninterruptibly();
+		depth[0]++;
+	}
+
+	void exit() {
+		int[] depth= fDepth.get();
+		depth[0]--;
+		if (depth[0] == 0)
+			fSemaphore.release();
+	}
+
+	boolean suspend() {
+		if (fDepth.get()[0] == 0)
+			return false;
+		fSemaphore.release();
+		return true;
+	}
+
+	void resume(boolean held) {
+		if (held)
+			fSemaphore.acquireUninterruptibly();
+	}
+
+	private static class Permits extends Semaphore {
+		private static final long serialVersionUID= 1L;
+
+		Permits(int permits) {
+			super(permits, true);
+		}
+
+		@Override
+		protected void reducePermits(int reduction) {
+			super.reducePermits(reduction);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package org.junit.experimental.parallel;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+
+/**
+ * Cuts a parallel run short at its first failure, or as soon as
+ * {@link RunNotifier#pleaseStop()} is called: children that have not started
+ * are never run, children still running after a grace period are interrupted,
+ * and every test that did not run is reported as ignored. Share one instance
+ * between every {@link ParallelScheduler} of a run, and run the top-level
+ * runner with {@link #run(Runner, RunNotifier)}.
+ *
+ * WARNING: still experimental, may go away.
+ */
+public class FailFast {
+	private final long fGraceMillis;
+
+	private final AtomicBoolean fCancelled= new AtomicBoolean(false);
+
+	private volatile boolean fFailed= false;
+
+	private volatile RunNotifier fNotifier= null;
+
+	private final Map<Thread, int[]> fRunning= new HashMap<Thread, int[]>();
+
+	private final Set<Thread> fInterrupted= new HashSet<Thread>();
+
+	/**
+	 * Creates a policy that interrupts children that are still running
+	 * {@code graceMillis} milliseconds after the run was cancelled
+	 */
+	public FailFast(long graceMillis) {
+		if (graceMillis < 0)
+			throw new IllegalArgumentException(
+					"grace period must not be negative, but was " + graceMillis);
+		fGraceMillis= graceMillis;
+	}
+
+	/**
+	 * @return true if the current run has been cancelled
+	 */
+	public boolean isCancelled() {
+		return fCancelled.get();
+	}
+
+	/**
+	 * Cancels the current run: asks the notifier to stop, so that no further
+	 * test starts, and interrupts the children that are still running when the
+	 * grace period is over.
+	 */
+	public void cancel() {
+		if (!fCancelled.compareAndSet(false, true))
+			return;
+		RunNotifier notifier= fNotifier;
+		if (notifier != null)
+			notifier.pleaseStop();
+		Thread interrupter= new Thread(new Runnable() {
+			public void run() {
+				try {
+					Thread.sleep(fGraceMillis);
+				} catch (InterruptedException e) {
+					return;
+				}
+				interruptRunning();
+			}
+		}, "junit-fail-fast");
+		interrupter.setDaemon(true);
+		interrupter.start();
+	}
+
+	/**
+	 * Runs {@code runner}, cancelling the run at its first failure. If the
+	 * run was cancelled, the tests that did not start are then reported as
+	 * ignored. A {@link StoppedByUserException} is only passed on if someone
+	 * else asked the notifier to stop.
+	 */
+	public void run(Runner runner, RunNotifier notifier) {
+		fCancelled.set(false);
+		fFailed= false;
+		fNotifier= notifier;
+		final Set<Description> reached= Collections
+				.synchronizedSet(new HashSet<Description>());
+		RunListener listener= new RunListener() {
+			@Override
+			public void testStarted(Description description) {
+				reached.add(description);
+			}
+
+			@Override
+			public void testIgnored(Description description) {
+				reached.add(description);
+			}
+
+			@Override
+			public void testFailure(Failure failure) {
+				reached.add(failure.getDescription());
+				fFailed= true;
+				cancel();
+			}
+		};
+		notifier.addListener(listener);
+		try {
+			runner.run(notifier);
+		} catch (StoppedByUserException e) {
+			if (!fFailed) {
+				skipUnreached(runner.getDescription(), reached, notifier);
+				throw e;
+			}
+		} finally {
+			notifier.removeListener(listener);
+			fNotifier= null;
+		}
+		if (isCancelled())
+			skipUnreached(runner.getDescription(), reached, notifier);
+	}
+
+	@SuppressWarnings("deprecation")
+	private void skipUnreached(Description description,
+			Set<Description> reached, RunNotifier notifier) {
+		if (reached.contains(description))
+			return;
+		if (description.isTest())
+			notifier.fireTestIgnored(description);
+		for (Description each : description.getChildren())
+			skipUnreached(each, reached, notifier);
+	}
+
+	void enter() {
+		synchronized (fRunning) {
+			int[] depth= fRunning.get(Thread.currentThread());
+			if (depth == null)
+				fRunning.put(Thread.currentThread(), depth= new int[1]);
+			depth[0]++;
+		}
+	}
+
+	void exit() {
+		Thread current= Thread.currentThread();
+		synchronized (fRunning) {
+			int[] depth= fRunning.get(current);
+			if (--depth[0] > 0)
+				return;
+			fRunning.remove(current);
+			if (fInterrupted.remove(current))
+				Thread.interrupted(); // don't leak the interrupt to the caller
+		}
+	}
+
+	private void interruptRunning() {
+		synchronized (fRunning) {
+			for (Thread each : fRunning.keySet())
+				if (fInterrupted.add(each))
+					each.interrupt();
+		}
+	}
+}
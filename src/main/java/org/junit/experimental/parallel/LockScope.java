@@ -0,0 +1,121 @@
+package org.junit.experimental.parallel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+
+import org.junit.experimental.parallel.ResourceLock.Mode;
+import org.junit.runner.Description;
+
+/**
+ * The resource locks held by a running child, and the locks its own children
+ * compete for. A child locks a resource in the scope of the nearest running
+ * ancestor that holds it, or globally if there is none. Since a parent holds
+ * every resource its descendants use, and each child takes all of its locks at
+ * once in name order, no cycle of waiting children can form.
+ */
+class LockScope {
+	private static final int MAX_READERS= 1 << 16;
+
+	private static final LockScope ROOT= new LockScope(null,
+			new TreeMap<String, Mode>());
+
+	private static final ThreadLocal<LockScope> CURRENT= new ThreadLocal<LockScope>() {
+		@Override
+		protected LockScope initialValue() {
+			return ROOT;
+		}
+	};
+
+	static LockScope current() {
+		return CURRENT.get();
+	}
+
+	static void setCurrent(LockScope scope) {
+		CURRENT.set(scope);
+	}
+
+	/**
+	 * Returns the resources a child uses, in acquisition order: those named by
+	 * {@link ResourceLock} on its {@code description} (which may be
+	 * {@code null}) or on any of its descendants.
+	 */
+	static SortedMap<String, Mode> requiredBy(Description description) {
+		SortedMap<String, Mode> results= new TreeMap<String, Mode>();
+		if (description != null)
+			collect(description, results);
+		return results;
+	}
+
+	@SuppressWarnings("deprecation")
+	private static void collect(Description description,
+			Map<String, Mode> results) {
+		ResourceLock lock= description.getAnnotation(ResourceLock.class);
+		if (lock != null)
+			for (String each : lock.value())
+				if (lock.mode() == Mode.WRITE || !results.containsKey(each))
+					results.put(each, lock.mode());
+		for (Description each : description.getChildren())
+			collect(each, results);
+	}
+
+	private final LockScope fParent;
+
+	private final Set<String> fHeld;
+
+	private final Map<String, Semaphore> fLocks= new HashMap<String, Semaphore>();
+
+	private final List<Semaphore> fAcquired= new ArrayList<Semaphore>();
+
+	private final List<Integer> fAcquiredPermits= new ArrayList<Integer>();
+
+	private LockScope(LockScope parent, SortedMap<String, Mode> held) {
+		fParent= parent;
+		fHeld= held.keySet();
+	}
+
+	/**
+	 * Blocks until every lock in {@code locks} is held, and returns the scope
+	 * in which the children of the locking child will compete.
+	 */
+	LockScope acquire(SortedMap<String, Mode> locks) {
+		LockScope result= new LockScope(this, locks);
+		for (Map.Entry<String, Mode> each : locks.entrySet()) {
+			Semaphore lock= ownerOf(each.getKey()).lockFor(each.getKey());
+			int permits= each.getValue() == Mode.WRITE ? MAX_READERS : 1;
+			lock.acquireUninterruptibly(permits);
+			result.fAcquired.add(lock);
+			result.fAcquiredPermits.add(permits);
+		}
+		return result;
+	}
+
+	/**
+	 * Releases the locks taken by {@link #acquire(SortedMap)}
+	 */
+	void release() {
+		for (int i= fAcquired.size() - 1; i >= 0; i--)
+			fAcquired.get(i).release(fAcquiredPermits.get(i));
+	}
+
+	private LockScope ownerOf(String resource) {
+		LockScope scope= this;
+		while (scope.fParent != null && !scope.fHeld.contains(resource))
+			scope= scope.fParent;
+		return scope;
+	}
+
+	private synchronized Semaphore lockFor(String resource) {
+		Semaphore lock= fLocks.get(resource);
+		if (lock == null) {
+			lock= new Semaphore(MAX_READERS, true);
+			fLocks.put(resource, lock);
+		}
+		return lock;
+	}
+}
@@ -0,0 +1,158 @@
+package org.junit.experimental.parallel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.junit.runner.Description;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * A {@link RunnerScheduler} that hands each child statement to an
+ * {@link Executor}. Instead of blocking, {@link #finished()} runs any children
+ * that no worker has picked up yet on the calling thread, so nested schedulers
+ * that share one bounded {@link WorkerPool} cannot starve each other.
+ * 
+ * WARNING: still experimental, may go away.
+ */
+public class ParallelScheduler implements RunnerScheduler {
+	private final Executor fExecutor;
+
+	private final ConcurrencyBudget fBudget;
+
+	private final Comparator<Description> fOrder;
+
+	private final FailFast fFailFast;
+
+	private final List<ChildTask> fTasks= new ArrayList<ChildTask>();
+
+	/**
+	 * Creates a scheduler that runs children on {@code executor}
+	 */
+	public ParallelScheduler(Executor executor) {
+		this(executor, null);
+	}
+
+	/**
+	 * Creates a scheduler that runs children on {@code executor}, each
+	 * holding a permit of {@code budget} (or unlimited if {@code null})
+	 */
+	public ParallelScheduler(Executor executor, ConcurrencyBudget budget) {
+		this(executor, budget, null);
+	}
+
+	/**
+	 * Creates a scheduler that runs children on {@code executor}, each
+	 * holding a permit of {@code budget} (or unlimited if {@code null}). If
+	 * {@code order} is not {@code null}, children are held back until
+	 * {@link #finished()}, and then submitted in that order. A
+	 * {@link WeightedOrder} weighs each child once per sort.
+	 */
+	public ParallelScheduler(Executor executor, ConcurrencyBudget budget,
+			Comparator<Description> order) {
+		this(executor, budget, order, null);
+	}
+
+	/**
+	 * Creates a scheduler like
+	 * {@link #ParallelScheduler(Executor, ConcurrencyBudget, Comparator)}
+	 * that, once {@code failFast} (if not {@code null}) has been cancelled,
+	 * drops the children that have not started yet.
+	 */
+	public ParallelScheduler(Executor executor, ConcurrencyBudget budget,
+			Comparator<Description> order, FailFast failFast) {
+		fExecutor= executor;
+		fBudget= budget;
+		fOrder= order;
+		fFailFast= failFast;
+	}
+
+	public void schedule(Runnable childStatement) {
+		ChildTask task= new ChildTask(childStatement, fBudget, fFailFast);
+		fTasks.add(task);
+		if (fOrder == null)
+			fExecutor.execute(task);
+	}
+
+	/**
+	 * Helps to run the children that are still pending (last submitted
+	 * first), waits for the rest, and rethrows the first exception that
+	 * escaped a child statement. Threads outside a {@link WorkerPool} only
+	 * wait, so that the pool's parallelism is never exceeded.
+	 */
+	public void finished() {
+		if (fOrder != null)
+			submitInOrder();
+		if (mayHelp())
+			for (int i= fTasks.size() - 1; i >= 0; i--)
+				fTasks.get(i).run();
+		Throwable first= null;
+		boolean held= fBudget != null && fBudget.suspend();
+		try {
+			for (ChildTask each : fTasks) {
+				each.await();
+				if (first == null)
+					first= each.getThrown();
+			}
+		} finally {
+			if (fBudget != null)
+				fBudget.resume(held);
+		}
+		fTasks.clear();
+		if (first != null)
+			rethrow(first);
+	}
+
+	private void submitInOrder() {
+		if (fOrder instanceof WeightedOrder)
+			sortByWeight((WeightedOrder) fOrder);
+		else
+			sortByOrder();
+		for (ChildTask each : fTasks)
+			fExecutor.execute(each);
+	}
+
+	private void sortByWeight(WeightedOrder order) {
+		final Map<ChildTask, Long> weights= new IdentityHashMap<ChildTask, Long>();
+		for (ChildTask each : fTasks) {
+			Description description= each.getDescription();
+			weights.put(each, description == null ? Long.MIN_VALUE : order
+					.weightOf(description));
+		}
+		Collections.sort(fTasks, new Comparator<ChildTask>() {
+			public int compare(ChildTask o1, ChildTask o2) {
+				return weights.get(o2).compareTo(weights.get(o1));
+			}
+		});
+	}
+
+	private void sortByOrder() {
+		Collections.sort(fTasks, new Comparator<ChildTask>() {
+			public int compare(ChildTask o1, ChildTask o2) {
+				Description d1= o1.getDescription();
+				Description d2= o2.getDescription();
+				if (d1 == null || d2 == null)
+					return d1 == null ? (d2 == null ? 0 : 1) : -1;
+				return fOrder.compare(d1, d2);
+			}
+		});
+	}
+
+	private boolean mayHelp() {
+		// any other executor has threads of its own to run the children on
+		return fExecutor instanceof WorkerPool
+				&& ((WorkerPool) fExecutor).isWorkerThread();
+	}
+
+	private static void rethrow(Throwable e) {
+		if (e instanceof RuntimeException)
+			throw (RuntimeException) e;
+		if (e instanceof Error)
+			throw (Error) e;
+		throw new RuntimeException(e);
+	}
+}
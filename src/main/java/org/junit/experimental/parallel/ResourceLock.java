@@ -0,0 +1,53 @@
+package org.junit.experimental.parallel;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a test method or test class uses shared resources, such as a
+ * system property, a fixed port, or a file. When run by a
+ * {@link org.junit.experimental.ParallelComputer}, a child that writes a
+ * resource never runs at the same time as another child that reads or writes
+ * it; children that only read it, and children that touch other resources, run
+ * concurrently.
+ * 
+ * <pre>
+ * &#064;ResourceLock(value= &quot;port-8080&quot;, mode= Mode.WRITE)
+ * &#064;Test
+ * public void startsServer() { ...
+ * </pre>
+ * 
+ * A class is treated as using every resource used by its methods. The
+ * annotation is part of the test's or class's {@link org.junit.runner.Description}.
+ * 
+ * WARNING: still experimental, may go away.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface ResourceLock {
+	/**
+	 * How a resource is used
+	 */
+	public enum Mode {
+		/**
+		 * The resource is only read, and may be shared with other readers
+		 */
+		READ,
+		/**
+		 * The resource is modified, and must not be shared
+		 */
+		WRITE
+	}
+
+	/**
+	 * The names of the resources used
+	 */
+	String[] value();
+
+	/**
+	 * How the resources are used
+	 */
+	Mode mode() default Mode.WRITE;
+}
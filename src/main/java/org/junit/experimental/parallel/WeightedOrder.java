@@ -0,0 +1,21 @@
+package org.junit.experimental.parallel;
+
+import java.util.Comparator;
+
+import org.junit.runner.Description;
+
+/**
+ * An order that puts heavier children first, by a weight that depends on the
+ * child alone, such as its expected duration. A {@link ParallelScheduler}
+ * given such an order weighs each child once, and sorts on the weights,
+ * instead of weighing both children of every comparison.
+ * 
+ * WARNING: still experimental, may go away.
+ */
+public interface WeightedOrder extends Comparator<Description> {
+	/**
+	 * @return the weight of {@code description}; {@link #compare} must put
+	 *         the description of greater weight first
+	 */
+	long weightOf(Description description);
+}
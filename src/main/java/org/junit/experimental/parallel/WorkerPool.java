@@ -0,0 +1,102 @@
+package org.junit.experimental.parallel;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-size pool of daemon worker threads, meant to be shared by every
+ * {@link ParallelScheduler} of a single test run. Workers are started on
+ * demand, never exceed {@code parallelism}, and exit after they have been idle
+ * for a few seconds, so a pool that is no longer used does not need to be shut
+ * down.
+ *
+ * WARNING: still experimental, may go away.
+ */
+public class WorkerPool implements Executor {
+	private static final long KEEP_ALIVE_MILLIS= 5000;
+
+	private static final ThreadLocal<WorkerPool> CURRENT= new ThreadLocal<WorkerPool>();
+
+	private final BlockingQueue<Runnable> fQueue= new LinkedBlockingQueue<Runnable>();
+
+	private final int fParallelism;
+
+	private int fWorkers= 0;
+
+	private int fCreated= 0;
+
+	/**
+	 * Creates a pool that runs at most {@code parallelism} tasks at a time
+	 */
+	public WorkerPool(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException(
+					"parallelism must be at least 1, but was " + parallelism);
+		fParallelism= parallelism;
+	}
+
+	/**
+	 * @return the maximum number of worker threads
+	 */
+	public int getParallelism() {
+		return fParallelism;
+	}
+
+	/**
+	 * @return true if the calling thread is one of this pool's workers
+	 */
+	public boolean isWorkerThread() {
+		return CURRENT.get() == this;
+	}
+
+	/**
+	 * Queues {@code task} to be run by one of the workers
+	 */
+	public void execute(Runnable task) {
+		fQueue.add(task);
+		synchronized (this) {
+			if (fWorkers < fParallelism)
+				startWorker();
+		}
+	}
+
+	private void startWorker() {
+		fWorkers++;
+		Thread worker= new Thread(new Runnable() {
+			public void run() {
+				work();
+			}
+		}, "junit-worker-" + (++fCreated));
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	private void work() {
+		CURRENT.set(this);
+		while (true) {
+			Runnable task;
+			try {
+				task= fQueue.poll(KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				task= null;
+			}
+			if (task == null) {
+				synchronized (this) {
+					if (fQueue.isEmpty()) {
+						fWorkers--;
+						return;
+					}
+				}
+				continue;
+			}
+			try {
+				task.run();
+			} catch (Throwable e) {
+				// the scheduler that submitted the task reports failures
+			}
+			Thread.interrupted(); // don't leak an interrupt into the next task
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package org.junit.experimental.report;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.runner.notification.Failure;
+
+/**
+ * The report of one test class. Each test case is written to a temporary
+ * file as soon as the test finishes; {@link #finish(File)} then writes the
+ * {@code testsuite} element around them, now that the totals are known.
+ */
+class ClassReport {
+	private final String fClassName;
+
+	private final Date fStarted= new Date();
+
+	private final File fBody;
+
+	private final Writer fWriter;
+
+	private int fTests= 0;
+
+	private int fFailures= 0;
+
+	private int fErrors= 0;
+
+	private int fSkipped= 0;
+
+	private long fNanos= 0;
+
+	ClassReport(String className) throws IOException {
+		fClassName= className;
+		fBody= File.createTempFile("junit-report", ".xml");
+		fWriter= utf8(new FileOutputStream(fBody));
+	}
+
+	private static Writer utf8(OutputStream stream) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(
+				new BufferedOutputStream(stream), "UTF-8"));
+	}
+
+	/**
+	 * Writes a test case
+	 *
+	 * @param skipped
+	 *            the reason the test was skipped, or {@code null} if it ran
+	 */
+	synchronized void addTest(String name, long nanos, List<Failure> failures,
+			String skipped, OutputSpool out, OutputSpool err)
+			throws IOException {
+		fTests++;
+		fNanos+= nanos;
+		fWriter.write("  <testcase");
+		Xml.attribute(fWriter, "name", name);
+		Xml.attribute(fWriter, "classname", fClassName);
+		Xml.attribute(fWriter, "time", seconds(nanos));
+		fWriter.write(">\n");
+		for (Failure each : failures)
+			writeFailure(each);
+		if (skipped != null) {
+			fSkipped++;
+			fWriter.write("    <skipped");
+			if (skipped.length() > 0)
+				Xml.attribute(fWriter, "message", skipped);
+			fWriter.write("/>\n");
+		}
+		writeOutput("system-out", out);
+		writeOutput("system-err", err);
+		fWriter.write("  </testcase>\n");
+	}
+
+	private void writeFailure(Failure failure) throws IOException {
+		Throwable exception= failure.getException();
+		String element;
+		if (exception instanceof AssertionError) {
+			fFailures++;
+			element= "failure";
+		} else {
+			fErrors++;
+			element= "error";
+		}
+		fWriter.write("    <");
+		fWriter.write(element);
+		if (exception.getMessage() != null)
+			Xml.attribute(fWriter, "message", exception.getMessage());
+		Xml.attribute(fWriter, "type", exception.getClass().getName());
+		fWriter.write(">");
+		Xml.escape(fWriter, failure.getTrace());
+		fWriter.write("</");
+		fWriter.write(element);
+		fWriter.write(">\n");
+	}
+
+	private void writeOutput(String element, OutputSpool output)
+			throws IOException {
+		if (output == null || output.isEmpty())
+			return;
+		fWriter.write("    <");
+		fWriter.write(element);
+		fWriter.write(">");
+		InputStream text= output.read();
+		try {
+			Xml.escape(fWriter, new InputStreamReader(text));
+		} finally {
+			text.close();
+		}
+		fWriter.write("</");
+		fWriter.write(element);
+		fWriter.write(">\n");
+	}
+
+	/**
+	 * Writes the report to {@code file}
+	 */
+	synchronized void finish(File file) throws IOException {
+		fWriter.close();
+		try {
+			Writer writer= utf8(new FileOutputStream(file));
+			try {
+				writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+				writer.write("<testsuite");
+				Xml.attribute(writer, "name", fClassName);
+				Xml.attribute(writer, "tests", Integer.toString(fTests));
+				Xml.attribute(writer, "failures", Integer.toString(fFailures));
+				Xml.attribute(writer, "errors", Integer.toString(fErrors));
+				Xml.attribute(writer, "skipped", Integer.toString(fSkipped));
+				Xml.attribute(writer, "time", seconds(fNanos));
+				Xml.attribute(writer, "timestamp", new SimpleDateFormat(
+						"yyyy-MM-dd'T'HH:mm:ss").format(fStarted));
+				writer.write(">\n");
+				copyBody(writer);
+				writer.write("</testsuite>\n");
+			} finally {
+				writer.close();
+			}
+		} finally {
+			fBody.delete();
+		}
+	}
+
+	private void copyBody(Writer writer) throws IOException {
+		InputStreamReader body= new InputStreamReader(new FileInputStream(
+				fBody), "UTF-8");
+		try {
+			char[] chars= new char[8192];
+			for (int count; (count= body.read(chars)) != -1;)
+				writer.write(chars, 0, count);
+		} finally {
+			body.close();
+		}
+	}
+
+	/**
+	 * Gives up on the report
+	 */
+	synchronized void discard() {
+		try {
+			fWriter.close();
+		} catch (IOException e) {
+			// deleting it anyway
+		}
+		fBody.delete();
+	}
+
+	private static String seconds(long nanos) {
+		return String.format(Locale.US, "%.3f", nanos / 1e9);
+	}
+}
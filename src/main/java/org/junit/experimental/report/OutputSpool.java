@@ -0,0 +1,70 @@
+package org.junit.experimental.report;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Holds what one test printed: in memory up to a few kilobytes, and in a
+ * temporary file beyond that, so that a chatty test doesn't fill the heap
+ */
+class OutputSpool extends OutputStream {
+	private static final int IN_MEMORY= 8192;
+
+	private ByteArrayOutputStream fMemory= new ByteArrayOutputStream();
+
+	private File fFile= null;
+
+	private OutputStream fStream= fMemory;
+
+	@Override
+	public synchronized void write(int b) throws IOException {
+		spillIfFull(1);
+		fStream.write(b);
+	}
+
+	@Override
+	public synchronized void write(byte[] b, int off, int len)
+			throws IOException {
+		spillIfFull(len);
+		fStream.write(b, off, len);
+	}
+
+	private void spillIfFull(int len) throws IOException {
+		if (fFile != null || fMemory.size() + len <= IN_MEMORY)
+			return;
+		fFile= File.createTempFile("junit-output", ".txt");
+		fStream= new FileOutputStream(fFile);
+		fMemory.writeTo(fStream);
+		fMemory= null;
+	}
+
+	synchronized boolean isEmpty() {
+		return fFile == null && fMemory.size() == 0;
+	}
+
+	/**
+	 * @return what was printed; the caller closes it
+	 */
+	synchronized InputStream read() throws IOException {
+		if (fFile == null)
+			return new ByteArrayInputStream(fMemory.toByteArray());
+		fStream.flush();
+		return new FileInputStream(fFile);
+	}
+
+	/**
+	 * Deletes the temporary file, if there is one
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		fStream.close();
+		if (fFile != null)
+			fFile.delete();
+	}
+}
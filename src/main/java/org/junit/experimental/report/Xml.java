@@ -0,0 +1,62 @@
+package org.junit.experimental.report;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Writes text into XML, escaped by hand: javax.xml.stream is not available
+ * on every JVM that JUnit runs on
+ */
+class Xml {
+	private Xml() {
+	}
+
+	static void attribute(Writer writer, String name, String value)
+			throws IOException {
+		writer.write(' ');
+		writer.write(name);
+		writer.write("=\"");
+		escape(writer, value);
+		writer.write('"');
+	}
+
+	static void escape(Writer writer, String text) throws IOException {
+		for (int i= 0; i < text.length(); i++)
+			escape(writer, text.charAt(i));
+	}
+
+	static void escape(Writer writer, Reader text) throws IOException {
+		char[] chars= new char[4096];
+		for (int count; (count= text.read(chars)) != -1;)
+			for (int i= 0; i < count; i++)
+				escape(writer, chars[i]);
+	}
+
+	private static void escape(Writer writer, char c) throws IOException {
+		switch (c) {
+		case '&':
+			writer.write("&amp;");
+			break;
+		case '<':
+			writer.write("&lt;");
+			break;
+		case '>':
+			writer.write("&gt;");
+			break;
+		case '"':
+			writer.write("&quot;");
+			break;
+		case '\t':
+		case '\n':
+			writer.write(c);
+			break;
+		case '\r':
+			writer.write("&#13;");
+			break;
+		default:
+			// control characters can't appear in XML 1.0, not even escaped
+			writer.write(c < 0x20 || c == 0xfffe || c == 0xffff ? '?' : c);
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package org.junit.experimental.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.runner.Description;
+import org.junit.runner.Plan;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * <p>Writes a report in the XML format of Ant's JUnit task, one
+ * {@code TEST-<class name>.xml} file per test class, while the tests run.
+ * Each test case is written out as soon as the test finishes, and a class's
+ * file as soon as all its tests have finished, so the listener needs no more
+ * memory for a suite of half a million tests than for one of ten.</p>
+ *
+ * <p>What a test prints to {@code System.out} and {@code System.err} is
+ * captured (in a temporary file, once there is more than a few kilobytes of
+ * it) and reported with the test. Output printed outside of tests, or by
+ * threads other than the test's own, goes through as usual.</p>
+ *
+ * <pre>
+ * core.addListener(new XmlReportListener(new File("target/reports")));
+ * </pre>
+ *
+ * WARNING: still experimental, may go away.
+ */
+@RunListener.ThreadSafe
+public class XmlReportListener extends RunListener {
+	/**
+	 * A test that has started on some thread, and what it has printed so far
+	 */
+	private static class RunningTest {
+		final Description fDescription;
+
+		final long fStartNanos= System.nanoTime();
+
+		final List<Failure> fFailures= new ArrayList<Failure>(1);
+
+		final OutputSpool fOut= new OutputSpool();
+
+		final OutputSpool fErr= new OutputSpool();
+
+		String fSkipped= null;
+
+		RunningTest(Description description) {
+			fDescription= description;
+		}
+	}
+
+	/**
+	 * Passes what a thread prints on to the test it runs, if any
+	 */
+	private class Capture extends OutputStream {
+		private final boolean fErr;
+
+		private final OutputStream fOriginal;
+
+		Capture(boolean err, OutputStream original) {
+			fErr= err;
+			fOriginal= original;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			stream().write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			stream().write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			fOriginal.flush();
+		}
+
+		private OutputStream stream() {
+			RunningTest test= fRunning.get();
+			if (test == null)
+				return fOriginal;
+			return fErr ? test.fErr : test.fOut;
+		}
+	}
+
+	private final File fDirectory;
+
+	private final ThreadLocal<RunningTest> fRunning= new ThreadLocal<RunningTest>();
+
+	// the classes some of whose tests started
+	private final ConcurrentMap<String, Boolean> fStartedClasses= new ConcurrentHashMap<String, Boolean>();
+
+	// the fields below are guarded by this
+
+	private final Map<String, Integer> fUnfinished= new HashMap<String, Integer>();
+
+	private final Map<String, ClassReport> fReports= new HashMap<String, ClassReport>();
+
+	private final Set<String> fFiles= new HashSet<String>();
+
+	private PrintStream fSystemOut= null;
+
+	private PrintStream fSystemErr= null;
+
+	/**
+	 * Creates a listener that writes its reports to {@code directory}
+	 */
+	public XmlReportListener(File directory) {
+		fDirectory= directory;
+	}
+
+	@Override
+	public synchronized void testRunStarted(Plan plan) throws Exception {
+		if (fSystemOut != null)
+			return;
+		countTests(plan);
+		fDirectory.mkdirs();
+		fSystemOut= System.out;
+		fSystemErr= System.err;
+		System.setOut(new PrintStream(new Capture(false, fSystemOut), true));
+		System.setErr(new PrintStream(new Capture(true, fSystemErr), true));
+	}
+
+	@Override
+	public synchronized void testsDiscovered(Plan plan) throws Exception {
+		countTests(plan);
+	}
+
+	private void countTests(Plan plan) {
+		List<Plan> leaves= plan.getLeaves();
+		for (int i= 0; i < leaves.size(); i++) {
+			String name= leaves.get(i).getDescription().getClassName();
+			Integer count= fUnfinished.get(name);
+			fUnfinished.put(name, count == null ? 1 : count + 1);
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	@Override
+	public void testRunStarted(Description description) throws Exception {
+		// a notifier that fires only the old event gets reports all the same
+		testRunStarted(Plan.fromDescription(description));
+	}
+
+	@Override
+	public void testStarted(Description description) throws Exception {
+		String className= description.getClassName();
+		if (!fStartedClasses.containsKey(className))
+			fStartedClasses.putIfAbsent(className, Boolean.TRUE);
+		fRunning.set(new RunningTest(description));
+	}
+
+	@Override
+	public void testFailure(Failure failure) throws Exception {
+		RunningTest test= running(failure.getDescription());
+		if (test != null) {
+			test.fFailures.add(failure);
+			return;
+		}
+		// a failure outside of any test, such as in @BeforeClass
+		test= new RunningTest(failure.getDescription());
+		test.fFailures.add(failure);
+		report(test, 0, false);
+		String className= failure.getDescription().getClassName();
+		if (!fStartedClasses.containsKey(className))
+			finishUnstarted(className);
+	}
+
+	@Override
+	public void testAssumptionFailure(Failure failure) {
+		RunningTest test= running(failure.getDescription());
+		if (test != null) {
+			String message= failure.getMessage();
+			test.fSkipped= message == null ? "" : message;
+		}
+	}
+
+	@Override
+	public void testIgnored(Description description) throws Exception {
+		RunningTest test= new RunningTest(description);
+		test.fSkipped= "";
+		report(test, 0, true);
+	}
+
+	@Override
+	public void testFinished(Description description) throws Exception {
+		RunningTest test= running(description);
+		if (test == null) {
+			report(new RunningTest(description), 0, true);
+			return;
+		}
+		fRunning.remove();
+		report(test, System.nanoTime() - test.fStartNanos, true);
+	}
+
+	@Override
+	public synchronized void testRunFinished(Result result) throws Exception {
+		if (fSystemOut == null)
+			return;
+		System.setOut(fSystemOut);
+		System.setErr(fSystemErr);
+		fSystemOut= null;
+		fSystemErr= null;
+		try {
+			// the classes not all of whose tests reported: stopped runs, say
+			for (String each : new ArrayList<String>(fReports.keySet()))
+				finish(each);
+		} finally {
+			for (ClassReport each : fReports.values())
+				each.discard();
+			fReports.clear();
+			fUnfinished.clear();
+			fFiles.clear();
+			fStartedClasses.clear();
+		}
+	}
+
+	private RunningTest running(Description description) {
+		RunningTest test= fRunning.get();
+		return test != null && test.fDescription.equals(description) ? test
+				: null;
+	}
+
+	/**
+	 * @param planned
+	 *            whether {@code test} is one of the tests counted in the plan
+	 */
+	private void report(RunningTest test, long nanos, boolean planned)
+			throws IOException {
+		Description description= test.fDescription;
+		String className= description.getClassName();
+		String name= description.getMethodName();
+		try {
+			report(className).addTest(name == null ? description
+					.getDisplayName() : name, nanos, test.fFailures,
+					test.fSkipped, test.fOut, test.fErr);
+		} finally {
+			test.fOut.close();
+			test.fErr.close();
+		}
+		if (planned)
+			finishIfDone(className);
+	}
+
+	private synchronized ClassReport report(String className)
+			throws IOException {
+		ClassReport report= fReports.get(className);
+		if (report == null) {
+			report= new ClassReport(className);
+			fReports.put(className, report);
+		}
+		return report;
+	}
+
+	private synchronized void finishIfDone(String className) throws IOException {
+		Integer unfinished= fUnfinished.get(className);
+		if (unfinished == null)
+			return;
+		if (unfinished > 1) {
+			fUnfinished.put(className, unfinished - 1);
+			return;
+		}
+		fUnfinished.remove(className);
+		finish(className);
+	}
+
+	/**
+	 * Writes the report of a class that failed before any of its tests
+	 * started: none of them will, and its file should not stay open until the
+	 * run is over
+	 */
+	private synchronized void finishUnstarted(String className)
+			throws IOException {
+		if (fUnfinished.remove(className) != null)
+			finish(className);
+	}
+
+	private synchronized void finish(String className) throws IOException {
+		ClassReport report= fReports.remove(className);
+		if (report != null)
+			report.finish(new File(fDirectory, fileName(className)));
+	}
+
+	/**
+	 * A class that reports again after its file was written (for a test that
+	 * was not in the plan, say) gets a second file
+	 */
+	private String fileName(String className) {
+		String base= "TEST-" + className.replaceAll("[^A-Za-z0-9._$-]", "_");
+		String name= base + ".xml";
+		for (int i= 2; !fFiles.add(name); i++)
+			name= base + "-" + i + ".xml";
+		return name;
+	}
+}
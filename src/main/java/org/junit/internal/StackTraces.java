@@ -0,0 +1,82 @@
+package org.junit.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares exceptions by where they were thrown. Frames of the reflection
+ * machinery are left out: the JVM changes them after a method has been
+ * called through reflection a few times.
+ */
+public class StackTraces {
+	private static final int MAX_CAUSES= 32;
+
+	private static final String[] REFLECTION= { "sun.reflect.",
+			"jdk.internal.reflect.", "java.lang.reflect." };
+
+	private StackTraces() {
+	}
+
+	/**
+	 * @return a hash of the classes and stack traces of {@code exception}
+	 *         and its causes, but not of their messages, as 16 hexadecimal
+	 *         digits
+	 */
+	public static String fingerprint(Throwable exception) {
+		long hash= 0xcbf29ce484222325L;
+		int depth= 0;
+		for (Throwable each= exception; each != null && depth < MAX_CAUSES; each= each.getCause(), depth++) {
+			hash= hash(hash, each.getClass().getName());
+			for (StackTraceElement frame : frames(each))
+				hash= hash(hash, frame.toString());
+		}
+		return String.format("%016x", hash);
+	}
+
+	// 64-bit FNV-1a
+	private static long hash(long hash, String string) {
+		for (int i= 0; i < string.length(); i++) {
+			hash^= string.charAt(i);
+			hash*= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * @return true if {@code left} and {@code right}, and their causes, are of
+	 *         the same classes, have the same messages, and were thrown from
+	 *         the same place
+	 */
+	public static boolean same(Throwable left, Throwable right) {
+		for (int depth= 0; depth < MAX_CAUSES; depth++) {
+			if (left == null || right == null)
+				return left == right;
+			if (left.getClass() != right.getClass()
+					|| !equal(left.getMessage(), right.getMessage())
+					|| !frames(left).equals(frames(right)))
+				return false;
+			left= left.getCause();
+			right= right.getCause();
+		}
+		return true;
+	}
+
+	private static List<StackTraceElement> frames(Throwable exception) {
+		List<StackTraceElement> frames= new ArrayList<StackTraceElement>();
+		for (StackTraceElement each : exception.getStackTrace())
+			if (!isReflection(each))
+				frames.add(each);
+		return frames;
+	}
+
+	private static boolean isReflection(StackTraceElement frame) {
+		for (String each : REFLECTION)
+			if (frame.getClassName().startsWith(each))
+				return true;
+		return false;
+	}
+
+	private static boolean equal(Object left, Object right) {
+		return left == null ? right == null : left.equals(right);
+	}
+}
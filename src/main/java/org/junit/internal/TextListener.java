@@ -2,7 +2,9 @@ package org.junit.internal;
 
 import java.io.PrintStream;
 import java.text.NumberFormat;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.runner.Description;
 import org.junit.runner.Result;
@@ -64,9 +66,19 @@ public class TextListener extends RunListener {
 			getWriter().println("There was " + failures.size() + " failure:");
 		else
 			getWriter().println("There were " + failures.size() + " failures:");
+		// a failure that broke in the same place as an earlier one is only
+		// pointed at it
+		Map<String, String> printed= new HashMap<String, String>();
 		int i= 1;
-		for (Failure each : failures)
-			printFailure(each, "" + i++);
+		for (Failure each : failures) {
+			String prefix= "" + i++;
+			String first= printed.get(each.getFingerprint());
+			if (first == null) {
+				printed.put(each.getFingerprint(), prefix);
+				printFailure(each, prefix);
+			} else
+				printRepeatedFailure(each, prefix, first);
+		}
 	}
 
 	protected void printFailure(Failure each, String prefix) {
@@ -74,6 +86,13 @@ public class TextListener extends RunListener {
 		getWriter().print(each.getTrace());
 	}
 
+	protected void printRepeatedFailure(Failure each, String prefix,
+			String firstPrefix) {
+		getWriter().println(prefix + ") " + each.getTestHeader());
+		getWriter().println(each.getException());
+		getWriter().println("\tat the same place as " + firstPrefix + ")");
+	}
+
 	protected void printFooter(Result result) {
 		if (result.wasSuccessful()) {
 			getWriter().println();
@@ -0,0 +1,59 @@
+package org.junit.internal.requests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.internal.builders.AllDefaultPossibilitiesBuilder;
+import org.junit.runner.Computer;
+import org.junit.runner.Request;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+
+/**
+ * A {@link Request} for all the tests in a set of classes. Runners are built
+ * on first use, so that a {@link Filter} can rule out whole classes first.
+ */
+public class ClassesRequest extends Request {
+	private final Computer fComputer;
+
+	private final RunnerBuilder fBuilder;
+
+	private final Class<?>[] fClasses;
+
+	private Runner fRunner= null;
+
+	public ClassesRequest(Computer computer, Class<?>... classes) {
+		this(computer, new AllDefaultPossibilitiesBuilder(true), classes);
+	}
+
+	public ClassesRequest(Computer computer, RunnerBuilder builder,
+			Class<?>... classes) {
+		fComputer= computer;
+		fBuilder= builder;
+		fClasses= classes;
+	}
+
+	@Override
+	public synchronized Runner getRunner() {
+		if (fRunner == null)
+			try {
+				fRunner= fComputer.getSuite(fBuilder, fClasses);
+			} catch (InitializationError e) {
+				throw new RuntimeException(
+						"Bug in saff's brain: Suite constructor, called as above, should always complete");
+			}
+		return fRunner;
+	}
+
+	@Override
+	public Request filterWith(Filter filter) {
+		List<Class<?>> remaining= new ArrayList<Class<?>>();
+		for (Class<?> each : fClasses)
+			if (filter.shouldRunClass(each))
+				remaining.add(each);
+		return new FilterRequest(new ClassesRequest(fComputer, fBuilder, remaining
+				.toArray(new Class<?>[remaining.size()])), filter);
+	}
+}
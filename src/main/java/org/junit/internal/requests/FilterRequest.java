@@ -4,10 +4,12 @@
 package org.junit.internal.requests;
 
 import org.junit.internal.runners.ErrorReportingRunner;
+import org.junit.runner.Description;
 import org.junit.runner.Request;
 import org.junit.runner.Runner;
 import org.junit.runner.manipulation.Filter;
 import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.notification.RunNotifier;
 
 /**
  * A filtered {@link Request}.
@@ -29,11 +31,22 @@ public final class FilterRequest extends Request {
 
 	@Override 
 	public Runner getRunner() {
+		final Runner runner= fRequest.getRunner();
 		try {
-			Runner runner= fRequest.getRunner();
 			fFilter.apply(runner);
 			return runner;
 		} catch (NoTestsRemainException e) {
+			if (fFilter.mayRemoveAllTests())
+				return new Runner() {
+					@Override
+					public Description getDescription() {
+						return runner.getDescription().childlessCopy();
+					}
+
+					@Override
+					public void run(RunNotifier notifier) {
+					}
+				};
 			return new ErrorReportingRunner(Filter.class, new Exception(String
 					.format("No tests found matching %s from %s", fFilter
 							.describe(), fRequest.toString())));
@@ -0,0 +1,144 @@
+package org.junit.internal.runners;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.junit.runner.Description;
+import org.junit.runner.Plan;
+import org.junit.runner.Runner;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Filterable;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sortable;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.RunnerBuilder;
+
+/**
+ * Runs the tests of a list of classes, one class after the other, while a
+ * background thread builds the runners of the classes that come later. Each
+ * class joins the run, by way of
+ * {@link RunNotifier#fireTestsDiscovered(Plan)}, once its runner is built,
+ * so the run starts with an empty plan.
+ * 
+ * Filters and sorters apply to each class as it is built. Since the runner
+ * can't tell that no test is left until every class is built, filtering never
+ * throws {@link NoTestsRemainException}: it may leave nothing to run.
+ */
+public class StreamingRunner extends Runner implements Filterable, Sortable {
+	private static final Runner NO_MORE_CLASSES= new Runner() {
+		@Override
+		public Description getDescription() {
+			return Description.EMPTY;
+		}
+
+		@Override
+		public void run(RunNotifier notifier) {
+		}
+	};
+
+	private final RunnerBuilder fBuilder;
+
+	private final Class<?>[] fClasses;
+
+	private final List<Filter> fFilters= new CopyOnWriteArrayList<Filter>();
+
+	private volatile Sorter fSorter= null;
+
+	private final List<Description> fDiscovered= new CopyOnWriteArrayList<Description>();
+
+	private volatile boolean fStopped= false;
+
+	public StreamingRunner(RunnerBuilder builder, Class<?>... classes) {
+		fBuilder= builder;
+		fClasses= classes;
+	}
+
+	/**
+	 * Describes the classes built so far
+	 */
+	@Override
+	public Description getDescription() {
+		Description description= Description.createSuiteDescription("classes");
+		for (Description each : fDiscovered)
+			description.addChild(each);
+		return description;
+	}
+
+	@Override
+	public void run(final RunNotifier notifier) {
+		final BlockingQueue<Runner> built= new LinkedBlockingQueue<Runner>();
+		Thread producer= new Thread(new Runnable() {
+			public void run() {
+				try {
+					for (Class<?> each : fClasses) {
+						if (fStopped)
+							return;
+						Runner runner= build(each);
+						if (runner != null) {
+							fDiscovered.add(runner.getDescription());
+							notifier.fireTestsDiscovered(runner.getPlan());
+							built.add(runner);
+						}
+					}
+				} finally {
+					built.add(NO_MORE_CLASSES);
+				}
+			}
+		}, "junit-discovery");
+		producer.setDaemon(true);
+		producer.start();
+		try {
+			for (Runner each= take(built); each != NO_MORE_CLASSES; each= take(built))
+				each.run(notifier);
+		} finally {
+			fStopped= true;
+		}
+	}
+
+	private Runner build(Class<?> testClass) {
+		for (Filter each : fFilters)
+			if (!each.shouldRunClass(testClass))
+				return null;
+		Runner runner= fBuilder.safeRunnerForClass(testClass);
+		if (runner == null)
+			return null;
+		try {
+			for (Filter each : fFilters)
+				each.apply(runner);
+		} catch (NoTestsRemainException e) {
+			return null;
+		} catch (Throwable e) {
+			return new ErrorReportingRunner(testClass, e);
+		}
+		Sorter sorter= fSorter;
+		if (sorter != null)
+			sorter.apply(runner);
+		return runner;
+	}
+
+	private static Runner take(BlockingQueue<Runner> queue) {
+		boolean interrupted= false;
+		try {
+			while (true)
+				try {
+					return queue.take();
+				} catch (InterruptedException e) {
+					interrupted= true;
+				}
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	public void filter(Filter filter) {
+		fFilters.add(filter);
+	}
+
+	public void sort(Sorter sorter) {
+		fSorter= sorter;
+	}
+}
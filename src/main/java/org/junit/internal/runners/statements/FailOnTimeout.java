@@ -10,9 +10,9 @@ public class FailOnTimeout extends Statement {
 
 	private final long fTimeout;
 
-	private boolean fFinished= false;
+	private volatile boolean fFinished= false;
 
-	private Throwable fThrown= null;
+	private volatile Throwable fThrown= null;
 
 	public FailOnTimeout(Statement next, long timeout) {
 		fNext= next;
@@ -7,6 +7,8 @@ import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.Statement;
 
 public class InvokeMethod extends Statement {
+	private static final Object[] NO_PARAMETERS= new Object[0];
+
 	private final FrameworkMethod fTestMethod;
 	private Object fTarget;
 	
@@ -17,6 +19,6 @@ public class InvokeMethod extends Statement {
 	
 	@Override
 	public void evaluate() throws Throwable {
-		fTestMethod.invokeExplosively(fTarget);
+		fTestMethod.invokeExplosively(fTarget, NO_PARAMETERS);
 	}
 }
\ No newline at end of file
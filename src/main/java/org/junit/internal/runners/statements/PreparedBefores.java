@@ -0,0 +1,65 @@
+package org.junit.internal.runners.statements;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.runners.model.Statement;
+
+/**
+ * Runs a class's {@code @BeforeClass} methods ahead of time, as a
+ * {@link Runnable} handed to another thread. The class block then waits for
+ * them in {@link #awaiting(Statement)}, or runs them itself if no other thread
+ * has started them yet.
+ */
+public class PreparedBefores implements Runnable {
+	private final Statement fBefores;
+
+	private final AtomicBoolean fClaimed= new AtomicBoolean(false);
+
+	private final CountDownLatch fDone= new CountDownLatch(1);
+
+	private volatile Throwable fThrown= null;
+
+	public PreparedBefores(Statement befores) {
+		fBefores= befores;
+	}
+
+	public void run() {
+		if (!fClaimed.compareAndSet(false, true))
+			return;
+		try {
+			fBefores.evaluate();
+		} catch (Throwable e) {
+			fThrown= e;
+		} finally {
+			fDone.countDown();
+		}
+	}
+
+	/**
+	 * Returns a {@link Statement}: wait for the {@code @BeforeClass} methods;
+	 * if any threw an Exception, pass it on, otherwise evaluate {@code next}
+	 */
+	public Statement awaiting(final Statement next) {
+		return new Statement() {
+			@Override
+			public void evaluate() throws Throwable {
+				PreparedBefores.this.run();
+				fDone.await();
+				if (fThrown != null)
+					throw fThrown;
+				next.evaluate();
+			}
+		};
+	}
+
+	/**
+	 * Keeps the {@code @BeforeClass} methods from running, unless they already
+	 * have started.
+	 *
+	 * @return true if they never ran, so there is nothing to clean up
+	 */
+	public boolean cancel() {
+		return fClaimed.compareAndSet(false, true);
+	}
+}
@@ -28,6 +28,10 @@ import java.util.regex.Pattern;
  * @see org.junit.runner.Runner
  */
 public class Description {
+	private static final Pattern METHOD_AND_CLASS= Pattern.compile("(.*)\\((.*)\\)");
+
+	private static final Pattern PARAMETER_INDEX= Pattern.compile(".*\\[(\\d+)\\]");
+
 	/**
 	 * Create a <code>Description</code> named <code>name</code>.
 	 * Generally, you will add children to this <code>Description</code>.
@@ -36,10 +40,27 @@ public class Description {
 	 * @return a <code>Description</code> named <code>name</code>
 	 */
 	public static Description createSuiteDescription(String name, Annotation... annotations) {
+		return createSuiteDescription(name, name, annotations);
+	}
+
+	/**
+	 * Create a <code>Description</code> named <code>name</code>, that is
+	 * equal only to those with the same <code>uniqueId</code>. Use it for
+	 * suites that share a name with others.
+	 * @param name the name of the <code>Description</code> 
+	 * @param uniqueId what tells this <code>Description</code> apart
+	 * @param annotations 
+	 * @return a <code>Description</code> named <code>name</code>
+	 */
+	public static Description createSuiteDescription(String name, String uniqueId, Annotation... annotations) {
 		if (name.length() == 0)
 			throw new IllegalArgumentException("name must have non-zero length");
-		return new Description(name, annotations);
+		Matcher matcher= METHOD_AND_CLASS.matcher(name);
+		if (matcher.matches())
+			return new Description(name, uniqueId, matcher.group(2), matcher.group(1), null, annotations);
+		return new Description(name, uniqueId, name, null, null, annotations);
 	}
+
 	/**
 	 * Create a <code>Description</code> of a single test named <code>name</code> in the class <code>clazz</code>.
 	 * Generally, this will be a leaf <code>Description</code>.
@@ -49,7 +70,8 @@ public class Description {
 	 * @return a <code>Description</code> named <code>name</code>
 	 */
 	public static Description createTestDescription(Class<?> clazz, String name, Annotation... annotations) {
-		return new Description(String.format("%s(%s)", name, clazz.getName()), annotations);
+		String displayName= name + "(" + clazz.getName() + ")";
+		return new Description(displayName, displayName, clazz.getName(), name, clazz, annotations);
 	}
 
 	/**
@@ -70,33 +92,65 @@ public class Description {
 	 * @return a <code>Description</code> of <code>testClass</code>
 	 */
 	public static Description createSuiteDescription(Class<?> testClass) {
-		return new Description(testClass.getName(), testClass.getAnnotations());
+		return new Description(testClass.getName(), testClass.getName(), testClass.getName(),
+				null, testClass, testClass.getAnnotations());
 	}
 	
 	/**
 	 * Describes a Runner which runs no tests
 	 */
-	public static final Description EMPTY= new Description("No Tests");
+	public static final Description EMPTY= createSuiteDescription("No Tests");
 	
 	/**
 	 * Describes a step in the test-running mechanism that goes so wrong no
 	 * other description can be used (for example, an exception thrown from a Runner's
 	 * constructor
 	 */
-	public static final Description TEST_MECHANISM= new Description("Test mechanism");
-	
+	public static final Description TEST_MECHANISM= createSuiteDescription("Test mechanism");
+
+	private static final Object NOT_LOADED= new Object();
+
 	// This is vestigial
 	private final ArrayList<Description> fChildren= new ArrayList<Description>();
 
 	private final String fDisplayName;	
+	private final String fUniqueId;
+	private final String fClassName;
+	private final String fMethodName;
+	private final int fParameterIndex;
 	private final Annotation[] fAnnotations;
 	private Description fParent = null;
+
+	// the test class, null if there is none, or NOT_LOADED
+	private volatile Object fTestClass= NOT_LOADED;
 	
-	private Description(final String displayName, Annotation... annotations) {
+	private Description(String displayName, String uniqueId, String className,
+			String methodName, Class<?> testClass, Annotation... annotations) {
+		if (uniqueId == null)
+			throw new NullPointerException("uniqueId must not be null");
 		fDisplayName= displayName;
+		fUniqueId= uniqueId;
+		// the descriptions of a class's tests share one name
+		fClassName= className.intern();
+		fMethodName= methodName;
+		fParameterIndex= parameterIndex(methodName == null ? displayName : methodName);
+		fTestClass= testClass == null ? NOT_LOADED : testClass;
 		fAnnotations= annotations;
 	}
 
+	private static int parameterIndex(String name) {
+		if (!name.endsWith("]"))
+			return -1;
+		Matcher matcher= PARAMETER_INDEX.matcher(name);
+		if (!matcher.matches())
+			return -1;
+		try {
+			return Integer.parseInt(matcher.group(1));
+		} catch (NumberFormatException e) {
+			return -1; // too many digits to be an index
+		}
+	}
+
 	/**
 	 * @return a user-understandable label
 	 */
@@ -156,16 +210,30 @@ public class Description {
 
 	@Override
 	public int hashCode() {
-		return getDisplayName().hashCode();
+		return fUniqueId.hashCode();
 	}
 
+	/**
+	 * Descriptions are equal if their unique ids are, whatever their children:
+	 * comparing them takes the same time for a suite as for a test.
+	 */
 	@Override
 	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
 		if (!(obj instanceof Description))
 			return false;
 		Description d = (Description) obj;
-		return getDisplayName().equals(d.getDisplayName())
-				&& getChildren().equals(d.getChildren());
+		// hash codes of Strings are cached: most unequal ids differ there
+		return hashCode() == d.hashCode() && fUniqueId.equals(d.fUniqueId);
+	}
+
+	/**
+	 * @return what tells this description apart from others: its display
+	 *         name, unless it was created with an id of its own
+	 */
+	public String getUniqueId() {
+		return fUniqueId;
 	}
 	
 	@Override
@@ -185,7 +253,9 @@ public class Description {
 	 * children will be added back)
 	 */
 	public Description childlessCopy() {
-		return new Description(fDisplayName, fAnnotations);
+		Object testClass= fTestClass;
+		return new Description(fDisplayName, fUniqueId, fClassName, fMethodName,
+				testClass == NOT_LOADED ? null : (Class<?>) testClass, fAnnotations);
 	}
 
 	/**
@@ -211,6 +281,15 @@ public class Description {
 	 * the class of the test instance.
 	 */
 	public Class<?> getTestClass() {
+		Object testClass= fTestClass;
+		if (testClass == NOT_LOADED) {
+			testClass= loadTestClass();
+			fTestClass= testClass;
+		}
+		return (Class<?>) testClass;
+	}
+
+	private Class<?> loadTestClass() {
 		String name= getClassName();
 		if (name == null)
 			return null;
@@ -226,10 +305,7 @@ public class Description {
 	 * the name of the class of the test instance
 	 */
 	public String getClassName() {
-		Matcher matcher= methodStringMatcher();
-		return matcher.matches()
-			? matcher.group(2)
-			: toString();
+		return fClassName;
 	}
 	
 	/**
@@ -237,18 +313,16 @@ public class Description {
 	 * the name of the method (or null if not)
 	 */
 	public String getMethodName() {
-		return parseMethod();
-	}
-
-	private String parseMethod() {
-		Matcher matcher= methodStringMatcher();
-		if (matcher.matches())
-			return matcher.group(1);
-		return null;
+		return fMethodName;
 	}
 
-	private Matcher methodStringMatcher() {
-		return Pattern.compile("(.*)\\((.*)\\)").matcher(toString());
+	/**
+	 * @return the index of the parameter set, for a parameterized test, or
+	 *         for the suite of one parameter set (named like
+	 *         <code>test[2]</code>, or <code>[2]</code>), or -1
+	 */
+	public int getParameterIndex() {
+		return fParameterIndex;
 	}
 
 	List<Description> getChildrenInternal() {
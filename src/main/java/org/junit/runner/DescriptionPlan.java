@@ -0,0 +1,102 @@
+package org.junit.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link Plan} of a {@link Description}. Children, leaf counts, and the
+ * flattened lists and the index of unique ids are computed the first time they are asked for,
+ * and kept: asking again costs nothing.
+ */
+class DescriptionPlan extends Plan {
+	private final Description fDescription;
+
+	private List<Plan> fChildren= null;
+
+	private int fLeafCount= -1;
+
+	private List<Plan> fNodes= null;
+
+	private List<Plan> fLeaves= null;
+
+	private Map<Description, Plan> fNodesByIdentity= null;
+
+	private Map<String, Plan> fIndex= null;
+
+	DescriptionPlan(Description description) {
+		fDescription= description;
+	}
+
+	@Override
+	public Description getDescription() {
+		return fDescription;
+	}
+
+	@Override
+	public synchronized List<Plan> getChildren() {
+		if (fChildren == null) {
+			List<Description> descriptions= fDescription.getChildrenInternal();
+			List<Plan> children= new ArrayList<Plan>(descriptions.size());
+			for (Description each : descriptions)
+				children.add(new DescriptionPlan(each));
+			fChildren= Collections.unmodifiableList(children);
+		}
+		return fChildren;
+	}
+
+	@Override
+	public synchronized int getLeafCount() {
+		if (fLeafCount < 0)
+			fLeafCount= super.getLeafCount();
+		return fLeafCount;
+	}
+
+	@Override
+	public synchronized List<Plan> getNodes() {
+		if (fNodes == null)
+			fNodes= super.getNodes();
+		return fNodes;
+	}
+
+	@Override
+	public synchronized List<Plan> getLeaves() {
+		if (fLeaves == null)
+			fLeaves= super.getLeaves();
+		return fLeaves;
+	}
+
+	/**
+	 * Finds the node of {@code description} itself in constant time, even
+	 * among nodes of the same unique id. Another description falls back to
+	 * the index of unique ids, in which the first of such nodes wins.
+	 */
+	@Override
+	public synchronized Plan find(Description description) {
+		buildIndex();
+		Plan result= fNodesByIdentity.get(description);
+		return result != null ? result : fIndex.get(description.getUniqueId());
+	}
+
+	@Override
+	public synchronized Plan find(String uniqueId) {
+		buildIndex();
+		return fIndex.get(uniqueId);
+	}
+
+	private void buildIndex() {
+		if (fIndex != null)
+			return;
+		fNodesByIdentity= new IdentityHashMap<Description, Plan>();
+		fIndex= new HashMap<String, Plan>();
+		List<Plan> nodes= getNodes();
+		for (int i= nodes.size() - 1; i >= 0; i--) {
+			Plan node= nodes.get(i);
+			fNodesByIdentity.put(node.getDescription(), node);
+			fIndex.put(node.getDescription().getUniqueId(), node);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package org.junit.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.runner.notification.Failure;
+
+/**
+ * The failures of a run that broke in the same place: those with the same
+ * {@link Failure#getFingerprint() fingerprint}.
+ *
+ * @see Result#getFailureGroups()
+ */
+public class FailureGroup {
+	private final String fFingerprint;
+
+	private final List<Failure> fFailures= new ArrayList<Failure>();
+
+	FailureGroup(String fingerprint) {
+		fFingerprint= fingerprint;
+	}
+
+	void add(Failure failure) {
+		fFailures.add(failure);
+	}
+
+	/**
+	 * @return the fingerprint shared by the failures of this group
+	 */
+	public String getFingerprint() {
+		return fFingerprint;
+	}
+
+	/**
+	 * @return the failures of this group, in the order they happened
+	 */
+	public List<Failure> getFailures() {
+		return Collections.unmodifiableList(fFailures);
+	}
+
+	/**
+	 * @return the first failure of this group, which stands for the others
+	 */
+	public Failure getFirst() {
+		return fFailures.get(0);
+	}
+
+	/**
+	 * @return the number of failures in this group
+	 */
+	public int size() {
+		return fFailures.size();
+	}
+
+	@Override
+	public String toString() {
+		return fFingerprint + ": " + size() + " x " + getFirst();
+	}
+}
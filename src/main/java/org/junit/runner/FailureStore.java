@@ -0,0 +1,66 @@
+package org.junit.runner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.internal.StackTraces;
+import org.junit.runner.notification.Failure;
+
+/**
+ * Lets failures that threw equal exceptions (of the same class, with the same
+ * message and stack trace, and with equal causes) share one of them, so that
+ * a test that fails the same way a thousand times keeps one exception alive
+ * rather than a thousand.
+ */
+class FailureStore {
+	private static class Key {
+		private final String fFingerprint;
+
+		private final String fMessage;
+
+		Key(String fingerprint, String message) {
+			fFingerprint= fingerprint;
+			fMessage= message;
+		}
+
+		@Override
+		public int hashCode() {
+			return fFingerprint.hashCode() * 31
+					+ (fMessage == null ? 0 : fMessage.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key that= (Key) obj;
+			return fFingerprint.equals(that.fFingerprint)
+					&& equal(fMessage, that.fMessage);
+		}
+	}
+
+	private final Map<Key, Throwable> fExceptions= new HashMap<Key, Throwable>();
+
+	/**
+	 * @return {@code failure}, or an equal failure whose exception is shared
+	 *         with an earlier one
+	 */
+	synchronized Failure intern(Failure failure) {
+		Throwable exception= failure.getException();
+		if (exception == null)
+			return failure;
+		Key key= new Key(failure.getFingerprint(), exception.getMessage());
+		Throwable existing= fExceptions.get(key);
+		if (existing == null) {
+			fExceptions.put(key, exception);
+			return failure;
+		}
+		if (existing == exception || !StackTraces.same(existing, exception))
+			return failure;
+		return new Failure(failure.getDescription(), existing);
+	}
+
+	private static boolean equal(Object left, Object right) {
+		return left == null ? right == null : left.equals(right);
+	}
+}
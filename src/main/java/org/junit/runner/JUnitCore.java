@@ -1,9 +1,11 @@
 package org.junit.runner;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
 import junit.runner.Version;
+import org.junit.experimental.ParallelComputer;
 import org.junit.internal.JUnitSystem;
 import org.junit.internal.RealSystem;
 import org.junit.internal.TextListener;
@@ -11,11 +13,15 @@ import org.junit.internal.runners.JUnit38ClassRunner;
 import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunListener;
 import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.TimingListener;
 
 /**
  * <code>JUnitCore</code> is a facade for running tests. It supports running JUnit 4 tests, 
  * JUnit 3.8.x tests, and mixtures. To run tests from the command line, run 
- * <code>java org.junit.runner.JUnitCore TestClass1 TestClass2 ...</code>.
+ * <code>java org.junit.runner.JUnitCore TestClass1 TestClass2 ...</code>;
+ * add <code>--timing=<em>file</em></code> to write test duration percentiles
+ * with a {@link TimingListener}, and <code>--parallel=<em>permits</em></code>
+ * to run classes and methods in parallel, at most <em>permits</em> at a time.
  * For one-shot test runs, use the static method {@link #runClasses(Class[])}. 
  * If you want to add special listeners,
  * create an instance of {@link org.junit.runner.JUnitCore} first and use it to run the tests.
@@ -25,6 +31,10 @@ import org.junit.runner.notification.RunNotifier;
  * @see org.junit.runner.Request
  */
 public class JUnitCore {
+	private static final String TIMING_OPTION= "--timing=";
+
+	private static final String PARALLEL_OPTION= "--parallel=";
+
 	private RunNotifier fNotifier;
 
 	/**
@@ -39,6 +49,12 @@ public class JUnitCore {
 	 * If all tests run successfully, exit with a status of 0. Otherwise exit with a status of 1.
 	 * Write feedback while tests are running and write
 	 * stack traces for all failed tests after the tests all complete.
+	 * With <code>--timing=<em>file</em></code>, also write the percentiles of
+	 * test durations to <code><em>file</em>.json</code> and
+	 * <code><em>file</em>.prom</code>.
+	 * With <code>--parallel=<em>permits</em></code>, run classes and methods
+	 * in parallel, with a concurrency budget of <em>permits</em> tests and
+	 * classes running at once across the whole run.
 	 * @param args names of classes in which to find tests to run
 	 */
 	public static void main(String... args) {
@@ -84,7 +100,25 @@ public class JUnitCore {
 		system.out().println("JUnit version " + Version.id());
 		List<Class<?>> classes= new ArrayList<Class<?>>();
 		List<Failure> missingClasses= new ArrayList<Failure>();
-		for (String each : args)
+		Computer computer= defaultComputer();
+		for (String each : args) {
+			if (each.startsWith(TIMING_OPTION)) {
+				addListener(new TimingListener(new File(each
+						.substring(TIMING_OPTION.length()))));
+				continue;
+			}
+			if (each.startsWith(PARALLEL_OPTION)) {
+				try {
+					computer= new ParallelComputer(true, true)
+							.withConcurrencyBudget(Integer.parseInt(each
+									.substring(PARALLEL_OPTION.length())));
+				} catch (IllegalArgumentException e) {
+					system.out().println("Invalid option: " + each);
+					missingClasses.add(new Failure(Description
+							.createSuiteDescription(each), e));
+				}
+				continue;
+			}
 			try {
 				classes.add(Class.forName(each));
 			} catch (ClassNotFoundException e) {
@@ -93,9 +127,10 @@ public class JUnitCore {
 				Failure failure= new Failure(description, e);
 				missingClasses.add(failure);
 			}
+		}
 		RunListener listener= new TextListener(system);
 		addListener(listener);
-		Result result= run(classes.toArray(new Class[0]));
+		Result result= run(computer, classes.toArray(new Class[0]));
 		for (Failure each : missingClasses)
 			result.getFailures().add(each);
 		return result;
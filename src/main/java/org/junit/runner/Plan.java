@@ -1,28 +1,21 @@
 package org.junit.runner;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 public abstract class Plan {
 	public abstract Description getDescription();
 	public abstract List<Plan> getChildren();
 
+	/**
+	 * Returns a plan of {@code description}'s tree as it is now. Each node
+	 * builds its children once, and keeps the results of the queries below.
+	 */
 	public static Plan fromDescription(final Description description) {
-		return new Plan() {
-			@Override
-			public Description getDescription() {
-				return description;
-			}
-			
-			@Override
-			public List<Plan> getChildren() {
-				List<Description> childrenDescs= description.getChildrenInternal();
-				ArrayList<Plan> children= new ArrayList<Plan>();
-				for (Description each : childrenDescs)
-					children.add(Plan.fromDescription(each));
-				return children;
-			}
-		};
+		return new DescriptionPlan(description);
 	}
 	
 	public boolean isSuite() {
@@ -32,4 +25,151 @@ public abstract class Plan {
 	public boolean isTest() {
 		return !isSuite();
 	}
+
+	/**
+	 * @return the number of tests (leaves) in this plan
+	 */
+	public int getLeafCount() {
+		if (isTest())
+			return 1;
+		int result= 0;
+		for (Plan each : getChildren())
+			result+= each.getLeafCount();
+		return result;
+	}
+
+	/**
+	 * @return the tests (leaves) of this plan, in the order they run
+	 */
+	public List<Plan> getLeaves() {
+		List<Plan> results= new ArrayList<Plan>();
+		for (Iterator<Plan> each= depthFirstIterator(); each.hasNext();) {
+			Plan node= each.next();
+			if (node.isTest())
+				results.add(node);
+		}
+		return Collections.unmodifiableList(results);
+	}
+
+	/**
+	 * @return this plan and all the plans below it, depth first, parents
+	 *         before their children
+	 */
+	public List<Plan> getNodes() {
+		List<Plan> results= new ArrayList<Plan>();
+		for (Iterator<Plan> each= depthFirstIterator(); each.hasNext();)
+			results.add(each.next());
+		return Collections.unmodifiableList(results);
+	}
+
+	/**
+	 * Walks the same nodes as {@link #getNodes()}, in the same order, without
+	 * building a list: the iterator keeps only the path from this plan to the
+	 * current node, so a step allocates nothing once the children of the
+	 * nodes walked are built.
+	 * 
+	 * @return an iterator over this plan and all the plans below it, depth
+	 *         first, parents before their children
+	 */
+	public Iterator<Plan> depthFirstIterator() {
+		return new DepthFirstIterator(this);
+	}
+
+	/**
+	 * Since {@link Description#getUniqueId() unique ids} tell apart equal
+	 * nodes only if their runners gave them ids of their own, a suite can
+	 * still hold several nodes of one id (a class twice, say): the node of the
+	 * very description passed in is found then, and otherwise the first of
+	 * them.
+	 * 
+	 * @return the plan of {@code description} itself, or else the first plan,
+	 *         depth first, that describes a description of the same unique id,
+	 *         or null if there is none
+	 */
+	public Plan find(Description description) {
+		Plan first= null;
+		for (Iterator<Plan> each= depthFirstIterator(); each.hasNext();) {
+			Plan node= each.next();
+			if (node.getDescription() == description)
+				return node;
+			if (first == null && node.getDescription().equals(description))
+				first= node;
+		}
+		return first;
+	}
+
+	/**
+	 * @return the first plan, depth first, whose description has
+	 *         {@code uniqueId}, or null if there is none
+	 */
+	public Plan find(String uniqueId) {
+		for (Iterator<Plan> each= depthFirstIterator(); each.hasNext();) {
+			Plan node= each.next();
+			if (node.getDescription().getUniqueId().equals(uniqueId))
+				return node;
+		}
+		return null;
+	}
+
+	private static class DepthFirstIterator implements Iterator<Plan> {
+		// the children of each plan on the path to fNext, and the index of
+		// the child to visit after them
+		private List<?>[] fChildren= new List<?>[8];
+
+		private int[] fIndexes= new int[8];
+
+		private int fDepth= 0;
+
+		private Plan fNext;
+
+		DepthFirstIterator(Plan root) {
+			fNext= root;
+		}
+
+		public boolean hasNext() {
+			return fNext != null;
+		}
+
+		public Plan next() {
+			if (fNext == null)
+				throw new NoSuchElementException();
+			Plan result= fNext;
+			List<Plan> children= result.getChildren();
+			if (!children.isEmpty())
+				push(children);
+			fNext= advance();
+			return result;
+		}
+
+		private void push(List<Plan> children) {
+			if (fDepth == fChildren.length) {
+				List<?>[] lists= new List<?>[fDepth * 2];
+				System.arraycopy(fChildren, 0, lists, 0, fDepth);
+				fChildren= lists;
+				int[] indexes= new int[fDepth * 2];
+				System.arraycopy(fIndexes, 0, indexes, 0, fDepth);
+				fIndexes= indexes;
+			}
+			fChildren[fDepth]= children;
+			fIndexes[fDepth]= 0;
+			fDepth++;
+		}
+
+		private Plan advance() {
+			while (fDepth > 0) {
+				List<?> children= fChildren[fDepth - 1];
+				int index= fIndexes[fDepth - 1];
+				if (index < children.size()) {
+					fIndexes[fDepth - 1]= index + 1;
+					return (Plan) children.get(index);
+				}
+				fChildren[--fDepth]= null;
+			}
+			return null;
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
 }
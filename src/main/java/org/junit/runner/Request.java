@@ -4,11 +4,14 @@ import java.util.Comparator;
 
 import org.junit.internal.builders.AllDefaultPossibilitiesBuilder;
 import org.junit.internal.requests.ClassRequest;
+import org.junit.internal.requests.ClassesRequest;
 import org.junit.internal.requests.FilterRequest;
 import org.junit.internal.requests.SortingRequest;
 import org.junit.internal.runners.ErrorReportingRunner;
+import org.junit.internal.runners.StreamingRunner;
 import org.junit.runner.manipulation.Filter;
-import org.junit.runners.model.InitializationError;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.notification.RunNotifier;
 
 /**
  * <p>A <code>Request</code> is an abstract description of tests to be run. Older versions of 
@@ -64,14 +67,7 @@ public abstract class Request {
 	 * @return a <code>Request</code> that will cause all tests in the classes to be run
 	 */
 	public static Request classes(Computer computer, Class<?>... classes) {
-		try {
-			AllDefaultPossibilitiesBuilder builder= new AllDefaultPossibilitiesBuilder(true);
-			Runner suite= computer.getSuite(builder, classes);
-			return runner(suite);
-		} catch (InitializationError e) {
-			throw new RuntimeException(
-					"Bug in saff's brain: Suite constructor, called as above, should always complete");
-		}
+		return new ClassesRequest(computer, classes);
 	}
 
 	/**
@@ -83,6 +79,21 @@ public abstract class Request {
 	public static Request classes(Class<?>... classes) {
 		return classes(JUnitCore.defaultComputer(), classes);
 	}
+
+	/**
+	 * Create a <code>Request</code> that, when processed, will run all the tests
+	 * in a set of classes, one class after the other, starting as soon as the
+	 * first class is ready. The runners of the later classes are built and
+	 * validated on a background thread meanwhile, and each class joins the run
+	 * with {@link org.junit.runner.notification.RunListener#testsDiscovered(Plan)}
+	 * before its tests start: the run itself starts with an empty plan.
+	 * Sorting applies within each class only.
+	 * @param classes the classes containing the tests
+	 * @return a <code>Request</code> that will cause all tests in the classes to be run
+	 */
+	public static Request streaming(Class<?>... classes) {
+		return runner(new StreamingRunner(new AllDefaultPossibilitiesBuilder(true), classes));
+	}
 	
 
 	/**
@@ -132,6 +143,60 @@ public abstract class Request {
 		return filterWith(Filter.matchMethodDescription(desiredDescription));
 	}
 
+	/**
+	 * Returns a Request that only runs shard {@code index} (counting from 0) of
+	 * {@code total} shards of this Request's tests. Each test is assigned to a
+	 * shard by a hash of its display name, so the assignment is the same on
+	 * every machine and in every run, and running every shard runs every test
+	 * exactly once. A shard that gets no tests runs nothing. To balance shards
+	 * by recorded durations instead, filter with
+	 * {@link org.junit.experimental.max.MaxHistory#shard(int, int, Class[])}.
+	 * 
+	 * @param index the shard to run
+	 * @param total the number of shards
+	 * @return the filtered Request
+	 */
+	public Request shard(final int index, final int total) {
+		if (index < 0 || index >= total)
+			throw new IllegalArgumentException(String.format(
+					"shard %d does not exist: there are %d shards", index, total));
+		Filter filter= new Filter() {
+			@SuppressWarnings("deprecation")
+			@Override
+			public boolean shouldRun(Description description) {
+				if (description.isTest())
+					return shardOf(description.getDisplayName(), total) == index;
+				for (Description each : description.getChildren())
+					if (shouldRun(each))
+						return true;
+				return false;
+			}
+
+			@Override
+			public boolean mayRemoveAllTests() {
+				// with more shards than tests, some shards are empty
+				return true;
+			}
+
+			@Override
+			public String describe() {
+				return String.format("shard %d of %d", index, total);
+			}
+		};
+		return filterWith(filter);
+	}
+
+	private static int shardOf(String displayName, int total) {
+		// spread the bits, since display names often differ in one character
+		int h= displayName.hashCode();
+		h^= h >>> 16;
+		h*= 0x85ebca6b;
+		h^= h >>> 13;
+		h*= 0xc2b2ae35;
+		h^= h >>> 16;
+		return (h & Integer.MAX_VALUE) % total;
+	}
+
 	/**
 	 * Returns a Request whose Tests can be run in a certain order, defined by 
 	 * <code>comparator</code>
@@ -1,9 +1,11 @@
 package org.junit.runner;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Collections;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
 
 import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunListener;
@@ -14,17 +16,19 @@ import org.junit.runner.notification.RunListener;
  * the count of tests that ran.
  */
 public class Result {
-	private AtomicInteger fCount = new AtomicInteger();
-	private AtomicInteger fIgnoreCount= new AtomicInteger();
+	private final StripedCounter fCount= new StripedCounter();
+	private final StripedCounter fIgnoreCount= new StripedCounter();
 	private final List<Failure> fFailures= Collections.synchronizedList( new ArrayList<Failure>());
-	private long fRunTime= 0;
-	private long fStartTime;
+	private final FailureStore fFailureStore= new FailureStore();
+	private final TestTimes fTestTimes= new TestTimes();
+	private volatile long fRunTime= 0;
+	private volatile long fStartTime;
 
 	/**
 	 * @return the number of tests run
 	 */
 	public int getRunCount() {
-		return fCount.get();
+		return (int) fCount.sum();
 	}
 
 	/**
@@ -41,6 +45,38 @@ public class Result {
 		return fRunTime;
 	}
 
+	/**
+	 * @return the number of nanoseconds {@code test} took to run, or -1 if
+	 *         it did not run
+	 */
+	public long getRunTimeNanos(Description test) {
+		return fTestTimes.nanos(test);
+	}
+
+	/**
+	 * @return each time a test ran, in the order the tests started: a test
+	 *         that ran more than once, or tests with equal descriptions, have
+	 *         a {@link RunTime} each
+	 */
+	public List<RunTime> getRunTimes() {
+		return fTestTimes.runTimes();
+	}
+
+	/**
+	 * @return the number of nanoseconds the tests of each class took to run,
+	 *         by class name, in the order the classes started
+	 */
+	public Map<String, Long> getRunTimeNanosByClass() {
+		return fTestTimes.nanosByClass();
+	}
+
+	/**
+	 * @return the {@code count} tests that took longest to run, slowest first
+	 */
+	public List<Description> getSlowestTests(int count) {
+		return fTestTimes.slowest(count);
+	}
+
 	/**
 	 * @return the {@link Failure}s describing tests that failed and the problems they encountered
 	 */
@@ -48,11 +84,37 @@ public class Result {
 		return fFailures;
 	}
 
+	/**
+	 * @return the failures, grouped by {@link Failure#getFingerprint()
+	 *         fingerprint}, in the order of each group's first failure
+	 */
+	public List<FailureGroup> getFailureGroups() {
+		Map<Throwable, String> fingerprints= new IdentityHashMap<Throwable, String>();
+		Map<String, FailureGroup> groups= new LinkedHashMap<String, FailureGroup>();
+		synchronized (fFailures) {
+			for (Failure each : fFailures) {
+				// failures that share an exception share its fingerprint
+				String fingerprint= fingerprints.get(each.getException());
+				if (fingerprint == null) {
+					fingerprint= each.getFingerprint();
+					fingerprints.put(each.getException(), fingerprint);
+				}
+				FailureGroup group= groups.get(fingerprint);
+				if (group == null) {
+					group= new FailureGroup(fingerprint);
+					groups.put(fingerprint, group);
+				}
+				group.add(each);
+			}
+		}
+		return new ArrayList<FailureGroup>(groups.values());
+	}
+
 	/**
 	 * @return the number of tests ignored during the run
 	 */
 	public int getIgnoreCount() {
-		return fIgnoreCount.get();
+		return (int) fIgnoreCount.sum();
 	}
 
 	/**
@@ -62,31 +124,72 @@ public class Result {
 		return getFailureCount() == 0;
 	}
 
+	/**
+	 * One run of a test, and how long it took
+	 */
+	public static class RunTime {
+		final Description fTest;
+
+		final long fStart;
+
+		final long fNanos;
+
+		RunTime(Description test, long start, long nanos) {
+			fTest= test;
+			fStart= start;
+			fNanos= nanos;
+		}
+
+		/**
+		 * @return the test that ran
+		 */
+		public Description getDescription() {
+			return fTest;
+		}
+
+		/**
+		 * @return the number of nanoseconds the test took to run
+		 */
+		public long getNanos() {
+			return fNanos;
+		}
+	}
+
+	@RunListener.ThreadSafe
 	private class Listener extends RunListener {
 		@Override
 		public void testRunStarted(Description description) throws Exception {
-			fStartTime= System.currentTimeMillis();
+			fStartTime= System.nanoTime();
 		}
 
 		@Override
 		public void testRunFinished(Result result) throws Exception {
-			long endTime= System.currentTimeMillis();
-			fRunTime+= endTime - fStartTime;
+			long endTime= System.nanoTime();
+			synchronized (Result.this) {
+				fRunTime+= (endTime - fStartTime) / 1000000;
+			}
+			fTestTimes.merge();
+		}
+
+		@Override
+		public void testStarted(Description description) throws Exception {
+			fTestTimes.started(description);
 		}
 
 		@Override
 		public void testFinished(Description description) throws Exception {
-			fCount.getAndIncrement();
+			fTestTimes.finished(description);
+			fCount.increment();
 		}
 
 		@Override
 		public void testFailure(Failure failure) throws Exception {
-			fFailures.add(failure);
+			fFailures.add(fFailureStore.intern(failure));
 		}
 
 		@Override
 		public void testIgnored(Description description) throws Exception {
-			fIgnoreCount.getAndIncrement();
+			fIgnoreCount.increment();
 		}
 
 		@Override
@@ -0,0 +1,48 @@
+package org.junit.runner;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count that threads add to without contending, like Java 8's
+ * {@code LongAdder}: each thread adds to one of a few cells, picked by its id,
+ * and reading the count adds the cells up.
+ */
+class StripedCounter {
+	// longs per cell, so that each cell has a cache line of its own
+	private static final int PADDING= 8;
+
+	private static final int STRIPES= stripes();
+
+	private final AtomicLongArray fCells= new AtomicLongArray(STRIPES * PADDING);
+
+	/**
+	 * @return the number of stripes to spread threads over: a power of two,
+	 *         at least twice the number of processors
+	 */
+	static int stripes() {
+		int stripes= 1;
+		while (stripes < 2 * Runtime.getRuntime().availableProcessors())
+			stripes*= 2;
+		return stripes;
+	}
+
+	/**
+	 * @return the stripe of the current thread, out of {@code stripes}, a
+	 *         power of two
+	 */
+	static int stripe(int stripes) {
+		// thread ids are handed out in turn, so threads spread evenly
+		return (int) (Thread.currentThread().getId() & (stripes - 1));
+	}
+
+	void increment() {
+		fCells.getAndIncrement(stripe(STRIPES) * PADDING);
+	}
+
+	long sum() {
+		long sum= 0;
+		for (int i= 0; i < STRIPES; i++)
+			sum+= fCells.get(i * PADDING);
+		return sum;
+	}
+}
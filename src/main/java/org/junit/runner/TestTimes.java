@@ -0,0 +1,185 @@
+package org.junit.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.runner.Result.RunTime;
+
+/**
+ * The durations of the tests of a run, in nanoseconds. Threads time their
+ * tests into a few buffers of growing arrays, picked by thread id as the cells
+ * of a {@link StripedCounter} are, so that parallel tests seldom contend and
+ * allocate nothing most of the time, and a run on a new thread per test needs
+ * no more buffers than any other. {@link #merge()} moves the finished entries
+ * out of the buffers, which then reuse their arrays, in the order the tests
+ * started, and indexes the durations by test. A test that ran more than once
+ * has a duration for each time.
+ */
+class TestTimes {
+	/**
+	 * The tests that some threads are timing, and have timed since the last
+	 * merge. A test still running has no duration yet.
+	 */
+	private static class Buffer {
+		private static final long RUNNING= -1;
+
+		private Description[] fTests= new Description[64];
+
+		private long[] fThreads= new long[64];
+
+		private long[] fStarts= new long[64];
+
+		private long[] fNanos= new long[64];
+
+		private int fSize= 0;
+
+		synchronized void started(Description test, long thread, long start) {
+			if (fSize == fTests.length) {
+				Description[] tests= new Description[fSize * 2];
+				System.arraycopy(fTests, 0, tests, 0, fSize);
+				fTests= tests;
+				fThreads= grow(fThreads);
+				fStarts= grow(fStarts);
+				fNanos= grow(fNanos);
+			}
+			fTests[fSize]= test;
+			fThreads[fSize]= thread;
+			fStarts[fSize]= start;
+			fNanos[fSize]= RUNNING;
+			fSize++;
+		}
+
+		private long[] grow(long[] array) {
+			long[] results= new long[array.length * 2];
+			System.arraycopy(array, 0, results, 0, array.length);
+			return results;
+		}
+
+		/**
+		 * Ends the test that {@code thread} is running, if it is {@code test}
+		 */
+		synchronized void finished(Description test, long thread, long end) {
+			// its entry is among the last: few started since, in this buffer
+			for (int i= fSize - 1; i >= 0; i--)
+				if (fThreads[i] == thread && fNanos[i] == RUNNING) {
+					if (test.equals(fTests[i]))
+						fNanos[i]= end - fStarts[i];
+					return;
+				}
+		}
+
+		/**
+		 * Moves the tests that finished to {@code times}, and keeps those
+		 * still running
+		 */
+		synchronized void drainTo(List<RunTime> times) {
+			int kept= 0;
+			for (int i= 0; i < fSize; i++)
+				if (fNanos[i] == RUNNING) {
+					fTests[kept]= fTests[i];
+					fThreads[kept]= fThreads[i];
+					fStarts[kept]= fStarts[i];
+					fNanos[kept]= RUNNING;
+					kept++;
+				} else
+					times.add(new RunTime(fTests[i], fStarts[i], fNanos[i]));
+			for (int i= kept; i < fSize; i++)
+				fTests[i]= null;
+			fSize= kept;
+		}
+	}
+
+	private final Buffer[] fBuffers= new Buffer[StripedCounter.stripes()];
+
+	private final List<RunTime> fTimes= new ArrayList<RunTime>();
+
+	private final Map<Description, Long> fIndex= new HashMap<Description, Long>();
+
+	TestTimes() {
+		for (int i= 0; i < fBuffers.length; i++)
+			fBuffers[i]= new Buffer();
+	}
+
+	/**
+	 * Starts timing {@code test} on the current thread
+	 */
+	void started(Description test) {
+		long start= System.nanoTime();
+		fBuffers[StripedCounter.stripe(fBuffers.length)].started(test, Thread
+				.currentThread().getId(), start);
+	}
+
+	/**
+	 * Records the duration of {@code test}, if it started on the current
+	 * thread
+	 */
+	void finished(Description test) {
+		long end= System.nanoTime();
+		fBuffers[StripedCounter.stripe(fBuffers.length)].finished(test, Thread
+				.currentThread().getId(), end);
+	}
+
+	/**
+	 * Gathers what every thread recorded since the last merge
+	 */
+	synchronized void merge() {
+		List<RunTime> added= new ArrayList<RunTime>();
+		for (Buffer each : fBuffers)
+			each.drainTo(added);
+		if (added.isEmpty())
+			return;
+		for (RunTime each : added) {
+			Long total= fIndex.get(each.fTest);
+			fIndex.put(each.fTest, (total == null ? 0 : total) + each.fNanos);
+		}
+		fTimes.addAll(added);
+		// stable, so tests that started at the same time keep their order
+		Collections.sort(fTimes, new Comparator<RunTime>() {
+			public int compare(RunTime o1, RunTime o2) {
+				return o1.fStart < o2.fStart ? -1 : o1.fStart > o2.fStart ? 1 : 0;
+			}
+		});
+	}
+
+	synchronized long nanos(Description test) {
+		merge();
+		Long total= fIndex.get(test);
+		return total == null ? -1 : total;
+	}
+
+	synchronized List<RunTime> runTimes() {
+		merge();
+		return new ArrayList<RunTime>(fTimes);
+	}
+
+	synchronized Map<String, Long> nanosByClass() {
+		merge();
+		Map<String, Long> results= new LinkedHashMap<String, Long>();
+		for (RunTime each : fTimes) {
+			String name= each.fTest.getClassName();
+			Long total= results.get(name);
+			results.put(name, (total == null ? 0 : total) + each.fNanos);
+		}
+		return results;
+	}
+
+	synchronized List<Description> slowest(int count) {
+		merge();
+		// longest first, keeping ties in the order they started
+		List<RunTime> order= new ArrayList<RunTime>(fTimes);
+		Collections.sort(order, new Comparator<RunTime>() {
+			public int compare(RunTime o1, RunTime o2) {
+				return o1.fNanos > o2.fNanos ? -1 : o1.fNanos < o2.fNanos ? 1 : 0;
+			}
+		});
+		List<Description> results= new ArrayList<Description>();
+		for (int i= 0; i < Math.min(count, order.size()); i++)
+			results.add(order.get(i).fTest);
+		return results;
+	}
+}
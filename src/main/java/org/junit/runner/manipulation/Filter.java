@@ -76,6 +76,33 @@ public abstract class Filter {
 	 */
 	public abstract boolean shouldRun(Description description);
 
+	/**
+	 * Returns false if it is cheap to determine, from {@code testClass}
+	 * alone, that none of its tests should be run. A {@link Request} made from
+	 * a list of classes asks this before building a runner for each class, so
+	 * that excluded classes are never scanned or validated. The default
+	 * implementation returns true.
+	 * 
+	 * @param testClass
+	 *            a class that is about to get a runner
+	 * @return <code>false</code> if no test in {@code testClass} should run
+	 */
+	public boolean shouldRunClass(Class<?> testClass) {
+		return true;
+	}
+
+	/**
+	 * Returns true if this filter is meant to rule out every test at times,
+	 * as a shard does when there are more shards than tests. A filtered
+	 * {@link Request} then runs nothing, instead of reporting that no tests
+	 * matched. The default implementation returns false.
+	 * 
+	 * @return <code>true</code> if removing every test is not an error
+	 */
+	public boolean mayRemoveAllTests() {
+		return false;
+	}
+
 	/**
 	 * Returns a textual description of this Filter
 	 * 
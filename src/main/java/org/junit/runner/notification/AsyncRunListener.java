@@ -0,0 +1,278 @@
+package org.junit.runner.notification;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.runner.Description;
+import org.junit.runner.Plan;
+import org.junit.runner.Result;
+
+/**
+ * <p>Passes events on to a slow {@link RunListener}, such as one that writes
+ * reports to disk, from a dispatcher thread of its own, so that tests don't
+ * wait for it. Events wait in a bounded buffer and reach the listener in the
+ * order in which they were fired. When the buffer is full, a test either waits
+ * ({@link Backpressure#BLOCK}) or its event is dropped and counted
+ * ({@link Backpressure#DROP}); run and discovery events are never dropped.
+ * {@link #testRunFinished(Result)} returns once every event has been
+ * delivered.</p>
+ *
+ * <p>If the listener throws, it gets no further events, and the next event
+ * fired throws the same exception, so that the {@link RunNotifier} removes
+ * this listener and reports the failure as usual.</p>
+ *
+ * <pre>
+ * core.addListener(new AsyncRunListener(new XmlReportListener(), 1024, Backpressure.BLOCK));
+ * </pre>
+ */
+@RunListener.ThreadSafe
+public class AsyncRunListener extends RunListener {
+	/**
+	 * What a test does when the buffer is full
+	 */
+	public enum Backpressure {
+		/** wait until the dispatcher makes room */
+		BLOCK,
+		/** drop the event, and count it in {@link AsyncRunListener#getDropped()} */
+		DROP
+	}
+
+	private static final long KEEP_ALIVE_MILLIS= 5000;
+
+	private abstract static class Event {
+		abstract void deliver(RunListener listener) throws Exception;
+	}
+
+	private static class RunFinished extends Event {
+		private final Result fResult;
+
+		private final CountDownLatch fDelivered= new CountDownLatch(1);
+
+		RunFinished(Result result) {
+			fResult= result;
+		}
+
+		@Override
+		void deliver(RunListener listener) throws Exception {
+			listener.testRunFinished(fResult);
+		}
+	}
+
+	private final RunListener fListener;
+
+	private final Backpressure fBackpressure;
+
+	private final BlockingQueue<Event> fBuffer;
+
+	private final AtomicLong fDropped= new AtomicLong();
+
+	private volatile Exception fBroken= null;
+
+	private boolean fDispatching= false;
+
+	/**
+	 * Creates a listener that buffers up to {@code capacity} events for
+	 * {@code listener}
+	 */
+	public AsyncRunListener(RunListener listener, int capacity,
+			Backpressure backpressure) {
+		fListener= listener;
+		fBackpressure= backpressure;
+		fBuffer= new ArrayBlockingQueue<Event>(capacity);
+	}
+
+	/**
+	 * @return the number of events dropped because the buffer was full
+	 */
+	public long getDropped() {
+		return fDropped.get();
+	}
+
+	@SuppressWarnings("deprecation")
+	@Override
+	public void testRunStarted(final Description description) throws Exception {
+		put(new Event() {
+			@Override
+			void deliver(RunListener listener) throws Exception {
+				listener.testRunStarted(description);
+			}
+		});
+	}
+
+	@Override
+	public void testRunStarted(final Plan plan) throws Exception {
+		put(new Event() {
+			@Override
+			void deliver(RunListener listener) throws Exception {
+				listener.testRunStarted(plan);
+			}
+		});
+	}
+
+	@Override
+	public void testsDiscovered(final Plan plan) throws Exception {
+		put(new Event() {
+			@Override
+			void deliver(RunListener listener) throws Exception {
+				listener.testsDiscovered(plan);
+			}
+		});
+	}
+
+	@Override
+	public void testRunFinished(Result result) throws Exception {
+		RunFinished finished= new RunFinished(result);
+		put(finished);
+		awaitUninterruptibly(finished.fDelivered);
+		checkNotBroken();
+	}
+
+	@Override
+	public void testStarted(final Description description) throws Exception {
+		offer(new Event() {
+			@Override
+			void deliver(RunListener listener) throws Exception {
+				listener.testStarted(description);
+			}
+		});
+	}
+
+	@Override
+	public void testFinished(final Description description) throws Exception {
+		offer(new Event() {
+			@Override
+			void deliver(RunListener listener) throws Exception {
+				listener.testFinished(description);
+			}
+		});
+	}
+
+	@Override
+	public void testFailure(final Failure failure) throws Exception {
+		offer(new Event() {
+			@Override
+			void deliver(RunListener listener) throws Exception {
+				listener.testFailure(failure);
+			}
+		});
+	}
+
+	@Override
+	public void testAssumptionFailure(final Failure failure) {
+		try {
+			offer(new Event() {
+				@Override
+				void deliver(RunListener listener) throws Exception {
+					listener.testAssumptionFailure(failure);
+				}
+			});
+		} catch (Exception e) {
+			// this event can't throw: the next one will
+		}
+	}
+
+	@Override
+	public void testIgnored(final Description description) throws Exception {
+		offer(new Event() {
+			@Override
+			void deliver(RunListener listener) throws Exception {
+				listener.testIgnored(description);
+			}
+		});
+	}
+
+	private void offer(Event event) throws Exception {
+		if (fBackpressure == Backpressure.BLOCK) {
+			put(event);
+			return;
+		}
+		checkNotBroken();
+		if (fBuffer.offer(event))
+			ensureDispatcher();
+		else
+			fDropped.incrementAndGet();
+	}
+
+	private void put(Event event) throws Exception {
+		checkNotBroken();
+		// a full buffer needs a dispatcher to drain it
+		ensureDispatcher();
+		boolean interrupted= false;
+		while (true) {
+			try {
+				fBuffer.put(event);
+				break;
+			} catch (InterruptedException e) {
+				interrupted= true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		// the dispatcher may have gone idle in the meantime
+		ensureDispatcher();
+	}
+
+	private void checkNotBroken() throws Exception {
+		if (fBroken != null)
+			throw fBroken;
+	}
+
+	private synchronized void ensureDispatcher() {
+		if (fDispatching)
+			return;
+		fDispatching= true;
+		Thread dispatcher= new Thread(new Runnable() {
+			public void run() {
+				dispatch();
+			}
+		}, "junit-listener-dispatcher");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+
+	private void dispatch() {
+		while (true) {
+			Event event;
+			try {
+				event= fBuffer.poll(KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				event= null;
+			}
+			if (event == null) {
+				synchronized (this) {
+					if (fBuffer.isEmpty()) {
+						fDispatching= false;
+						return;
+					}
+				}
+				continue;
+			}
+			try {
+				if (fBroken == null)
+					event.deliver(fListener);
+			} catch (Exception e) {
+				fBroken= e;
+			} finally {
+				if (event instanceof RunFinished)
+					((RunFinished) event).fDelivered.countDown();
+			}
+		}
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		boolean interrupted= false;
+		while (true) {
+			try {
+				latch.await();
+				break;
+			} catch (InterruptedException e) {
+				interrupted= true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+}
@@ -0,0 +1,49 @@
+package org.junit.runner.notification;
+
+import org.junit.runner.Plan;
+import org.junit.runner.Result;
+
+/**
+ * <p>Like a {@link RunListener}, but receives test events in batches, with one
+ * call for many events. This suits listeners that only count or collect, in
+ * runs of very many very short tests. Add it with
+ * {@link RunNotifier#addBatchListener(BatchRunListener)}. A batch is
+ * delivered once it holds enough events, once the oldest of its events has
+ * waited long enough (checked as further events arrive), and before
+ * {@link #testRunFinished(Result)}.</p>
+ *
+ * <p>Batches are delivered one at a time, in order. If a listener throws, it
+ * is removed for the remainder of the run. To feed a plain
+ * <code>RunListener</code> from batches, use
+ * {@link RunNotifier#fromBatches(RunListener)}.</p>
+ */
+public class BatchRunListener {
+	/**
+	 * Called before any tests have been run.
+	 * @param plan describes the tests to be run
+	 */
+	public void testRunStarted(Plan plan) throws Exception {
+	}
+
+	/**
+	 * Called when tests join a run that has already started, before any of
+	 * them runs. See {@link RunListener#testsDiscovered(Plan)}.
+	 * @param plan describes the tests that joined the run
+	 */
+	public void testsDiscovered(Plan plan) throws Exception {
+	}
+
+	/**
+	 * Called with the test events fired since the previous batch
+	 * @param batch the events
+	 */
+	public void testEvents(EventBatch batch) throws Exception {
+	}
+
+	/**
+	 * Called when all tests have finished, after the last batch
+	 * @param result the summary of the test run, including all the tests that failed
+	 */
+	public void testRunFinished(Result result) throws Exception {
+	}
+}
@@ -0,0 +1,85 @@
+package org.junit.runner.notification;
+
+import org.junit.runner.Description;
+
+/**
+ * The test events fired since the previous batch, grouped by kind. Each
+ * array is in the order the events were fired, and {@link #getOrder()} tells
+ * how the kinds were interleaved. A test's events may be spread over several
+ * batches. The arrays are shared between listeners: don't change them.
+ */
+public class EventBatch {
+	private final Description[] fStarted;
+
+	private final Description[] fIgnored;
+
+	private final Failure[] fFailures;
+
+	private final Failure[] fAssumptionFailures;
+
+	private final Description[] fFinished;
+
+	private final TestEvent[] fOrder;
+
+	EventBatch(TestEvent[] order, Description[] started, Description[] ignored,
+			Failure[] failures, Failure[] assumptionFailures,
+			Description[] finished) {
+		fOrder= order;
+		fStarted= started;
+		fIgnored= ignored;
+		fFailures= failures;
+		fAssumptionFailures= assumptionFailures;
+		fFinished= finished;
+	}
+
+	/**
+	 * @return the kind of each event of this batch, in the order they were
+	 *         fired: the n-th {@link TestEvent#STARTED} is the n-th of
+	 *         {@link #getStarted()}, and so on
+	 */
+	public TestEvent[] getOrder() {
+		return fOrder;
+	}
+
+	/**
+	 * @return the tests that started
+	 */
+	public Description[] getStarted() {
+		return fStarted;
+	}
+
+	/**
+	 * @return the tests that were ignored
+	 */
+	public Description[] getIgnored() {
+		return fIgnored;
+	}
+
+	/**
+	 * @return the tests that failed
+	 */
+	public Failure[] getFailures() {
+		return fFailures;
+	}
+
+	/**
+	 * @return the tests that assumed something false
+	 */
+	public Failure[] getAssumptionFailures() {
+		return fAssumptionFailures;
+	}
+
+	/**
+	 * @return the tests that finished
+	 */
+	public Description[] getFinished() {
+		return fFinished;
+	}
+
+	/**
+	 * @return the number of events in this batch
+	 */
+	public int size() {
+		return fOrder.length;
+	}
+}
@@ -0,0 +1,99 @@
+package org.junit.runner.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.runner.Description;
+
+/**
+ * Collects test events for the {@link BatchRunListener}s of a
+ * {@link RunNotifier}, and tells when a batch is due
+ */
+class EventBatcher {
+	private int fMaxEvents= 512;
+
+	private long fMaxDelayNanos= 100L * 1000 * 1000;
+
+	private List<TestEvent> fOrder= new ArrayList<TestEvent>();
+
+	private List<Description> fStarted= new ArrayList<Description>();
+
+	private List<Description> fIgnored= new ArrayList<Description>();
+
+	private List<Failure> fFailures= new ArrayList<Failure>();
+
+	private List<Failure> fAssumptionFailures= new ArrayList<Failure>();
+
+	private List<Description> fFinished= new ArrayList<Description>();
+
+	private int fSize= 0;
+
+	private long fOldest;
+
+	synchronized void setLimits(int maxEvents, long maxDelayMillis) {
+		if (maxEvents < 1)
+			throw new IllegalArgumentException(
+					"a batch must hold at least 1 event, but was " + maxEvents);
+		fMaxEvents= maxEvents;
+		fMaxDelayNanos= maxDelayMillis * 1000 * 1000;
+	}
+
+	synchronized boolean started(Description description) {
+		fStarted.add(description);
+		return added(TestEvent.STARTED);
+	}
+
+	synchronized boolean ignored(Description description) {
+		fIgnored.add(description);
+		return added(TestEvent.IGNORED);
+	}
+
+	synchronized boolean failed(Failure failure) {
+		fFailures.add(failure);
+		return added(TestEvent.FAILED);
+	}
+
+	synchronized boolean assumptionFailed(Failure failure) {
+		fAssumptionFailures.add(failure);
+		return added(TestEvent.ASSUMPTION_FAILED);
+	}
+
+	synchronized boolean finished(Description description) {
+		fFinished.add(description);
+		return added(TestEvent.FINISHED);
+	}
+
+	/**
+	 * @return true if a batch is due
+	 */
+	private boolean added(TestEvent event) {
+		fOrder.add(event);
+		long now= System.nanoTime();
+		if (fSize++ == 0)
+			fOldest= now;
+		return fSize >= fMaxEvents || now - fOldest >= fMaxDelayNanos;
+	}
+
+	/**
+	 * @return the events collected so far, or {@code null} if there are none
+	 */
+	synchronized EventBatch take() {
+		if (fSize == 0)
+			return null;
+		EventBatch batch= new EventBatch(
+				fOrder.toArray(new TestEvent[fOrder.size()]),
+				fStarted.toArray(new Description[fStarted.size()]),
+				fIgnored.toArray(new Description[fIgnored.size()]),
+				fFailures.toArray(new Failure[fFailures.size()]),
+				fAssumptionFailures.toArray(new Failure[fAssumptionFailures.size()]),
+				fFinished.toArray(new Description[fFinished.size()]));
+		fOrder.clear();
+		fStarted.clear();
+		fIgnored.clear();
+		fFailures.clear();
+		fAssumptionFailures.clear();
+		fFinished.clear();
+		fSize= 0;
+		return batch;
+	}
+}
@@ -3,6 +3,7 @@ package org.junit.runner.notification;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 
+import org.junit.internal.StackTraces;
 import org.junit.runner.Description;
 
 /**
@@ -15,6 +16,7 @@ import org.junit.runner.Description;
 public class Failure {
 	private final Description fDescription;
 	private final Throwable fThrownException;
+	private String fFingerprint= null;
 
 	/**
 	 * Constructs a <code>Failure</code> with the given description and exception.
@@ -67,6 +69,20 @@ public class Failure {
 		return buffer.toString();
 	}
 
+	/**
+	 * Returns a fingerprint of the place where the test broke: a hash of the
+	 * classes and stack traces of the exception and its causes, leaving out
+	 * their messages. Failures that broke in the same place, such as those of
+	 * a parameterized test that fails for every parameter, have the same
+	 * fingerprint.
+	 * @return the fingerprint, as 16 hexadecimal digits
+	 */
+	public String getFingerprint() {
+		if (fFingerprint == null)
+			fFingerprint= StackTraces.fingerprint(fThrownException);
+		return fFingerprint;
+	}
+
 	/**
 	 * Convenience method
 	 * @return the message of the thrown exception
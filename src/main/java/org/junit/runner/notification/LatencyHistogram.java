@@ -0,0 +1,113 @@
+package org.junit.runner.notification;
+
+/**
+ * Counts durations in buckets whose width grows with the duration, like
+ * HdrHistogram does, so that it takes the same few kilobytes however many
+ * durations it holds. Durations are kept to the microsecond, up to about 71
+ * minutes, and percentiles are within 1/16 of the true value (but never above
+ * the longest duration recorded).
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS= 4;
+
+	private static final int SUB_BUCKETS= 1 << SUB_BUCKET_BITS;
+
+	private static final long MAX_MICROS= (1L << 32) - 1;
+
+	private final int[] fCounts= new int[bucket(MAX_MICROS) + 1];
+
+	private final long fSlowMicros;
+
+	private long fCount= 0;
+
+	private long fTotalNanos= 0;
+
+	private long fMaxNanos= 0;
+
+	private long fSlow= 0;
+
+	/**
+	 * Creates a histogram that counts durations above {@code slowMillis}
+	 * milliseconds as slow
+	 */
+	public LatencyHistogram(long slowMillis) {
+		fSlowMicros= slowMillis * 1000;
+	}
+
+	/**
+	 * Adds a duration
+	 */
+	public synchronized void record(long nanos) {
+		long micros= Math.min(MAX_MICROS, Math.max(0, nanos / 1000));
+		fCounts[bucket(micros)]++;
+		fCount++;
+		fTotalNanos+= nanos;
+		fMaxNanos= Math.max(fMaxNanos, nanos);
+		if (micros > fSlowMicros)
+			fSlow++;
+	}
+
+	/**
+	 * @return the number of durations recorded
+	 */
+	public synchronized long getCount() {
+		return fCount;
+	}
+
+	/**
+	 * @return the sum of the durations recorded, in nanoseconds
+	 */
+	public synchronized long getTotalNanos() {
+		return fTotalNanos;
+	}
+
+	/**
+	 * @return the longest duration recorded, in nanoseconds
+	 */
+	public synchronized long getMaxNanos() {
+		return fMaxNanos;
+	}
+
+	/**
+	 * @return the number of durations above the slow threshold
+	 */
+	public synchronized long getSlowCount() {
+		return fSlow;
+	}
+
+	/**
+	 * @return the duration, in nanoseconds, that {@code percentile} percent of
+	 *         the durations recorded do not exceed, or 0 if there are none
+	 */
+	public synchronized long getPercentileNanos(double percentile) {
+		if (fCount == 0)
+			return 0;
+		long rank= Math.max(1, (long) Math.ceil(percentile / 100 * fCount));
+		long seen= 0;
+		for (int i= 0; i < fCounts.length; i++) {
+			seen+= fCounts[i];
+			if (seen >= rank)
+				return Math.min(fMaxNanos, highestMicros(i) * 1000);
+		}
+		return fMaxNanos;
+	}
+
+	// The first 2 * SUB_BUCKETS buckets hold one microsecond each; after that,
+	// each power of two is split into SUB_BUCKETS buckets
+
+	private static int bucket(long micros) {
+		if (micros < 2 * SUB_BUCKETS)
+			return (int) micros;
+		int shift= 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+		return 2 * SUB_BUCKETS + (shift - 1) * SUB_BUCKETS
+				+ (int) (micros >>> shift) - SUB_BUCKETS;
+	}
+
+	private static long highestMicros(int bucket) {
+		if (bucket < 2 * SUB_BUCKETS)
+			return bucket;
+		int shift= (bucket - 2 * SUB_BUCKETS) / SUB_BUCKETS + 1;
+		long sub= (bucket - 2 * SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((sub + 1) << shift) - 1;
+	}
+}
@@ -1,5 +1,11 @@
 package org.junit.runner.notification;
 
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
 import org.junit.internal.AssumptionViolatedException;
 import org.junit.runner.Description;
 import org.junit.runner.Plan;
@@ -30,9 +36,22 @@ import org.junit.runner.Result;
  * }
  * </pre>
  * </p>
+ * 
+ * <p>Tests may run on several threads at once, but a listener is only called by
+ * one thread at a time, unless its class is annotated with {@link ThreadSafe}.</p>
  * @see org.junit.runner.JUnitCore
  */
 public class RunListener {
+	/**
+	 * Indicates that a <code>RunListener</code> can be called by several
+	 * threads at once, so that events from parallel tests need not wait for
+	 * each other.
+	 */
+	@Documented
+	@Target(ElementType.TYPE)
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface ThreadSafe {
+	}
 
 	/**
 	 * Called before any tests have been run.
@@ -49,6 +68,16 @@ public class RunListener {
 	 */
 	public void testRunStarted(Plan plan) throws Exception {
 	}
+
+	/**
+	 * Called when tests join a run that has already started, as they do in a
+	 * {@link org.junit.runner.Request#streaming(Class...)} run, before any of
+	 * them runs. The tests of the run are those of the plan passed to
+	 * {@link #testRunStarted(Plan)} and of every plan passed here.
+	 * @param plan describes the tests that joined the run
+	 */
+	public void testsDiscovered(Plan plan) throws Exception {
+	}
 	
 	/**
 	 * Called when all tests have finished
@@ -1,9 +1,8 @@
 package org.junit.runner.notification;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.junit.internal.AssumptionViolatedException;
 import org.junit.runner.Description;
@@ -18,37 +17,237 @@ import org.junit.runner.Result;
  * to a separate class since they should only be called once per run.
  */
 public class RunNotifier {
-	private final List<RunListener> fListeners= 
-		Collections.synchronizedList(new ArrayList<RunListener>());
-	private boolean fPleaseStop= false;
+	private volatile RunListener[] fListeners= new RunListener[0];
+	// for each TestEvent, the listeners that subscribed to it
+	private volatile RunListener[][] fSubscribers= new RunListener[TestEvent.values().length][0];
+	private final List<BatchRunListener> fBatchListeners= new CopyOnWriteArrayList<BatchRunListener>();
+	private final EventBatcher fBatcher= new EventBatcher();
+	private final Object fBatchDelivery= new Object();
+	private boolean fDeliveringBatch= false;
+	private volatile boolean fPleaseStop= false;
 	
 	/** Internal use only
 	 */
 	public void addListener(RunListener listener) {
-		fListeners.add(listener);
+		addListener(listener, TestEvent.handledBy(listener));
+	}
+
+	/**
+	 * Adds a listener that is told about the start and end of the run, and
+	 * about the per-test {@code events}, but not about any other per-test
+	 * events
+	 */
+	public void addListener(RunListener listener, EnumSet<TestEvent> events) {
+		add(wrapIfNotThreadSafe(listener), events, false);
 	}
 
 	/** Internal use only
 	 */
 	public void removeListener(RunListener listener) {
-		fListeners.remove(listener);
-    }
+		remove(listener);
+	}
 
-	private abstract class SafeNotifier {
-		void run() {
-			synchronized (fListeners) {
-				for (Iterator<RunListener> all= fListeners.iterator(); all.hasNext();)
-					try {
-						notifyListener(all.next());
-					} catch (Exception e) {
-						all.remove(); // Remove the offending listener first to avoid an infinite loop
-						fireTestFailure(new Failure(Description.TEST_MECHANISM, e));
+	// Listeners are copied on write, so that firing an event needs neither a
+	// lock nor an iterator
+	private synchronized void add(RunListener listener, EnumSet<TestEvent> events, boolean first) {
+		fListeners= with(fListeners, listener, first);
+		RunListener[][] subscribers= fSubscribers.clone();
+		for (TestEvent each : events)
+			subscribers[each.ordinal()]= with(subscribers[each.ordinal()], listener, first);
+		fSubscribers= subscribers;
+	}
+
+	/**
+	 * Removes {@code listener}, which is either one that was added, or the
+	 * wrapper that was added for it
+	 */
+	private synchronized void remove(RunListener listener) {
+		fListeners= without(fListeners, listener);
+		RunListener[][] subscribers= fSubscribers.clone();
+		for (int i= 0; i < subscribers.length; i++)
+			subscribers[i]= without(subscribers[i], listener);
+		fSubscribers= subscribers;
+	}
+
+	private static RunListener[] with(RunListener[] listeners, RunListener listener, boolean first) {
+		RunListener[] results= new RunListener[listeners.length + 1];
+		System.arraycopy(listeners, 0, results, first ? 1 : 0, listeners.length);
+		results[first ? 0 : listeners.length]= listener;
+		return results;
+	}
+
+	private static RunListener[] without(RunListener[] listeners, RunListener listener) {
+		for (int i= 0; i < listeners.length; i++)
+			if (listeners[i] == listener || added(listeners[i]).equals(listener)) {
+				RunListener[] results= new RunListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, results, 0, i);
+				System.arraycopy(listeners, i + 1, results, i, results.length - i);
+				return results;
+			}
+		return listeners;
+	}
+
+	/**
+	 * Listeners that don't say they are {@link RunListener.ThreadSafe} are
+	 * called by one thread at a time, as they always were, each under a lock
+	 * of its own.
+	 */
+	private static RunListener wrapIfNotThreadSafe(RunListener listener) {
+		return listener.getClass().isAnnotationPresent(RunListener.ThreadSafe.class) ?
+				listener : new SynchronizedRunListener(listener);
+	}
+
+	/**
+	 * @return the listener that was added, for {@code each} of the listeners
+	 *         that are called
+	 */
+	private static RunListener added(RunListener each) {
+		return each instanceof SynchronizedRunListener ?
+				((SynchronizedRunListener) each).getListener() : each;
+	}
+
+	/**
+	 * Adds a listener that receives test events in batches
+	 */
+	public void addBatchListener(BatchRunListener listener) {
+		fBatchListeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener added by {@link #addBatchListener(BatchRunListener)}
+	 */
+	public void removeBatchListener(BatchRunListener listener) {
+		fBatchListeners.remove(listener);
+	}
+
+	/**
+	 * Delivers a batch once it holds {@code maxEvents} events, or once its
+	 * oldest event is {@code maxDelayMillis} old when another event arrives.
+	 * The defaults are 512 events and 100 milliseconds.
+	 */
+	public void setBatchLimits(int maxEvents, long maxDelayMillis) {
+		fBatcher.setLimits(maxEvents, maxDelayMillis);
+	}
+
+	/**
+	 * Returns a {@link BatchRunListener} that passes each event of each batch
+	 * on to {@code listener}, one batch at a time, so that an existing
+	 * listener (or {@link Result#createListener()}) can be fed from batches.
+	 */
+	public static BatchRunListener fromBatches(final RunListener listener) {
+		return new BatchRunListener() {
+			@SuppressWarnings("deprecation")
+			@Override
+			public void testRunStarted(Plan plan) throws Exception {
+				listener.testRunStarted(plan);
+				listener.testRunStarted(plan.getDescription());
+			}
+
+			@Override
+			public void testsDiscovered(Plan plan) throws Exception {
+				listener.testsDiscovered(plan);
+			}
+
+			@Override
+			public void testEvents(EventBatch batch) throws Exception {
+				// in the order the events were fired, so that each test's
+				// events pair up as they did
+				int started= 0, ignored= 0, failed= 0, assumed= 0, finished= 0;
+				for (TestEvent each : batch.getOrder())
+					switch (each) {
+					case STARTED:
+						listener.testStarted(batch.getStarted()[started++]);
+						break;
+					case IGNORED:
+						listener.testIgnored(batch.getIgnored()[ignored++]);
+						break;
+					case FAILED:
+						listener.testFailure(batch.getFailures()[failed++]);
+						break;
+					case ASSUMPTION_FAILED:
+						listener.testAssumptionFailure(batch
+								.getAssumptionFailures()[assumed++]);
+						break;
+					case FINISHED:
+						listener.testFinished(batch.getFinished()[finished++]);
+						break;
 					}
 			}
+
+			@Override
+			public void testRunFinished(Result result) throws Exception {
+				listener.testRunFinished(result);
+			}
+		};
+	}
+
+	private boolean isBatching() {
+		return !fBatchListeners.isEmpty();
+	}
+
+	private void deliverBatch() {
+		synchronized (fBatchDelivery) {
+			// a listener that fails while receiving a batch must not get the
+			// batch with its own failure before the others get this one
+			if (fDeliveringBatch)
+				return;
+			fDeliveringBatch= true;
+			try {
+				EventBatch batch= fBatcher.take();
+				if (batch != null)
+					new SafeBatchNotifier() {
+						@Override
+						protected void notifyListener(BatchRunListener each,
+								EventBatch batch) throws Exception {
+							each.testEvents(batch);
+						}
+					}.run(batch);
+			} finally {
+				fDeliveringBatch= false;
+			}
+		}
+	}
+
+	private abstract class SafeBatchNotifier {
+		void run(EventBatch batch) {
+			for (BatchRunListener each : fBatchListeners)
+				try {
+					notifyListener(each, batch);
+				} catch (Exception e) {
+					fBatchListeners.remove(each);
+					fireTestFailure(new Failure(Description.TEST_MECHANISM, e));
+				}
+		}
+
+		abstract protected void notifyListener(BatchRunListener each,
+				EventBatch batch) throws Exception;
+	}
+
+	private abstract class SafeNotifier {
+		void run() {
+			// iterates over a snapshot, so events don't wait for each other
+			for (RunListener each : fListeners)
+				try {
+					notifyListener(each);
+				} catch (Exception e) {
+					remove(each); // Remove the offending listener first to avoid an infinite loop
+					fireTestFailure(new Failure(Description.TEST_MECHANISM, e));
+				}
 		}
 		
 		abstract protected void notifyListener(RunListener each) throws Exception;
 	}
+
+	private void fire(TestEvent event, Object argument) {
+		// one shared TestEvent per kind of event: firing allocates nothing
+		for (RunListener each : fSubscribers[event.ordinal()])
+			try {
+				event.notifyListener(each, argument);
+			} catch (Exception e) {
+				remove(each); // Remove the offending listener first to avoid an infinite loop
+				fireTestFailure(new Failure(Description.TEST_MECHANISM, e));
+			}
+	}
 	
 	/**
 	 * Do not invoke. 
@@ -62,6 +261,14 @@ public class RunNotifier {
 				each.testRunStarted(plan.getDescription());
 			};
 		}.run();
+		if (isBatching())
+			new SafeBatchNotifier() {
+				@Override
+				protected void notifyListener(BatchRunListener each,
+						EventBatch batch) throws Exception {
+					each.testRunStarted(plan);
+				}
+			}.run(null);
 	}
 	
 	/**
@@ -77,13 +284,58 @@ public class RunNotifier {
 				each.testRunStarted(description);
 			};
 		}.run();
+		if (isBatching())
+			new SafeBatchNotifier() {
+				@Override
+				protected void notifyListener(BatchRunListener each,
+						EventBatch batch) throws Exception {
+					each.testRunStarted(Plan.fromDescription(description));
+				}
+			}.run(null);
 	}
 	
 	
+	/**
+	 * Invoke to tell listeners that the tests of {@code plan} joined the run,
+	 * before any of them starts.
+	 */
+	public void fireTestsDiscovered(final Plan plan) {
+		new SafeNotifier() {
+			@Override
+			protected void notifyListener(RunListener each) throws Exception {
+				each.testsDiscovered(plan);
+			};
+		}.run();
+		if (isBatching())
+			// not while a batch is being delivered: batch listeners are
+			// called one at a time
+			synchronized (fBatchDelivery) {
+				// the events of classes discovered earlier come first
+				deliverBatch();
+				new SafeBatchNotifier() {
+					@Override
+					protected void notifyListener(BatchRunListener each,
+							EventBatch batch) throws Exception {
+						each.testsDiscovered(plan);
+					}
+				}.run(null);
+			}
+	}
+	
 	/**
 	 * Do not invoke.
 	 */
 	public void fireTestRunFinished(final Result result) {
+		if (isBatching()) {
+			deliverBatch();
+			new SafeBatchNotifier() {
+				@Override
+				protected void notifyListener(BatchRunListener each,
+						EventBatch batch) throws Exception {
+					each.testRunFinished(result);
+				}
+			}.run(null);
+		}
 		new SafeNotifier() {
 			@Override
 			protected void notifyListener(RunListener each) throws Exception {
@@ -97,28 +349,22 @@ public class RunNotifier {
 	 * @param description the description of the atomic test (generally a class and method name)
 	 * @throws StoppedByUserException thrown if a user has requested that the test run stop
 	 */
-	public void fireTestStarted(final Description description) throws StoppedByUserException {
+	public void fireTestStarted(Description description) throws StoppedByUserException {
 		if (fPleaseStop)
 			throw new StoppedByUserException();
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testStarted(description);
-			};
-		}.run();
+		fire(TestEvent.STARTED, description);
+		if (isBatching() && fBatcher.started(description))
+			deliverBatch();
 	}
 
 	/**
 	 * Invoke to tell listeners that an atomic test failed.
 	 * @param failure the description of the test that failed and the exception thrown
 	 */
-	public void fireTestFailure(final Failure failure) {
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testFailure(failure);
-			};
-		}.run();
+	public void fireTestFailure(Failure failure) {
+		fire(TestEvent.FAILED, failure);
+		if (isBatching() && fBatcher.failed(failure))
+			deliverBatch();
 	}
 
 	/**
@@ -129,26 +375,20 @@ public class RunNotifier {
 	 *            the description of the test that failed and the
 	 *            {@link AssumptionViolatedException} thrown
 	 */
-	public void fireTestAssumptionFailed(final Failure failure) {
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testAssumptionFailure(failure);
-			};
-		}.run();
+	public void fireTestAssumptionFailed(Failure failure) {
+		fire(TestEvent.ASSUMPTION_FAILED, failure);
+		if (isBatching() && fBatcher.assumptionFailed(failure))
+			deliverBatch();
 	}
 
 	/**
 	 * Invoke to tell listeners that an atomic test was ignored.
 	 * @param description the description of the ignored test
 	 */
-	public void fireTestIgnored(final Description description) {
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testIgnored(description);
-			}
-		}.run();
+	public void fireTestIgnored(Description description) {
+		fire(TestEvent.IGNORED, description);
+		if (isBatching() && fBatcher.ignored(description))
+			deliverBatch();
 	}
 
 	/**
@@ -157,13 +397,10 @@ public class RunNotifier {
 	 * as listeners are likely to expect them to come in pairs.
 	 * @param description the description of the test that finished
 	 */
-	public void fireTestFinished(final Description description) {
-		new SafeNotifier() {
-			@Override
-			protected void notifyListener(RunListener each) throws Exception {
-				each.testFinished(description);
-			};
-		}.run();
+	public void fireTestFinished(Description description) {
+		fire(TestEvent.FINISHED, description);
+		if (isBatching() && fBatcher.finished(description))
+			deliverBatch();
 	}
 	
 	/**
@@ -180,6 +417,6 @@ public class RunNotifier {
 	 * Internal use only. The Result's listener must be first.
 	 */
 	public void addFirstListener(RunListener listener) {
-		fListeners.add(0, listener);
+		add(wrapIfNotThreadSafe(listener), TestEvent.handledBy(listener), true);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package org.junit.runner.notification;
+
+import org.junit.runner.Description;
+import org.junit.runner.Plan;
+import org.junit.runner.Result;
+
+/**
+ * Calls a {@link RunListener} that is not {@link RunListener.ThreadSafe}
+ * while holding a lock of its own, so that no two threads are in that
+ * listener at the same time. Other listeners, and the {@link RunNotifier},
+ * don't wait for it.
+ */
+final class SynchronizedRunListener extends RunListener {
+	private final RunListener fListener;
+
+	private final Object fMonitor= new Object();
+
+	SynchronizedRunListener(RunListener listener) {
+		fListener= listener;
+	}
+
+	/**
+	 * @return the listener this wraps
+	 */
+	RunListener getListener() {
+		return fListener;
+	}
+
+	@SuppressWarnings("deprecation")
+	@Override
+	public void testRunStarted(Description description) throws Exception {
+		synchronized (fMonitor) {
+			fListener.testRunStarted(description);
+		}
+	}
+
+	@Override
+	public void testRunStarted(Plan plan) throws Exception {
+		synchronized (fMonitor) {
+			fListener.testRunStarted(plan);
+		}
+	}
+
+	@Override
+	public void testsDiscovered(Plan plan) throws Exception {
+		synchronized (fMonitor) {
+			fListener.testsDiscovered(plan);
+		}
+	}
+
+	@Override
+	public void testRunFinished(Result result) throws Exception {
+		synchronized (fMonitor) {
+			fListener.testRunFinished(result);
+		}
+	}
+
+	@Override
+	public void testStarted(Description description) throws Exception {
+		synchronized (fMonitor) {
+			fListener.testStarted(description);
+		}
+	}
+
+	@Override
+	public void testFinished(Description description) throws Exception {
+		synchronized (fMonitor) {
+			fListener.testFinished(description);
+		}
+	}
+
+	@Override
+	public void testFailure(Failure failure) throws Exception {
+		synchronized (fMonitor) {
+			fListener.testFailure(failure);
+		}
+	}
+
+	@Override
+	public void testAssumptionFailure(Failure failure) {
+		synchronized (fMonitor) {
+			fListener.testAssumptionFailure(failure);
+		}
+	}
+
+	@Override
+	public void testIgnored(Description description) throws Exception {
+		synchronized (fMonitor) {
+			fListener.testIgnored(description);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return fListener.toString() + " (with synchronization wrapper)";
+	}
+}
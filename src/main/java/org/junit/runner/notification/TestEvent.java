@@ -0,0 +1,78 @@
+package org.junit.runner.notification;
+
+import java.util.EnumSet;
+
+import org.junit.runner.Description;
+
+/**
+ * The events that happen to single tests. A {@link RunListener} is only
+ * called for the events it subscribed to in
+ * {@link RunNotifier#addListener(RunListener, EnumSet)}, or, when added with
+ * {@link RunNotifier#addListener(RunListener)}, for those whose methods it
+ * overrides: events that no listener cares about cost nothing.
+ */
+public enum TestEvent {
+	STARTED("testStarted", Description.class) {
+		@Override
+		void notifyListener(RunListener each, Object argument) throws Exception {
+			each.testStarted((Description) argument);
+		}
+	},
+	FAILED("testFailure", Failure.class) {
+		@Override
+		void notifyListener(RunListener each, Object argument) throws Exception {
+			each.testFailure((Failure) argument);
+		}
+	},
+	ASSUMPTION_FAILED("testAssumptionFailure", Failure.class) {
+		@Override
+		void notifyListener(RunListener each, Object argument) throws Exception {
+			each.testAssumptionFailure((Failure) argument);
+		}
+	},
+	IGNORED("testIgnored", Description.class) {
+		@Override
+		void notifyListener(RunListener each, Object argument) throws Exception {
+			each.testIgnored((Description) argument);
+		}
+	},
+	FINISHED("testFinished", Description.class) {
+		@Override
+		void notifyListener(RunListener each, Object argument) throws Exception {
+			each.testFinished((Description) argument);
+		}
+	};
+
+	private final String fMethodName;
+
+	private final Class<?> fParameterType;
+
+	private TestEvent(String methodName, Class<?> parameterType) {
+		fMethodName= methodName;
+		fParameterType= parameterType;
+	}
+
+	abstract void notifyListener(RunListener each, Object argument) throws Exception;
+
+	/**
+	 * @return the events whose {@link RunListener} methods the class of
+	 *         {@code listener} overrides
+	 */
+	public static EnumSet<TestEvent> handledBy(RunListener listener) {
+		EnumSet<TestEvent> events= EnumSet.noneOf(TestEvent.class);
+		for (TestEvent each : values())
+			if (each.isHandledBy(listener.getClass()))
+				events.add(each);
+		return events;
+	}
+
+	private boolean isHandledBy(Class<?> type) {
+		try {
+			return type.getMethod(fMethodName, fParameterType)
+					.getDeclaringClass() != RunListener.class;
+		} catch (Exception e) {
+			// can't tell: better call it in vain than miss the event
+			return true;
+		}
+	}
+}
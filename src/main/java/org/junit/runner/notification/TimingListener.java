@@ -0,0 +1,217 @@
+package org.junit.runner.notification;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.runner.Result;
+import org.junit.runner.Result.RunTime;
+
+/**
+ * Keeps a {@link LatencyHistogram} of test durations for each test class, and
+ * one for the whole run, from the durations that the run's {@link Result}
+ * recorded, once the run is finished: it adds nothing to the tests
+ * themselves. If it was given a file, it writes the p50, p95, p99
+ * and maximum durations, and the number of slow tests, to
+ * <code><em>file</em>.json</code> and, in Prometheus' text format, to
+ * <code><em>file</em>.prom</code> once the run is finished. From the command
+ * line: <code>java org.junit.runner.JUnitCore --timing=<em>file</em> ...</code>
+ */
+@RunListener.ThreadSafe
+public class TimingListener extends RunListener {
+	private static final double[] PERCENTILES= { 50, 95, 99 };
+
+	private final File fFile;
+
+	private long fSlowMillis= 1000;
+
+	private LatencyHistogram fRun= new LatencyHistogram(fSlowMillis);
+
+	private final ConcurrentMap<String, LatencyHistogram> fClasses= new ConcurrentHashMap<String, LatencyHistogram>();
+
+	/**
+	 * Creates a listener that only keeps the histograms
+	 */
+	public TimingListener() {
+		this(null);
+	}
+
+	/**
+	 * Creates a listener that writes the histograms' summaries to
+	 * <code><em>file</em>.json</code> and <code><em>file</em>.prom</code>
+	 */
+	public TimingListener(File file) {
+		fFile= file;
+	}
+
+	/**
+	 * Counts tests that take longer than {@code millis} milliseconds as slow.
+	 * The default is one second.
+	 *
+	 * @return this listener
+	 */
+	public TimingListener withSlowThreshold(long millis) {
+		fSlowMillis= millis;
+		fRun= new LatencyHistogram(millis);
+		fClasses.clear();
+		return this;
+	}
+
+	/**
+	 * @return the durations of all the tests of the run
+	 */
+	public LatencyHistogram getRunHistogram() {
+		return fRun;
+	}
+
+	/**
+	 * @return the durations of the tests of each class, by class name
+	 */
+	public Map<String, LatencyHistogram> getClassHistograms() {
+		return new TreeMap<String, LatencyHistogram>(fClasses);
+	}
+
+	private LatencyHistogram classHistogram(String className) {
+		LatencyHistogram histogram= fClasses.get(className);
+		if (histogram != null)
+			return histogram;
+		histogram= new LatencyHistogram(fSlowMillis);
+		LatencyHistogram existing= fClasses.putIfAbsent(className, histogram);
+		return existing == null ? histogram : existing;
+	}
+
+	@Override
+	public void testRunFinished(Result result) throws Exception {
+		// a sample for each run of a test, even of tests with equal
+		// descriptions
+		for (RunTime each : result.getRunTimes()) {
+			fRun.record(each.getNanos());
+			classHistogram(each.getDescription().getClassName()).record(
+					each.getNanos());
+		}
+		if (fFile == null)
+			return;
+		File directory= fFile.getAbsoluteFile().getParentFile();
+		if (directory != null)
+			directory.mkdirs();
+		PrintWriter json= open(".json");
+		try {
+			writeJson(json);
+		} finally {
+			json.close();
+		}
+		PrintWriter prometheus= open(".prom");
+		try {
+			writePrometheus(prometheus);
+		} finally {
+			prometheus.close();
+		}
+	}
+
+	private PrintWriter open(String extension) throws IOException {
+		return new PrintWriter(new OutputStreamWriter(new FileOutputStream(
+				fFile.getPath() + extension), "UTF-8"));
+	}
+
+	/**
+	 * Writes the summaries as JSON, with durations in milliseconds
+	 */
+	public void writeJson(PrintWriter writer) {
+		writer.println("{");
+		writer.print("  \"run\": ");
+		writeJson(writer, fRun);
+		writer.println(",");
+		writer.print("  \"classes\": {");
+		String separator= "\n";
+		for (Map.Entry<String, LatencyHistogram> each : getClassHistograms()
+				.entrySet()) {
+			writer.print(separator);
+			writer.print("    \"" + jsonEscape(each.getKey()) + "\": ");
+			writeJson(writer, each.getValue());
+			separator= ",\n";
+		}
+		writer.println("\n  }");
+		writer.println("}");
+	}
+
+	private void writeJson(PrintWriter writer, LatencyHistogram histogram) {
+		writer.print("{\"count\": " + histogram.getCount());
+		for (double each : PERCENTILES)
+			writer.print(", \"p" + (int) each + "\": "
+					+ millis(histogram.getPercentileNanos(each)));
+		writer.print(", \"max\": " + millis(histogram.getMaxNanos()));
+		writer.print(", \"total\": " + millis(histogram.getTotalNanos()));
+		writer.print(", \"slow\": " + histogram.getSlowCount() + "}");
+	}
+
+	/**
+	 * Writes the summaries in Prometheus' text format, with durations in
+	 * seconds
+	 */
+	public void writePrometheus(PrintWriter writer) {
+		writer.println("# HELP junit_test_duration_seconds Durations of the tests of the run, and of each class.");
+		writer.println("# TYPE junit_test_duration_seconds summary");
+		writePrometheus(writer, "", fRun);
+		for (Map.Entry<String, LatencyHistogram> each : getClassHistograms()
+				.entrySet())
+			writePrometheus(writer, "class=\""
+					+ prometheusEscape(each.getKey()) + "\",", each.getValue());
+		writer.println("# HELP junit_slow_tests Number of tests slower than "
+				+ fSlowMillis + "ms.");
+		writer.println("# TYPE junit_slow_tests gauge");
+		writer.println("junit_slow_tests " + fRun.getSlowCount());
+		for (Map.Entry<String, LatencyHistogram> each : getClassHistograms()
+				.entrySet())
+			writer.println("junit_slow_tests{class=\""
+					+ prometheusEscape(each.getKey()) + "\"} "
+					+ each.getValue().getSlowCount());
+	}
+
+	private void writePrometheus(PrintWriter writer, String labels,
+			LatencyHistogram histogram) {
+		for (double each : PERCENTILES)
+			writer.println("junit_test_duration_seconds{" + labels
+					+ "quantile=\"" + each / 100 + "\"} "
+					+ seconds(histogram.getPercentileNanos(each)));
+		writer.println("junit_test_duration_seconds{" + labels
+				+ "quantile=\"1.0\"} " + seconds(histogram.getMaxNanos()));
+		String total= labels.length() == 0 ? "" : "{"
+				+ labels.substring(0, labels.length() - 1) + "}";
+		writer.println("junit_test_duration_seconds_sum" + total + " "
+				+ seconds(histogram.getTotalNanos()));
+		writer.println("junit_test_duration_seconds_count" + total + " "
+				+ histogram.getCount());
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.US, "%.3f", nanos / 1e6);
+	}
+
+	private static String seconds(long nanos) {
+		return String.format(Locale.US, "%.6f", nanos / 1e9);
+	}
+
+	private static String jsonEscape(String string) {
+		StringBuilder builder= new StringBuilder();
+		for (char each : string.toCharArray())
+			if (each == '"' || each == '\\')
+				builder.append('\\').append(each);
+			else if (each < 0x20)
+				builder.append(String.format("\\u%04x", (int) each));
+			else
+				builder.append(each);
+		return builder.toString();
+	}
+
+	private static String prometheusEscape(String string) {
+		return string.replace("\\", "\\\\").replace("\"", "\\\"").replace(
+				"\n", "\\n");
+	}
+}
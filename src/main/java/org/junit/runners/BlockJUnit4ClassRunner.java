@@ -1,8 +1,11 @@
 package org.junit.runners;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.junit.After;
 import org.junit.Before;
@@ -13,7 +16,6 @@ import org.junit.Test.None;
 import org.junit.internal.AssumptionViolatedException;
 import org.junit.internal.runners.model.EachTestNotifier;
 import org.junit.internal.runners.model.MultipleFailureException;
-import org.junit.internal.runners.model.ReflectiveCallable;
 import org.junit.internal.runners.statements.ExpectException;
 import org.junit.internal.runners.statements.Fail;
 import org.junit.internal.runners.statements.FailOnTimeout;
@@ -47,6 +49,7 @@ import org.junit.runners.model.Statement;
  * </ul>
  */
 public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
+	private final ConcurrentMap<FrameworkMethod, Description> fMethodDescriptions= new ConcurrentHashMap<FrameworkMethod, Description>();
 
 	/**
 	 * Creates a BlockJUnit4ClassRunner to run {@code klass}
@@ -64,37 +67,41 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
 
 	@Override
 	protected void runChild(FrameworkMethod method, RunNotifier notifier) {
-		EachTestNotifier eachNotifier= makeNotifier(method, notifier);
+		Description description= describeChild(method);
 		if (method.getAnnotation(Ignore.class) != null) {
-			runIgnored(eachNotifier);
+			notifier.fireTestIgnored(description);
 		} else {
-			runNotIgnored(method, eachNotifier);
+			runNotIgnored(method, description, notifier);
 		}
 	}
 
+	// Only a failing test gets an EachTestNotifier: a passing test allocates
+	// nothing here
 	private void runNotIgnored(FrameworkMethod method,
-			EachTestNotifier eachNotifier) {
-		eachNotifier.fireTestStarted();
+			Description description, RunNotifier notifier) {
+		notifier.fireTestStarted(description);
 		try {
 			methodBlock(method).evaluate();
 		} catch (AssumptionViolatedException e) {
-			eachNotifier.addFailedAssumption(e);
+			new EachTestNotifier(notifier, description).addFailedAssumption(e);
 		} catch (Throwable e) {
-			eachNotifier.addFailure(e);
+			new EachTestNotifier(notifier, description).addFailure(e);
 		} finally {
-			eachNotifier.fireTestFinished();
+			notifier.fireTestFinished(description);
 		}
 	}
 
-	private void runIgnored(EachTestNotifier eachNotifier) {
-		eachNotifier.fireTestIgnored();
-	}
-
 	@Override
 	protected Description describeChild(FrameworkMethod method) {
-		Description description= Description.createTestDescription(
-				getTestClass().getJavaClass(), testName(method), method
-						.getAnnotations());
+		Description description= fMethodDescriptions.get(method);
+		if (description == null) {
+			description= Description.createTestDescription(getTestClass()
+					.getJavaClass(), testName(method), method.getAnnotations());
+			Description existing= fMethodDescriptions.putIfAbsent(method,
+					description);
+			if (existing != null)
+				description= existing;
+		}
 		description.setParent(getDescription());
 		return description;
 	}
@@ -255,12 +262,9 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
 	protected Statement methodBlock(FrameworkMethod method) {
 		Object test;
 		try {
-			test= new ReflectiveCallable() {
-				@Override
-				protected Object runReflectiveCall() throws Throwable {
-					return createTest();
-				}
-			}.run();
+			test= createTest();
+		} catch (InvocationTargetException e) {
+			return new Fail(e.getTargetException());
 		} catch (Throwable e) {
 			return new Fail(e);
 		}
@@ -351,6 +355,8 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
 
 	private Statement withRules(FrameworkMethod method, Object target,
 			Statement statement) {
+		if (getTestClass().getAnnotatedFields(Rule.class).isEmpty())
+			return statement;
 		Statement result= statement;
 		for (MethodRule each : getTestClass().getAnnotatedFieldValues(target,
 				Rule.class, MethodRule.class))
@@ -358,12 +364,6 @@ public class BlockJUnit4ClassRunner extends ParentRunner<FrameworkMethod> {
 		return result;
 	}
 
-	private EachTestNotifier makeNotifier(FrameworkMethod method,
-			RunNotifier notifier) {
-		Description description= describeChild(method);
-		return new EachTestNotifier(notifier, description);
-	}
-
 	private Class<? extends Throwable> getExpectedException(Test annotation) {
 		if (annotation == null || annotation.expected() == None.class)
 			return null;
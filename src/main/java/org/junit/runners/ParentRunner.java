@@ -7,14 +7,17 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.internal.AssumptionViolatedException;
 import org.junit.internal.runners.model.EachTestNotifier;
 import org.junit.internal.runners.model.MultipleFailureException;
+import org.junit.internal.runners.statements.PreparedBefores;
 import org.junit.internal.runners.statements.RunAfters;
 import org.junit.internal.runners.statements.RunBefores;
+import org.junit.runner.Describable;
 import org.junit.runner.Description;
 import org.junit.runner.Runner;
 import org.junit.runner.manipulation.Filter;
@@ -49,7 +52,15 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 
 	private List<T> fCachedChildren= null;
 
-	private RunnerScheduler fScheduler= new RunnerScheduler() {
+	private PreparedBefores fPreparedBefores= null;
+
+	private static final Statement NOTHING= new Statement() {
+		@Override
+		public void evaluate() {
+		}
+	};
+
+	private static final RunnerScheduler SERIAL= new RunnerScheduler() {
 		public void schedule(Runnable childStatement) {
 			childStatement.run();
 		}
@@ -59,13 +70,15 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 		}
 	};
 
+	private RunnerScheduler fScheduler= SERIAL;
+
 	/**
 	 * Constructs a new {@code ParentRunner} that will run {@code @TestClass}
 	 * 
 	 * @throws InitializationError
 	 */
 	protected ParentRunner(Class<?> testClass) throws InitializationError {
-		fTestClass= new TestClass(testClass);
+		fTestClass= TestClass.forClass(testClass);
 		validate();
 	}
 
@@ -161,6 +174,9 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 	 * ; if any throws an Exception, stop execution and pass the exception on.
 	 */
 	protected Statement withBeforeClasses(Statement statement) {
+		PreparedBefores prepared= takePreparedBefores();
+		if (prepared != null)
+			return prepared.awaiting(statement);
 		List<FrameworkMethod> befores= getTestClass().getAnnotatedMethods(
 				BeforeClass.class);
 		return befores.isEmpty() ? statement : new RunBefores(statement,
@@ -196,13 +212,40 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 	}
 
 	private void runChildren(final RunNotifier notifier) {
-		for (final T each : getCachedChildren())
-			fScheduler.schedule(new Runnable() {
-				public void run() {
-					ParentRunner.this.runChild(each, notifier);
-				}
-			});
-		fScheduler.finished();
+		RunnerScheduler scheduler= fScheduler;
+		if (scheduler == SERIAL) {
+			// no one looks at the child statements: don't make any
+			for (T each : getCachedChildren())
+				runChild(each, notifier);
+			return;
+		}
+		for (T each : getCachedChildren())
+			scheduler.schedule(new ChildStatement(each, notifier));
+		scheduler.finished();
+	}
+
+	/**
+	 * The statement handed to the {@link RunnerScheduler} for each child. It
+	 * can describe the child, so that schedulers may take its annotations into
+	 * account.
+	 */
+	private class ChildStatement implements Runnable, Describable {
+		private final T fChild;
+
+		private final RunNotifier fNotifier;
+
+		ChildStatement(T child, RunNotifier notifier) {
+			fChild= child;
+			fNotifier= notifier;
+		}
+
+		public void run() {
+			runChild(fChild, fNotifier);
+		}
+
+		public Description getDescription() {
+			return describeChild(fChild);
+		}
 	}
 
 	/**
@@ -231,13 +274,24 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 	public Description getDescription() {
 		if (fDescription == null) {
 			// TODO: extract createDescription?
-			fDescription= Description.createSuiteDescription(getName(), fTestClass.getAnnotations());
+			fDescription= Description.createSuiteDescription(getName(), uniqueId(), fTestClass.getAnnotations());
 			for (T child : getCachedChildren())
 				fDescription.addChild(describeChild(child));
 		}
 		return fDescription;
 	}
 
+	/**
+	 * A runner named other than its class, like each of the parameter sets of
+	 * {@link Parameterized}, is told apart by its class
+	 */
+	private String uniqueId() {
+		String name= getName();
+		if (fTestClass.getJavaClass() == null || name.equals(fTestClass.getName()))
+			return name;
+		return fTestClass.getName() + name;
+	}
+
 	@Override
 	public void run(final RunNotifier notifier) {
 		EachTestNotifier testNotifier= new EachTestNotifier(notifier,
@@ -296,8 +350,10 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 	}
 
 	private List<T> getCachedChildren() {
+		// filtering and sorting change this list, and getChildren() may
+		// return a list shared with other runners, such as TestClass's
 		if (fCachedChildren == null)
-			fCachedChildren= getChildren();
+			fCachedChildren= new ArrayList<T>(getChildren());
 		return fCachedChildren;
 	}
 
@@ -309,6 +365,50 @@ public abstract class ParentRunner<T> extends Runner implements Filterable,
 		};
 	}
 
+	/**
+	 * Starts the {@code @BeforeClass} methods of this class on
+	 * {@code executor}, so that they can overlap with the tests of other
+	 * classes. The next {@link #run(RunNotifier)} waits for them instead of
+	 * running them, and reports their failures as usual. If this runner is not
+	 * run after all, call {@link #discardPreparedClass()}. Highly experimental
+	 * feature that may change.
+	 */
+	public synchronized void prepareClass(Executor executor) {
+		if (fPreparedBefores != null)
+			return;
+		List<FrameworkMethod> befores= getTestClass().getAnnotatedMethods(
+				BeforeClass.class);
+		if (befores.isEmpty())
+			return;
+		fPreparedBefores= new PreparedBefores(new RunBefores(NOTHING, befores,
+				null));
+		executor.execute(fPreparedBefores);
+	}
+
+	/**
+	 * Undoes {@link #prepareClass(Executor)} for a runner that will not be run:
+	 * if the {@code @BeforeClass} methods have started, waits for them and
+	 * then runs the {@code @AfterClass} methods. Does nothing if the class has
+	 * not been prepared, or has been run since. Highly experimental feature
+	 * that may change.
+	 */
+	public void discardPreparedClass() {
+		PreparedBefores prepared= takePreparedBefores();
+		if (prepared == null || prepared.cancel())
+			return;
+		try {
+			withAfterClasses(prepared.awaiting(NOTHING)).evaluate();
+		} catch (Throwable e) {
+			// this class is not part of the run, so there is no one to tell
+		}
+	}
+
+	private synchronized PreparedBefores takePreparedBefores() {
+		PreparedBefores prepared= fPreparedBefores;
+		fPreparedBefores= null;
+		return prepared;
+	}
+
 	/**
 	 * Sets a scheduler that determines the order and parallelization of
 	 * children. Highly experimental feature that may change.
@@ -6,8 +6,6 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.List;
 
-import org.junit.internal.runners.model.ReflectiveCallable;
-
 /**
  * Represents a method on a test class to be invoked at the appropriate point in
  * test execution. These methods are usually marked with an annotation (such as
@@ -36,14 +34,13 @@ public class FrameworkMethod extends FrameworkMember<FrameworkMethod> {
 	 * parameters {@code params}. {@link InvocationTargetException}s thrown are
 	 * unwrapped, and their causes rethrown.
 	 */
-	public Object invokeExplosively(final Object target, final Object... params)
+	public Object invokeExplosively(Object target, Object... params)
 			throws Throwable {
-		return new ReflectiveCallable() {
-			@Override
-			protected Object runReflectiveCall() throws Throwable {
-				return fMethod.invoke(target, params);
-			}
-		}.run();
+		try {
+			return fMethod.invoke(target, params);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
 	}
 
 	/**
@@ -8,7 +8,9 @@ package org.junit.runners.model;
  */
 public interface RunnerScheduler {
 	/**
-	 * Schedule a child statement to run
+	 * Schedule a child statement to run. When called by a
+	 * {@link org.junit.runners.ParentRunner}, {@code childStatement} is also a
+	 * {@link org.junit.runner.Describable} that describes the child.
 	 */
 	void schedule(Runnable childStatement);
 	
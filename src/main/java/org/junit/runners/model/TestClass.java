@@ -1,33 +1,65 @@
 package org.junit.runners.model;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
 
 /**
- * Wraps a class to be run, providing method validation and annotation searching
+ * Wraps a class to be run, providing method validation and annotation searching.
+ * A {@code TestClass} does not change once it is built, so it can be shared
+ * between runners and threads: see {@link #forClass(Class)}.
  */
 public class TestClass {
+	// weakly keyed, and weak values, since a TestClass refers to its class:
+	// entries go away once no runner uses them, and never keep a class loaded
+	private static final Map<Class<?>, WeakReference<TestClass>> SHARED= Collections
+			.synchronizedMap(new WeakHashMap<Class<?>, WeakReference<TestClass>>());
+
+	/**
+	 * Returns a {@code TestClass} wrapping {@code klass}, which is shared with
+	 * every other caller that asks for {@code klass} while it is in use: the
+	 * class is scanned only once, however many runners run it.
+	 */
+	public static TestClass forClass(Class<?> klass) {
+		if (klass == null)
+			return new TestClass(null);
+		WeakReference<TestClass> shared= SHARED.get(klass);
+		TestClass result= shared == null ? null : shared.get();
+		if (result == null) {
+			// scanned outside the lock: two threads may both scan, which is
+			// harmless, and neither waits for the other
+			result= new TestClass(klass);
+			SHARED.put(klass, new WeakReference<TestClass>(result));
+		}
+		return result;
+	}
+
 	private final Class<?> fClass;
 
-	private Map<Class<?>, List<FrameworkMethod>> fMethodsForAnnotations= new HashMap<Class<?>, List<FrameworkMethod>>();
+	private final Map<Class<?>, List<FrameworkMethod>> fMethodsForAnnotations;
 
-	private Map<Class<?>, List<FrameworkField>> fFieldsForAnnotations= new HashMap<Class<?>, List<FrameworkField>>();
+	private final Map<Class<?>, List<FrameworkField>> fFieldsForAnnotations;
+
+	private volatile Constructor<?>[] fConstructors= null;
 
 	/**
 	 * Creates a {@code TestClass} wrapping {@code klass}. Each time this
 	 * constructor executes, the class is scanned for annotations, which can be
 	 * an expensive process (we hope in future JDK's it will not be.) Therefore,
-	 * try to share instances of {@code TestClass} where possible.
+	 * try to share instances of {@code TestClass} where possible, by getting
+	 * them from {@link #forClass(Class)}.
 	 */
 	public TestClass(Class<?> klass) {
 		fClass= klass;
@@ -35,21 +67,34 @@ public class TestClass {
 			throw new IllegalArgumentException(
 					"Test class can only have one constructor");
 
+		Map<Class<?>, List<FrameworkMethod>> methods= new HashMap<Class<?>, List<FrameworkMethod>>();
+		Map<Class<?>, List<FrameworkField>> fields= new HashMap<Class<?>, List<FrameworkField>>();
 		for (Class<?> eachClass : getSuperClasses(fClass)) {
 			for (Method eachMethod : eachClass.getDeclaredMethods())
-				addToAnnotationLists(new FrameworkMethod(eachMethod),
-						fMethodsForAnnotations);
+				addToAnnotationLists(new FrameworkMethod(eachMethod), methods);
 			for (Field eachField : eachClass.getDeclaredFields())
-				addToAnnotationLists(new FrameworkField(eachField),
-						fFieldsForAnnotations);
+				addToAnnotationLists(new FrameworkField(eachField), fields);
 		}
+		fMethodsForAnnotations= unmodifiable(methods);
+		fFieldsForAnnotations= unmodifiable(fields);
+	}
+
+	private static <T> Map<Class<?>, List<T>> unmodifiable(
+			Map<Class<?>, List<T>> map) {
+		for (Map.Entry<Class<?>, List<T>> each : map.entrySet())
+			each.setValue(Collections.unmodifiableList(each.getValue()));
+		return map;
 	}
 
 	private <T extends FrameworkMember<T>> void addToAnnotationLists(T member,
 			Map<Class<?>, List<T>> map) {
 		for (Annotation each : member.getAnnotations()) {
 			Class<? extends Annotation> type= each.annotationType();
-			List<T> members= getAnnotatedMembers(map, type);
+			List<T> members= map.get(type);
+			if (members == null) {
+				members= new ArrayList<T>();
+				map.put(type, members);
+			}
 			if (member.isShadowedBy(members))
 				return;
 			if (runsTopToBottom(type))
@@ -61,7 +106,8 @@ public class TestClass {
 
 	/**
 	 * Returns, efficiently, all the non-overridden methods in this class and
-	 * its superclasses that are annotated with {@code annotationClass}.
+	 * its superclasses that are annotated with {@code annotationClass}. The
+	 * list can't be changed.
 	 */
 	public List<FrameworkMethod> getAnnotatedMethods(
 			Class<? extends Annotation> annotationClass) {
@@ -70,7 +116,8 @@ public class TestClass {
 
 	/**
 	 * Returns, efficiently, all the non-overridden fields in this class and its
-	 * superclasses that are annotated with {@code annotationClass}.
+	 * superclasses that are annotated with {@code annotationClass}. The list
+	 * can't be changed.
 	 */
 	public List<FrameworkField> getAnnotatedFields(
 			Class<? extends Annotation> annotationClass) {
@@ -79,9 +126,10 @@ public class TestClass {
 
 	private <T> List<T> getAnnotatedMembers(Map<Class<?>, List<T>> map,
 			Class<? extends Annotation> type) {
-		if (!map.containsKey(type))
-			map.put(type, new ArrayList<T>());
-		return map.get(type);
+		List<T> members= map.get(type);
+		if (members == null)
+			return Collections.emptyList();
+		return members;
 	}
 
 	private boolean runsTopToBottom(Class<? extends Annotation> annotation) {
@@ -121,7 +169,11 @@ public class TestClass {
 	 */
 
 	public Constructor<?> getOnlyConstructor() {
-		Constructor<?>[] constructors= fClass.getConstructors();
+		// Class.getConstructors() copies its result, and tests call this once
+		// per test method
+		Constructor<?>[] constructors= fConstructors;
+		if (constructors == null)
+			fConstructors= constructors= fClass.getConstructors();
 		Assert.assertEquals(1, constructors.length);
 		return constructors[0];
 	}
@@ -10,17 +10,30 @@ import org.junit.tests.assertion.BothTest;
 import org.junit.tests.assertion.EachTest;
 import org.junit.tests.deprecated.JUnit4ClassRunnerTest;
 import org.junit.tests.description.AnnotatedDescriptionTest;
+import org.junit.tests.description.PlanTest;
 import org.junit.tests.description.SuiteDescriptionTest;
 import org.junit.tests.description.TestDescriptionTest;
 import org.junit.tests.experimental.AssumptionTest;
 import org.junit.tests.experimental.AssumptionViolatedExceptionTest;
 import org.junit.tests.experimental.ExperimentalTests;
 import org.junit.tests.experimental.MatcherTest;
+import org.junit.tests.experimental.PrefetchingComputerTest;
 import org.junit.tests.experimental.categories.CategoryTest;
+import org.junit.tests.experimental.discovery.DiscoveryCacheTest;
+import org.junit.tests.experimental.fork.ForkedComputerTest;
+import org.junit.tests.experimental.journal.EventJournalTest;
 import org.junit.tests.experimental.max.JUnit38SortingTest;
+import org.junit.tests.experimental.max.LongestFirstTest;
 import org.junit.tests.experimental.max.MaxStarterTest;
+import org.junit.tests.experimental.parallel.BoundedParallelComputerTest;
+import org.junit.tests.experimental.parallel.AdaptiveConcurrencyTest;
+import org.junit.tests.experimental.parallel.ConcurrencyBudgetTest;
+import org.junit.tests.experimental.parallel.FailFastTest;
 import org.junit.tests.experimental.parallel.ParallelClassTest;
 import org.junit.tests.experimental.parallel.ParallelMethodTest;
+import org.junit.tests.experimental.parallel.ResourceLockTest;
+import org.junit.tests.experimental.parallel.VirtualThreadComputerTest;
+import org.junit.tests.experimental.report.XmlReportListenerTest;
 import org.junit.tests.experimental.rules.ExpectedExceptionRuleTest;
 import org.junit.tests.experimental.rules.ExternalResourceRuleTest;
 import org.junit.tests.experimental.rules.RulesTest;
@@ -38,12 +51,18 @@ import org.junit.tests.junit3compatibility.JUnit38ClassRunnerTest;
 import org.junit.tests.junit3compatibility.OldTestClassAdaptingListenerTest;
 import org.junit.tests.junit3compatibility.OldTests;
 import org.junit.tests.junit3compatibility.SuiteMethodTest;
+import org.junit.tests.listening.AsyncRunListenerTest;
+import org.junit.tests.listening.BatchRunListenerTest;
 import org.junit.tests.listening.ListenerTest;
+import org.junit.tests.listening.NotificationAllocationTest;
+import org.junit.tests.listening.RunNotifierTest;
 import org.junit.tests.listening.RunnerTest;
 import org.junit.tests.listening.TestListenerTest;
 import org.junit.tests.listening.TextListenerTest;
+import org.junit.tests.listening.TimingListenerTest;
 import org.junit.tests.listening.UserStopTest;
 import org.junit.tests.manipulation.FilterableTest;
+import org.junit.tests.manipulation.ShardingTest;
 import org.junit.tests.manipulation.SingleMethodTest;
 import org.junit.tests.manipulation.SortableTest;
 import org.junit.tests.running.classes.EnclosedTest;
@@ -54,7 +73,10 @@ import org.junit.tests.running.classes.SuiteTest;
 import org.junit.tests.running.classes.TestClassTest;
 import org.junit.tests.running.classes.UseSuiteAsASuperclassTest;
 import org.junit.tests.running.core.CommandLineTest;
+import org.junit.tests.running.core.FailureGroupTest;
 import org.junit.tests.running.core.JUnitCoreReturnsCorrectExitCodeTest;
+import org.junit.tests.running.core.ResultTimingTest;
+import org.junit.tests.running.core.StreamingRequestTest;
 import org.junit.tests.running.core.SystemExitTest;
 import org.junit.tests.running.methods.AnnotationTest;
 import org.junit.tests.running.methods.ExpectedTest;
@@ -76,9 +98,14 @@ import org.junit.tests.validation.ValidationTest;
 	AssumptionTest.class,
 	ClassRequestTest.class,
 	ListenerTest.class,
+	NotificationAllocationTest.class,
+	RunNotifierTest.class,
+	AsyncRunListenerTest.class,
+	BatchRunListenerTest.class,
 	FailedConstructionTest.class,
 	TestDescriptionTest.class,
 	SuiteDescriptionTest.class,
+	PlanTest.class,
 	AllTestsTest.class,
 	AnnotationTest.class,
 	AssertionTest.class,
@@ -93,6 +120,7 @@ import org.junit.tests.validation.ValidationTest;
 	TestListenerTest.class,
 	TestMethodTest.class,
 	TextListenerTest.class,
+	TimingListenerTest.class,
 	TimeoutTest.class,
 	EnclosedTest.class,
 	ParameterizedTestMethodTest.class,
@@ -101,9 +129,13 @@ import org.junit.tests.validation.ValidationTest;
 	ValidationTest.class,
 	UserStopTest.class,
 	SortableTest.class,
+	ShardingTest.class,
 	JUnit38ClassRunnerTest.class,
 	SystemExitTest.class,
+	FailureGroupTest.class,
 	JUnitCoreReturnsCorrectExitCodeTest.class,
+	ResultTimingTest.class,
+	StreamingRequestTest.class,
 	InaccessibleBaseClassTest.class,
 	SuiteMethodTest.class,
 	BadlyFormedClassesTest.class,
@@ -118,24 +150,36 @@ import org.junit.tests.validation.ValidationTest;
 	TestClassTest.class,
 	AllMembersSupplierTest.class,
 	MatcherTest.class,
+	PrefetchingComputerTest.class,
 	ObjectContractTest.class,
 	TheoriesPerformanceTest.class,
 	JUnit4ClassRunnerTest.class,
 	UseSuiteAsASuperclassTest.class,
 	FilterableTest.class,
 	MaxStarterTest.class,
+	EventJournalTest.class,
+	DiscoveryCacheTest.class,
+	XmlReportListenerTest.class,
 	JUnit38SortingTest.class,
+	LongestFirstTest.class,
 	RulesTest.class,
 	TimeoutRuleTest.class,
 	ParallelClassTest.class,
 	ParallelMethodTest.class,
+	BoundedParallelComputerTest.class,
+	ConcurrencyBudgetTest.class,
+	FailFastTest.class,
+	AdaptiveConcurrencyTest.class,
+	VirtualThreadComputerTest.class,
+	ResourceLockTest.class,
 	ParentRunnerTest.class,
 	NameRulesTest.class,
 	ExpectedExceptionRuleTest.class,
 	TempFolderRuleTest.class,
 	ExternalResourceRuleTest.class,
 	VerifierRuleTest.class,
-	CategoryTest.class
+	CategoryTest.class,
+	ForkedComputerTest.class
 })
 public class AllTests {
 	public static Test suite() {
@@ -2,11 +2,15 @@ package org.junit.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+
+import java.util.Comparator;
+
 import org.junit.Test;
 import org.junit.runner.Description;
 import org.junit.runner.Request;
 import org.junit.runner.RunWith;
 import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.Sorter;
 import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.ParentRunner;
@@ -34,6 +38,12 @@ public class ParentRunnerTest {
 	public void useChildHarvester() throws InitializationError {
 		log= "";
 		ParentRunner<?> runner= new BlockJUnit4ClassRunner(FruitTest.class);
+		// reflection hands out methods in no particular order
+		runner.sort(new Sorter(new Comparator<Description>() {
+			public int compare(Description o1, Description o2) {
+				return o1.getMethodName().compareTo(o2.getMethodName());
+			}
+		}));
 		runner.setScheduler(new RunnerScheduler() {
 			public void schedule(Runnable childStatement) {
 				log+= "before ";
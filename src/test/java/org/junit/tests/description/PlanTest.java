@@ -0,0 +1,96 @@
+package org.junit.tests.description;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.Plan;
+import org.junit.runner.Request;
+
+public class PlanTest {
+	public static class OneTwo {
+		@Test public void one() {}
+		@Test public void two() {}
+	}
+
+	public static class Three {
+		@Test public void three() {}
+	}
+
+	private final Plan fPlan= Request.classes(OneTwo.class, Three.class).getRunner().getPlan();
+
+	@Test public void childrenAreBuiltOnce() {
+		assertSame(fPlan.getChildren(), fPlan.getChildren());
+		assertSame(fPlan.getChildren().get(0), fPlan.getChildren().get(0));
+	}
+
+	@Test public void countsLeaves() {
+		assertEquals(3, fPlan.getLeafCount());
+		assertEquals(2, fPlan.getChildren().get(0).getLeafCount());
+		assertEquals(1, fPlan.getChildren().get(0).getChildren().get(0).getLeafCount());
+	}
+
+	@Test public void leavesAreInRunningOrder() {
+		List<Plan> leaves= fPlan.getLeaves();
+		assertEquals(3, leaves.size());
+		assertEquals(Description.createTestDescription(OneTwo.class, "one"), leaves.get(0).getDescription());
+		assertEquals(Description.createTestDescription(OneTwo.class, "two"), leaves.get(1).getDescription());
+		assertEquals(Description.createTestDescription(Three.class, "three"), leaves.get(2).getDescription());
+		assertSame(fPlan.getChildren().get(1).getChildren().get(0), leaves.get(2));
+	}
+
+	@Test public void nodesArePreOrder() {
+		List<Plan> nodes= fPlan.getNodes();
+		assertEquals(6, nodes.size());
+		assertSame(fPlan, nodes.get(0));
+		assertSame(fPlan.getChildren().get(0), nodes.get(1));
+		assertSame(fPlan.getLeaves().get(1), nodes.get(3));
+		assertSame(fPlan.getChildren().get(1), nodes.get(4));
+	}
+
+	@Test public void iteratesNodesInTheOrderOfTheList() {
+		Iterator<Plan> iterator= fPlan.depthFirstIterator();
+		for (Plan each : fPlan.getNodes())
+			assertSame(each, iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test public void findsNodesByUniqueId() {
+		Plan three= fPlan.getLeaves().get(2);
+		assertSame(three, fPlan.find(three.getDescription().getUniqueId()));
+		assertSame(fPlan.getChildren().get(0), fPlan.find(OneTwo.class.getName()));
+		assertNull(fPlan.find("no such id"));
+	}
+
+	@Test public void findsNodesByDescription() {
+		Plan found= fPlan.find(Description.createTestDescription(Three.class, "three"));
+		assertSame(fPlan.getLeaves().get(2), found);
+		assertTrue(found.isTest());
+		Plan oneTwo= fPlan.getChildren().get(0);
+		assertSame(oneTwo, fPlan.find(oneTwo.getDescription()));
+		assertNull(fPlan.find(Description.createTestDescription(Three.class, "four")));
+	}
+
+	@Test public void findsEachOfEqualNodesByItsOwnDescription() {
+		Plan plan= Request.classes(OneTwo.class, OneTwo.class).getRunner().getPlan();
+		Plan second= plan.getChildren().get(1);
+		assertSame(second, plan.find(second.getDescription()));
+		Plan secondOne= second.getChildren().get(0);
+		assertSame(secondOne, plan.find(secondOne.getDescription()));
+		// an equal description of another instance finds the first
+		assertSame(plan.getLeaves().get(0), plan.find(Description
+				.createTestDescription(OneTwo.class, "one")));
+	}
+
+	@Test(expected= UnsupportedOperationException.class)
+	public void leavesCannotBeChanged() {
+		fPlan.getLeaves().clear();
+	}
+}
@@ -1,6 +1,11 @@
 package org.junit.tests.description;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
 import org.junit.Test;
 import org.junit.runner.Description;
 
@@ -8,4 +13,57 @@ public class TestDescriptionTest {
 	@Test public void equalsIsFalseForNonTestDescription() {
 		assertFalse(Description.createTestDescription(getClass(), "a").equals(new Integer(5)));
 	}
-}
\ No newline at end of file
+
+	@Test public void parsesClassAndMethodNames() {
+		Description description= Description.createTestDescription(getClass(), "a(b)");
+		assertEquals("a(b)", description.getMethodName());
+		assertEquals(getClass().getName(), description.getClassName());
+		assertSame(getClass(), description.getTestClass());
+	}
+
+	@Test public void suiteHasNoMethodName() {
+		Description description= Description.createSuiteDescription("suite");
+		assertNull(description.getMethodName());
+		assertEquals("suite", description.getClassName());
+		assertNull(description.getTestClass());
+	}
+
+	@Test public void testClassIsLoadedFromTheDisplayName() {
+		Description description= Description.createSuiteDescription("method("
+				+ getClass().getName() + ")");
+		assertSame(getClass(), description.getTestClass());
+	}
+
+	@Test public void suitesAreEqualByUniqueId() {
+		Description left= Description.createSuiteDescription("[0]", "First[0]");
+		Description right= Description.createSuiteDescription("[0]", "Second[0]");
+		assertFalse(left.equals(right));
+		assertFalse(left.hashCode() == right.hashCode());
+		right= Description.createSuiteDescription("[0]", "First[0]");
+		right.addChild(Description.createTestDescription(getClass(), "a"));
+		assertTrue(left.equals(right));
+		assertEquals(left.hashCode(), right.hashCode());
+	}
+
+	@Test public void uniqueIdIsTheDisplayNameByDefault() {
+		assertEquals("a(" + getClass().getName() + ")", Description
+				.createTestDescription(getClass(), "a").getUniqueId());
+		assertEquals("suite", Description.createSuiteDescription("suite").getUniqueId());
+	}
+
+	@Test public void parsesTheParameterIndex() {
+		assertEquals(12, Description.createTestDescription(getClass(), "a[12]")
+				.getParameterIndex());
+		assertEquals(3, Description.createSuiteDescription("[3]").getParameterIndex());
+		assertEquals(-1, Description.createTestDescription(getClass(), "a")
+				.getParameterIndex());
+		assertEquals(-1, Description.createTestDescription(getClass(), "a[b]")
+				.getParameterIndex());
+	}
+
+	@Test public void testsOfAClassShareItsName() {
+		assertSame(Description.createTestDescription(getClass(), "a").getClassName(),
+				Description.createSuiteDescription("b(" + getClass().getName() + ")")
+						.getClassName());
+	}
+}
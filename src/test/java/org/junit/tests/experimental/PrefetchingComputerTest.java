@@ -0,0 +1,136 @@
+package org.junit.tests.experimental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.PrefetchingComputer;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runners.BlockJUnit4ClassRunner;
+
+public class PrefetchingComputerTest {
+	private static List<String> log;
+
+	private static CountDownLatch secondPrepared;
+
+	private static void log(String event) {
+		log.add(event);
+	}
+
+	public static class First {
+		@BeforeClass public static void before() {
+			log("before First");
+		}
+
+		@Test public void overlaps() throws InterruptedException {
+			assertTrue(secondPrepared.await(5, TimeUnit.SECONDS));
+			log("test First");
+		}
+
+		@AfterClass public static void after() {
+			log("after First");
+		}
+	}
+
+	public static class Second {
+		@BeforeClass public static void before() {
+			log("before Second");
+			secondPrepared.countDown();
+		}
+
+		@Test public void test() {
+			log("test Second");
+		}
+
+		@AfterClass public static void after() {
+			log("after Second");
+		}
+	}
+
+	public static class Broken {
+		@BeforeClass public static void before() {
+			throw new IllegalStateException("no store");
+		}
+
+		@Test public void test() {
+			log("test Broken");
+		}
+
+		@AfterClass public static void after() {
+			log("after Broken");
+		}
+	}
+
+	private void reset() {
+		log= Collections.synchronizedList(new ArrayList<String>());
+		secondPrepared= new CountDownLatch(1);
+	}
+
+	@Test
+	public void nextClassIsPreparedWhileTestsRun() {
+		reset();
+		Result result= JUnitCore.runClasses(new PrefetchingComputer(1),
+				First.class, Second.class);
+		assertTrue(result.wasSuccessful());
+		// Second may be prepared before or after First starts
+		assertTrue(log.subList(0, 2).containsAll(
+				Arrays.asList("before First", "before Second")));
+		assertEquals(Arrays.asList("test First", "after First", "test Second",
+				"after Second"), log.subList(2, log.size()));
+	}
+
+	@Test
+	public void failingBeforeClassIsReportedInTurn() {
+		reset();
+		secondPrepared.countDown();
+		Result result= JUnitCore.runClasses(new PrefetchingComputer(2),
+				First.class, Broken.class, Second.class);
+		assertEquals(1, result.getFailureCount());
+		assertEquals(Broken.class.getName(), result.getFailures().get(0)
+				.getDescription().getDisplayName());
+		assertEquals("no store", result.getFailures().get(0).getMessage());
+		List<String> afters= new ArrayList<String>();
+		for (String each : log)
+			if (each.startsWith("after"))
+				afters.add(each);
+		assertEquals(Arrays.asList("after First", "after Broken",
+				"after Second"), afters);
+		assertTrue(!log.contains("test Broken"));
+	}
+
+	@Test
+	public void discardedClassIsCleanedUp() throws Exception {
+		reset();
+		BlockJUnit4ClassRunner runner= new BlockJUnit4ClassRunner(Second.class);
+		runner.prepareClass(new Executor() {
+			public void execute(Runnable command) {
+				command.run();
+			}
+		});
+		runner.discardPreparedClass();
+		assertEquals(Arrays.asList("before Second", "after Second"), log);
+	}
+
+	@Test
+	public void unstartedPreparationIsDropped() throws Exception {
+		reset();
+		BlockJUnit4ClassRunner runner= new BlockJUnit4ClassRunner(Second.class);
+		runner.prepareClass(new Executor() {
+			public void execute(Runnable command) {
+			}
+		});
+		runner.discardPreparedClass();
+		assertEquals(Collections.emptyList(), log);
+	}
+}
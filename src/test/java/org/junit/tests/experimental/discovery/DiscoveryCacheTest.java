@@ -0,0 +1,117 @@
+package org.junit.tests.experimental.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.discovery.DiscoveryCache;
+import org.junit.runner.Computer;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Plan;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+public class DiscoveryCacheTest {
+	public static class Plain {
+		@Test public void one() {}
+		@Test public void two() { fail(); }
+	}
+
+	public static class Invalid {
+		@Test public int notVoid() { return 0; }
+	}
+
+	@RunWith(Parameterized.class)
+	public static class WithParameters {
+		@Parameters public static Collection<Object[]> data() {
+			return Arrays.asList(new Object[][] { { 1 } });
+		}
+
+		public WithParameters(int value) {}
+
+		@Test public void test() {}
+	}
+
+	private File fStore;
+
+	@Before public void createStore() throws IOException {
+		fStore= File.createTempFile("junit", ".discovery");
+		fStore.delete();
+	}
+
+	@After public void deleteStore() {
+		fStore.delete();
+	}
+
+	private DiscoveryCache runAndReload(Class<?>... classes) throws IOException {
+		DiscoveryCache cache= DiscoveryCache.forFile(fStore);
+		new JUnitCore().run(cache.classes(Computer.serial(), classes));
+		cache.save();
+		return DiscoveryCache.forFile(fStore);
+	}
+
+	@Test public void describesUnchangedClassesFromTheCache() throws IOException {
+		DiscoveryCache cache= runAndReload(Plain.class);
+		Plan cached= cache.classes(Computer.serial(), Plain.class).getRunner().getPlan();
+		assertEquals(1, cache.getHits());
+		Plan built= Request.aClass(Plain.class).getRunner().getPlan();
+		Plan cachedClass= cached.getChildren().get(0);
+		assertEquals(descriptions(built.getChildren()), descriptions(cachedClass.getChildren()));
+		assertNotNull(cachedClass.getChildren().get(0).getDescription().getAnnotation(Test.class));
+	}
+
+	private List<Description> descriptions(List<Plan> plans) {
+		List<Description> results= new ArrayList<Description>();
+		for (Plan each : plans)
+			results.add(each.getDescription());
+		return results;
+	}
+
+	@Test public void runsCachedClassesAsUsual() throws IOException {
+		DiscoveryCache cache= runAndReload(Plain.class);
+		Result result= new JUnitCore().run(cache.classes(Computer.serial(), Plain.class));
+		assertEquals(1, cache.getHits());
+		assertEquals(2, result.getRunCount());
+		assertEquals(1, result.getFailureCount());
+	}
+
+	@Test public void filtersCachedClasses() throws IOException {
+		DiscoveryCache cache= runAndReload(Plain.class);
+		Request request= cache.classes(Computer.serial(), Plain.class).filterWith(
+				Filter.matchMethodDescription(Description.createTestDescription(Plain.class, "one")));
+		Result result= new JUnitCore().run(request);
+		assertEquals(1, cache.getHits());
+		assertEquals(1, result.getRunCount());
+		assertEquals(0, result.getFailureCount());
+	}
+
+	@Test public void doesNotCacheInvalidClasses() throws IOException {
+		DiscoveryCache cache= runAndReload(Invalid.class);
+		Result result= new JUnitCore().run(cache.classes(Computer.serial(), Invalid.class));
+		assertEquals(0, cache.getHits());
+		assertFalse(result.wasSuccessful());
+	}
+
+	@Test public void doesNotCacheOtherRunners() throws IOException {
+		DiscoveryCache cache= runAndReload(WithParameters.class);
+		Result result= new JUnitCore().run(cache.classes(Computer.serial(), WithParameters.class));
+		assertEquals(0, cache.getHits());
+		assertEquals(1, result.getRunCount());
+	}
+}
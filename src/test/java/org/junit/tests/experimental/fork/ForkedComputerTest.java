@@ -0,0 +1,146 @@
+package org.junit.tests.experimental.fork;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.fork.ForkedComputer;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+
+public class ForkedComputerTest {
+	public static class Passing {
+		@Test public void runsInAnotherJvm() {
+			assertFalse(System.getProperty("forked.parent").equals(
+					ManagementFactory.getRuntimeMXBean().getName()));
+		}
+
+		@Ignore @Test public void ignored() {
+		}
+	}
+
+	public static class Failing {
+		@Test public void fails() {
+			fail("in the worker");
+		}
+	}
+
+	public static class Crashing {
+		@Test public void crashes() {
+			Runtime.getRuntime().halt(3);
+		}
+	}
+
+	public static class CrashingTwice {
+		@Test public void crashes() {
+			Runtime.getRuntime().halt(3);
+		}
+
+		@Test public void crashesToo() {
+			Runtime.getRuntime().halt(3);
+		}
+	}
+
+	public static class Hanging {
+		@Test public void hangs() throws InterruptedException {
+			Thread.sleep(Long.MAX_VALUE);
+		}
+	}
+
+	public static class LongNameRunner extends Runner {
+		private final Description fTest;
+
+		public LongNameRunner(Class<?> testClass) {
+			StringBuilder name= new StringBuilder();
+			for (int i= 0; i < 70000; i++)
+				name.append('x');
+			fTest= Description.createTestDescription(testClass, name.toString());
+		}
+
+		@Override
+		public Description getDescription() {
+			Description suite= Description.createSuiteDescription(LongName.class);
+			suite.addChild(fTest);
+			return suite;
+		}
+
+		@Override
+		public void run(RunNotifier notifier) {
+			notifier.fireTestStarted(fTest);
+			notifier.fireTestFinished(fTest);
+		}
+	}
+
+	@RunWith(LongNameRunner.class)
+	public static class LongName {
+	}
+
+	private ForkedComputer computer() {
+		String parent= ManagementFactory.getRuntimeMXBean().getName();
+		return new ForkedComputer(2, "-Dforked.parent=" + parent);
+	}
+
+	private Result run(Class<?>... classes) {
+		return JUnitCore.runClasses(computer(), classes);
+	}
+
+	@Test(timeout= 60000) public void eventsStreamBackIntoOneResult() {
+		Result result= run(Passing.class, Failing.class);
+		assertEquals(2, result.getRunCount());
+		assertEquals(1, result.getIgnoreCount());
+		assertEquals(1, result.getFailureCount());
+		Failure failure= result.getFailures().get(0);
+		assertEquals(Description.createTestDescription(Failing.class, "fails"),
+				failure.getDescription());
+		assertEquals("in the worker", failure.getMessage());
+	}
+
+	@Test(timeout= 60000) public void crashedWorkerFailsItsTestAndRunContinues() {
+		Result result= run(Crashing.class, Passing.class, Failing.class);
+		assertEquals(3, result.getRunCount());
+		assertEquals(2, result.getFailureCount());
+		Failure crash= failureOf(result, "crashes");
+		assertThat(crash.getMessage(), containsString("Forked JVM crashed"));
+	}
+
+	@Test(timeout= 60000) public void testsAfterACrashAreReportedAsFailed() {
+		Result result= run(CrashingTwice.class);
+		assertEquals(2, result.getRunCount());
+		assertEquals(2, result.getFailureCount());
+		for (Failure each : result.getFailures())
+			assertThat(each.getMessage(), containsString("Forked JVM crashed"));
+	}
+
+	@Test(timeout= 60000) public void namesLongerThan64KBStreamBack() {
+		Result result= run(LongName.class);
+		assertEquals(1, result.getRunCount());
+		assertEquals(0, result.getFailureCount());
+	}
+
+	@Test(timeout= 60000) public void hangingWorkerIsKilledAndRunContinues() {
+		Result result= JUnitCore.runClasses(computer().withIdleTimeout(2000),
+				Hanging.class, Passing.class);
+		assertEquals(2, result.getRunCount());
+		assertEquals(1, result.getFailureCount());
+		assertThat(failureOf(result, "hangs").getMessage(),
+				containsString("sent no events for 2000 ms"));
+	}
+
+	private Failure failureOf(Result result, String methodName) {
+		for (Failure each : result.getFailures())
+			if (methodName.equals(each.getDescription().getMethodName()))
+				return each;
+		throw new AssertionError("no failure for " + methodName);
+	}
+}
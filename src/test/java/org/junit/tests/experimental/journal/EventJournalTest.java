@@ -0,0 +1,236 @@
+package org.junit.tests.experimental.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.journal.EventJournal;
+import org.junit.experimental.journal.JournalingListener;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Plan;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+public class EventJournalTest {
+	public static class Mixed {
+		@Test public void passes() {
+		}
+
+		@Test public void fails() {
+			throw new IllegalStateException("broken");
+		}
+
+		@Test public void assumes() {
+			assumeTrue(false);
+		}
+
+		@Ignore @Test public void ignored() {
+		}
+	}
+
+	private static class NotSerializable extends RuntimeException {
+		private static final long serialVersionUID= 1L;
+
+		@SuppressWarnings("unused")
+		private final Object fUnserializable= new Object();
+
+		NotSerializable(String message) {
+			super(message);
+		}
+	}
+
+	public static class FailsUnserializably {
+		@Test public void fails() {
+			throw new NotSerializable("can't write me");
+		}
+	}
+
+	private static class Recorder extends RunListener {
+		final List<String> events= new ArrayList<String>();
+
+		@Override
+		public void testRunStarted(Plan plan) throws Exception {
+			events.add("run " + plan.getDescription().testCount());
+		}
+
+		@Override
+		public void testsDiscovered(Plan plan) throws Exception {
+			events.add("discovered " + plan.getDescription() + " "
+					+ plan.getDescription().testCount());
+		}
+
+		@Override
+		public void testStarted(Description description) throws Exception {
+			events.add("started " + description);
+		}
+
+		@Override
+		public void testFinished(Description description) throws Exception {
+			events.add("finished " + description);
+		}
+
+		@Override
+		public void testIgnored(Description description) throws Exception {
+			events.add("ignored " + description);
+		}
+
+		@Override
+		public void testFailure(Failure failure) throws Exception {
+			events.add("failure " + failure);
+		}
+
+		@Override
+		public void testAssumptionFailure(Failure failure) {
+			events.add("assumption " + failure.getDescription());
+		}
+
+		@Override
+		public void testRunFinished(Result result) throws Exception {
+			events.add("finished run " + result.getRunCount());
+		}
+	}
+
+	private File fJournal;
+
+	@Before public void createJournal() throws IOException {
+		fJournal= File.createTempFile("junit", ".journal");
+	}
+
+	@After public void deleteJournal() {
+		fJournal.delete();
+	}
+
+	@Test public void replaysTheEventsOfARun() throws Exception {
+		Recorder direct= new Recorder();
+		JUnitCore core= new JUnitCore();
+		core.addListener(direct);
+		core.addListener(new JournalingListener(fJournal));
+		Result recorded= core.run(Mixed.class);
+
+		Recorder replayed= new Recorder();
+		Result result= EventJournal.replay(fJournal, replayed);
+		assertEquals(direct.events, replayed.events);
+		assertEquals(recorded.getRunCount(), result.getRunCount());
+		assertEquals(recorded.getIgnoreCount(), result.getIgnoreCount());
+		assertEquals(1, result.getFailureCount());
+		Throwable exception= result.getFailures().get(0).getException();
+		assertEquals(IllegalStateException.class, exception.getClass());
+		assertEquals(Arrays.asList(recorded.getFailures().get(0).getException()
+				.getStackTrace()), Arrays.asList(exception.getStackTrace()));
+	}
+
+	@Test public void replaysASuiteThatHoldsAClassTwice() throws Exception {
+		Recorder direct= new Recorder();
+		JUnitCore core= new JUnitCore();
+		core.addListener(direct);
+		core.addListener(new JournalingListener(fJournal));
+		core.run(Mixed.class, Mixed.class);
+
+		Recorder replayed= new Recorder();
+		EventJournal.replay(fJournal, replayed);
+		assertEquals("run 8", replayed.events.get(0));
+		assertEquals(direct.events, replayed.events);
+	}
+
+	@Test public void replaysTheClassesOfAStreamedRun() throws Exception {
+		Recorder direct= new Recorder();
+		JUnitCore core= new JUnitCore();
+		core.addListener(direct);
+		core.addListener(new JournalingListener(fJournal));
+		core.run(Request.streaming(Mixed.class, FailsUnserializably.class));
+
+		Recorder replayed= new Recorder();
+		EventJournal.replay(fJournal, replayed);
+		List<String> events= replayed.events;
+		// each class is discovered before its tests start, while the tests of
+		// earlier classes may still be running
+		assertDiscoveredBeforeStarted(events, Mixed.class, 4, "passes");
+		assertDiscoveredBeforeStarted(events, FailsUnserializably.class, 1, "fails");
+		assertEquals(withoutDiscoveries(direct.events), withoutDiscoveries(events));
+	}
+
+	private static void assertDiscoveredBeforeStarted(List<String> events,
+			Class<?> testClass, int testCount, String method) {
+		int discovered= events.indexOf("discovered " + testClass.getName() + " " + testCount);
+		assertTrue(discovered >= 0);
+		assertTrue(discovered < events.indexOf("started " + method + "(" + testClass.getName() + ")"));
+	}
+
+	private static List<String> withoutDiscoveries(List<String> events) {
+		List<String> results= new ArrayList<String>();
+		for (String each : events)
+			if (!each.startsWith("discovered "))
+				results.add(each);
+		return results;
+	}
+
+	@Test public void keepsUnserializableExceptionsAsText() throws Exception {
+		JUnitCore core= new JUnitCore();
+		core.addListener(new JournalingListener(fJournal));
+		Result recorded= core.run(FailsUnserializably.class);
+
+		Result result= EventJournal.replay(fJournal);
+		Failure failure= result.getFailures().get(0);
+		assertEquals(NotSerializable.class.getName() + ": can't write me",
+				failure.getException().toString());
+		StackTraceElement[] trace= recorded.getFailures().get(0)
+				.getException().getStackTrace();
+		assertEquals(trace.length, failure.getException().getStackTrace().length);
+		assertEquals(trace[0].toString(), failure.getException()
+				.getStackTrace()[0].toString());
+	}
+
+	@Test public void replaysARunCutShort() throws Exception {
+		JournalingListener journal= new JournalingListener(fJournal);
+		RunNotifier notifier= new RunNotifier();
+		notifier.addListener(journal);
+		Description first= Description.createTestDescription(getClass(), "first");
+		Description second= Description.createTestDescription(getClass(), "second");
+		notifier.fireTestStarted(first);
+		notifier.fireTestFinished(first);
+		notifier.fireTestStarted(second);
+		try {
+			Recorder replayed= new Recorder();
+			EventJournal.replay(fJournal, replayed);
+			assertEquals(Arrays.asList("started " + first, "finished " + first,
+					"started " + second, "finished run 1"), replayed.events);
+		} finally {
+			journal.testRunFinished(new Result());
+		}
+	}
+
+	@Test public void growsPastOneRegion() throws Exception {
+		char[] chars= new char[3 << 20];
+		Arrays.fill(chars, 'x');
+		String message= new String(chars);
+		JournalingListener journal= new JournalingListener(fJournal);
+		RunNotifier notifier= new RunNotifier();
+		notifier.addListener(journal);
+		Description test= Description.createTestDescription(getClass(), "big");
+		for (int i= 0; i < 3; i++) {
+			notifier.fireTestStarted(test);
+			notifier.fireTestFailure(new Failure(test, new AssertionError(message)));
+			notifier.fireTestFinished(test);
+		}
+		notifier.fireTestRunFinished(new Result());
+
+		Result result= EventJournal.replay(fJournal);
+		assertEquals(3, result.getRunCount());
+		assertEquals(message, result.getFailures().get(2).getMessage());
+		assertTrue(fJournal.length() < 20 << 20);
+	}
+}
@@ -0,0 +1,134 @@
+package org.junit.tests.experimental.max;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.matchers.JUnitMatchers.containsString;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.experimental.max.MaxHistory;
+import org.junit.experimental.parallel.WeightedOrder;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+
+public class LongestFirstTest {
+	private File fHistoryFile;
+
+	private MaxHistory fHistory;
+
+	@Before
+	public void createHistory() {
+		fHistoryFile= new File("LongestFirst.ser");
+		if (fHistoryFile.exists())
+			fHistoryFile.delete();
+		fHistory= MaxHistory.forFolder(fHistoryFile);
+	}
+
+	@After
+	public void forgetHistory() {
+		fHistoryFile.delete();
+	}
+
+	private static String log;
+
+	public static class Durations {
+		@Test public void quick() throws InterruptedException {
+			log+= "quick ";
+			Thread.sleep(10);
+		}
+
+		@Test public void slow() throws InterruptedException {
+			log+= "slow ";
+			Thread.sleep(200);
+		}
+	}
+
+	public static class Many {
+		@Test public void a() {}
+		@Test public void b() {}
+		@Test public void c() {}
+		@Test public void d() {}
+		@Test public void e() {}
+	}
+
+	private static class CountingOrder implements WeightedOrder {
+		final AtomicInteger fWeighed= new AtomicInteger();
+
+		public long weightOf(Description description) {
+			fWeighed.incrementAndGet();
+			return description.getMethodName().charAt(0);
+		}
+
+		public int compare(Description o1, Description o2) {
+			throw new AssertionError("compared instead of weighed");
+		}
+	}
+
+	private void recordHistory() {
+		JUnitCore core= new JUnitCore();
+		core.addListener(fHistory.listener());
+		core.run(Durations.class);
+	}
+
+	@Test public void longestExpectedChildIsSubmittedFirst() {
+		recordHistory();
+		log= "";
+		Result result= JUnitCore.runClasses(new ParallelComputer(false, true,
+				1).withChildOrder(fHistory.longestFirst()), Durations.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals("slow quick ", log);
+	}
+
+	@Test public void eachChildIsWeighedOncePerSort() {
+		CountingOrder order= new CountingOrder();
+		Result result= JUnitCore.runClasses(new ParallelComputer(false, true,
+				1).withChildOrder(order), Many.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(5, order.fWeighed.get());
+	}
+
+	@Test public void longestFirstWeighsByExpectedDuration() {
+		recordHistory();
+		WeightedOrder order= (WeightedOrder) fHistory.longestFirst();
+		Description slow= Description.createTestDescription(Durations.class,
+				"slow");
+		assertTrue(order.weightOf(slow) >= 200 * 1000 * 1000);
+		assertEquals(order.weightOf(slow) + order.weightOf(Description
+				.createTestDescription(Durations.class, "quick")), order
+				.weightOf(Request.aClass(Durations.class).getRunner()
+						.getDescription()));
+	}
+
+	@Test public void newTestsAreExpectedToTakeAnAverageTime() {
+		recordHistory();
+		Description slow= Description.createTestDescription(Durations.class,
+				"slow");
+		Description unknown= Description.createTestDescription(
+				Durations.class, "unknown");
+		assertTrue(fHistory.longestFirst().compare(slow, unknown) < 0);
+	}
+
+	@Test public void reportsPredictedAndActualWallTime() {
+		recordHistory();
+		ByteArrayOutputStream output= new ByteArrayOutputStream();
+		JUnitCore core= new JUnitCore();
+		core.addListener(fHistory.wallTimeReport(new PrintStream(output), 2));
+		core.run(new ParallelComputer(true, false, 2), Durations.class);
+		long predicted= fHistory.predictWallTime(Request.classes(
+				Durations.class).getRunner().getPlan(), 2);
+		assertTrue(predicted >= 210 * 1000 * 1000);
+		assertThat(output.toString(), containsString(String.format(
+				"Predicted wall time: %.3f s", predicted / 1e9)));
+		assertThat(output.toString(), containsString("actual: "));
+	}
+}
@@ -0,0 +1,105 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.experimental.parallel.AdaptiveConcurrency;
+import org.junit.experimental.parallel.AdaptiveConcurrency.Decision;
+import org.junit.experimental.parallel.AdaptiveConcurrency.Listener;
+import org.junit.experimental.parallel.AdaptiveConcurrency.Sample;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class AdaptiveConcurrencyTest {
+	private static final double NONE= Double.NaN;
+
+	@Test
+	public void startsWithOnePermitPerProcessor() {
+		int processors= Runtime.getRuntime().availableProcessors();
+		assertEquals(processors, new AdaptiveConcurrency(1, 1000).getPermits());
+		assertEquals(1000, new AdaptiveConcurrency(1000, 2000).getPermits());
+	}
+
+	@Test(expected= IllegalArgumentException.class)
+	public void minMustBeAtLeastOne() {
+		new AdaptiveConcurrency(0, 4);
+	}
+
+	@Test
+	public void backsOffUnderGcPressure() {
+		AdaptiveConcurrency budget= new AdaptiveConcurrency(2, 16);
+		budget.setPermits(8);
+		Decision decision= budget.adjust(new Sample(0.5, NONE, 0.3, 4));
+		assertEquals(8, decision.getFrom());
+		assertEquals(6, decision.getTo());
+		assertEquals(6, budget.getPermits());
+	}
+
+	@Test
+	public void backsOffWhenCpuIsSaturated() {
+		AdaptiveConcurrency budget= new AdaptiveConcurrency(2, 16);
+		budget.setPermits(3);
+		budget.adjust(new Sample(0.99, NONE, 0, 0));
+		assertEquals(2, budget.getPermits());
+		assertNull(budget.adjust(new Sample(0.99, NONE, 0, 0)));
+		assertEquals(2, budget.getPermits());
+	}
+
+	@Test
+	public void growsOnlyWhenChildrenWait() {
+		AdaptiveConcurrency budget= new AdaptiveConcurrency(1, 3);
+		budget.setPermits(2);
+		assertNull(budget.adjust(new Sample(0.1, NONE, 0, 0)));
+		budget.adjust(new Sample(0.1, NONE, 0, 5));
+		assertEquals(3, budget.getPermits());
+		assertNull(budget.adjust(new Sample(0.1, NONE, 0, 5)));
+	}
+
+	@Test
+	public void holdsWhenBusyButNotOverloaded() {
+		AdaptiveConcurrency budget= new AdaptiveConcurrency(1, 10);
+		budget.setPermits(4);
+		assertNull(budget.adjust(new Sample(0.8, NONE, 0, 5)));
+	}
+
+	@Test
+	public void reportsDecisions() {
+		final List<Decision> decisions= new ArrayList<Decision>();
+		AdaptiveConcurrency budget= new AdaptiveConcurrency(1, 10)
+				.addListener(new Listener() {
+					public void adjusted(Decision decision) {
+						decisions.add(decision);
+					}
+				});
+		budget.setPermits(4);
+		budget.adjust(new Sample(NONE, NONE, 0.5, 0));
+		assertEquals(1, decisions.size());
+		assertTrue(decisions.get(0).toString().startsWith(
+				"concurrency 4 -> 3: garbage collection"));
+	}
+
+	public static class Example {
+		@Test public void one() throws InterruptedException {
+			Thread.sleep(10);
+		}
+
+		@Test public void two() throws InterruptedException {
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	public void drivesAParallelRun() {
+		Result result= JUnitCore.runClasses(new ParallelComputer(true, true)
+				.withConcurrencyBudget(new AdaptiveConcurrency(1, 4)),
+				Example.class, Example.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(4, result.getRunCount());
+	}
+}
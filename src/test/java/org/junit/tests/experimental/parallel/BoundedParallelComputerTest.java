@@ -0,0 +1,99 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class BoundedParallelComputerTest {
+	private static final AtomicInteger running= new AtomicInteger();
+
+	private static final AtomicInteger maxRunning= new AtomicInteger();
+
+	private static final Set<Thread> threads= new CopyOnWriteArraySet<Thread>();
+
+	private static void work() throws InterruptedException {
+		threads.add(Thread.currentThread());
+		int now= running.incrementAndGet();
+		while (true) {
+			int max= maxRunning.get();
+			if (now <= max || maxRunning.compareAndSet(max, now))
+				break;
+		}
+		Thread.sleep(100);
+		running.decrementAndGet();
+	}
+
+	public static class Example1 {
+		@Test public void one() throws InterruptedException {
+			work();
+		}
+
+		@Test public void two() throws InterruptedException {
+			work();
+		}
+	}
+
+	public static class Example2 {
+		@Test public void one() throws InterruptedException {
+			work();
+		}
+
+		@Test public void two() throws InterruptedException {
+			work();
+		}
+	}
+
+	public static class Example3 {
+		@Test public void one() throws InterruptedException {
+			work();
+		}
+
+		@Test public void two() throws InterruptedException {
+			work();
+		}
+	}
+
+	private Result runWithParallelism(int parallelism) {
+		running.set(0);
+		maxRunning.set(0);
+		return JUnitCore.runClasses(new ParallelComputer(true, true,
+				parallelism), Example1.class, Example2.class, Example3.class);
+	}
+
+	@Test(timeout= 5000) public void neverExceedsParallelism() {
+		Result result= runWithParallelism(2);
+		assertTrue(result.wasSuccessful());
+		assertEquals(6, result.getRunCount());
+		assertTrue(maxRunning.get() <= 2);
+	}
+
+	@Test(timeout= 5000) public void nestedSchedulesShareASingleWorker() {
+		Result result= runWithParallelism(1);
+		assertTrue(result.wasSuccessful());
+		assertEquals(6, result.getRunCount());
+		assertEquals(1, maxRunning.get());
+	}
+
+	@Test(timeout= 5000) public void runsInParallelWhenAllowed() {
+		Result result= runWithParallelism(6);
+		assertTrue(result.wasSuccessful());
+		assertTrue(maxRunning.get() > 1);
+	}
+
+	@Test(timeout= 5000) public void callingThreadOnlyWaitsWithTheDefaultExecutor() {
+		threads.clear();
+		Result result= JUnitCore.runClasses(new ParallelComputer(true, true),
+				Example1.class, Example2.class, Example3.class);
+		assertTrue(result.wasSuccessful());
+		assertFalse(threads.contains(Thread.currentThread()));
+	}
+}
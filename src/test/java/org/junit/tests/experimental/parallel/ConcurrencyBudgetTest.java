@@ -0,0 +1,101 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.tests.TestSystem;
+
+public class ConcurrencyBudgetTest {
+	private static final AtomicInteger running= new AtomicInteger();
+
+	private static final AtomicInteger maxRunning= new AtomicInteger();
+
+	private static void work() throws InterruptedException {
+		int now= running.incrementAndGet();
+		while (true) {
+			int max= maxRunning.get();
+			if (now <= max || maxRunning.compareAndSet(max, now))
+				break;
+		}
+		Thread.sleep(50);
+		running.decrementAndGet();
+	}
+
+	public static class Example1 {
+		@Test public void one() throws InterruptedException {
+			work();
+		}
+
+		@Test public void two() throws InterruptedException {
+			work();
+		}
+
+		@Test public void three() throws InterruptedException {
+			work();
+		}
+	}
+
+	public static class Example2 {
+		@Test public void one() throws InterruptedException {
+			work();
+		}
+
+		@Test public void two() throws InterruptedException {
+			work();
+		}
+
+		@Test public void three() throws InterruptedException {
+			work();
+		}
+	}
+
+	private Result runWithBudget(ParallelComputer computer, int permits) {
+		running.set(0);
+		maxRunning.set(0);
+		return JUnitCore.runClasses(computer.withConcurrencyBudget(permits),
+				Example1.class, Example2.class);
+	}
+
+	@Test(timeout= 5000) public void budgetCapsNestedSchedules() {
+		Result result= runWithBudget(new ParallelComputer(true, true), 2);
+		assertTrue(result.wasSuccessful());
+		assertEquals(6, result.getRunCount());
+		assertTrue(maxRunning.get() <= 2);
+	}
+
+	@Test(timeout= 5000) public void exhaustedBudgetDoesNotDeadlock() {
+		Result result= runWithBudget(new ParallelComputer(true, true), 1);
+		assertTrue(result.wasSuccessful());
+		assertEquals(6, result.getRunCount());
+		assertEquals(1, maxRunning.get());
+	}
+
+	@Test(timeout= 5000) public void budgetAppliesToWorkerPool() {
+		Result result= runWithBudget(new ParallelComputer(true, true, 4), 2);
+		assertTrue(result.wasSuccessful());
+		assertTrue(maxRunning.get() <= 2);
+	}
+
+	@Test(timeout= 5000) public void budgetIsSetFromTheCommandLine() {
+		running.set(0);
+		maxRunning.set(0);
+		Result result= new JUnitCore().runMain(new TestSystem(),
+				"--parallel=2", Example1.class.getName(),
+				Example2.class.getName());
+		assertTrue(result.wasSuccessful());
+		assertEquals(6, result.getRunCount());
+		assertEquals(2, maxRunning.get());
+	}
+
+	@Test public void invalidBudgetFailsTheRun() {
+		Result result= new JUnitCore().runMain(new TestSystem(),
+				"--parallel=0", Example1.class.getName());
+		assertEquals(1, result.getFailureCount());
+	}
+}
@@ -0,0 +1,96 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
+
+public class FailFastTest {
+	private static CountDownLatch hanging;
+
+	public static class Fails {
+		@Test public void fails() throws InterruptedException {
+			hanging.await(5, TimeUnit.SECONDS);
+			fail();
+		}
+	}
+
+	public static class Hangs {
+		@Test public void hangs() throws InterruptedException {
+			hanging.countDown();
+			Thread.sleep(10000);
+		}
+	}
+
+	public static class Pending {
+		@Test public void a() throws InterruptedException { Thread.sleep(50); }
+		@Test public void b() throws InterruptedException { Thread.sleep(50); }
+		@Test public void c() throws InterruptedException { Thread.sleep(50); }
+		@Test public void d() throws InterruptedException { Thread.sleep(50); }
+		@Test public void e() throws InterruptedException { Thread.sleep(50); }
+	}
+
+	@Test
+	public void firstFailureCancelsTheRun() {
+		hanging= new CountDownLatch(1);
+		long start= System.currentTimeMillis();
+		Result result= JUnitCore.runClasses(new ParallelComputer(true, false, 2)
+				.withFailFast(100), Fails.class, Hangs.class, Pending.class);
+		assertTrue(System.currentTimeMillis() - start < 5000);
+		assertEquals(2, result.getRunCount());
+		assertEquals(2, result.getFailureCount());
+		assertEquals(5, result.getIgnoreCount());
+	}
+
+	@Test
+	public void passingRunIsNotCancelled() {
+		Result result= JUnitCore.runClasses(new ParallelComputer(true, true, 2)
+				.withFailFast(100), Pending.class, Pending.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(10, result.getRunCount());
+		assertEquals(0, result.getIgnoreCount());
+	}
+
+	@Test
+	public void pleaseStopSkipsTheRest() {
+		final RunNotifier notifier= new RunNotifier();
+		final AtomicInteger started= new AtomicInteger();
+		final AtomicInteger ignored= new AtomicInteger();
+		notifier.addListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) {
+				started.incrementAndGet();
+				notifier.pleaseStop();
+			}
+
+			@Override
+			public void testIgnored(Description description) {
+				ignored.incrementAndGet();
+			}
+		});
+		Runner runner= Request.classes(
+				new ParallelComputer(false, true, 1).withFailFast(100),
+				Pending.class).getRunner();
+		try {
+			runner.run(notifier);
+			fail("expected the run to stop");
+		} catch (StoppedByUserException e) {
+		}
+		assertEquals(5, started.get() + ignored.get());
+		assertTrue(ignored.get() > 0);
+	}
+}
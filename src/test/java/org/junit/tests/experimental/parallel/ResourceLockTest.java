@@ -0,0 +1,149 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.experimental.parallel.ResourceLock;
+import org.junit.experimental.parallel.ResourceLock.Mode;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+
+public class ResourceLockTest {
+	private static final AtomicInteger writers= new AtomicInteger();
+
+	private static final AtomicInteger readers= new AtomicInteger();
+
+	private static final AtomicInteger maxReaders= new AtomicInteger();
+
+	private static volatile boolean conflict= false;
+
+	private static void write() throws InterruptedException {
+		if (writers.incrementAndGet() > 1 || readers.get() > 0)
+			conflict= true;
+		Thread.sleep(50);
+		writers.decrementAndGet();
+	}
+
+	private static void read() throws InterruptedException {
+		int now= readers.incrementAndGet();
+		if (writers.get() > 0)
+			conflict= true;
+		while (true) {
+			int max= maxReaders.get();
+			if (now <= max || maxReaders.compareAndSet(max, now))
+				break;
+		}
+		Thread.sleep(200);
+		readers.decrementAndGet();
+	}
+
+	public static class Writers {
+		@ResourceLock("port")
+		@Test public void one() throws InterruptedException {
+			write();
+		}
+
+		@ResourceLock("port")
+		@Test public void two() throws InterruptedException {
+			write();
+		}
+
+		@ResourceLock(value= "port", mode= Mode.READ)
+		@Test public void three() throws InterruptedException {
+			read();
+		}
+
+		@ResourceLock(value= "port", mode= Mode.READ)
+		@Test public void four() throws InterruptedException {
+			read();
+		}
+	}
+
+	public static class Readers {
+		@ResourceLock(value= "port", mode= Mode.READ)
+		@Test public void one() throws InterruptedException {
+			read();
+		}
+
+		@ResourceLock(value= "port", mode= Mode.READ)
+		@Test public void two() throws InterruptedException {
+			read();
+		}
+	}
+
+	@ResourceLock("port")
+	public static class LocksWholeClass {
+		@Test public void one() throws InterruptedException {
+			write();
+		}
+	}
+
+	public static class OtherWriters {
+		@ResourceLock( { "port", "file" })
+		@Test public void one() throws InterruptedException {
+			write();
+		}
+
+		@ResourceLock( { "file", "port" })
+		@Test public void two() throws InterruptedException {
+			write();
+		}
+	}
+
+	private Result run(Class<?>... classes) {
+		writers.set(0);
+		readers.set(0);
+		maxReaders.set(0);
+		conflict= false;
+		return JUnitCore.runClasses(new ParallelComputer(true, true),
+				classes);
+	}
+
+	@Test(timeout= 5000) public void conflictingMethodsSerialize() {
+		Result result= run(Writers.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(4, result.getRunCount());
+		assertTrue(!conflict);
+	}
+
+	@Test(timeout= 5000) public void readersShareAResource() {
+		Result result= run(Readers.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(2, maxReaders.get());
+	}
+
+	@Test(timeout= 5000) public void classLocksExcludeOtherClasses() {
+		Result result= run(Writers.class, LocksWholeClass.class,
+				OtherWriters.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(7, result.getRunCount());
+		assertTrue(!conflict);
+	}
+
+	@Test(timeout= 5000) public void locksDoNotDeadlockWithABudget() {
+		writers.set(0);
+		conflict= false;
+		Result result= JUnitCore.runClasses(new ParallelComputer(true, true, 2)
+				.withConcurrencyBudget(1), Writers.class, OtherWriters.class,
+				LocksWholeClass.class);
+		assertTrue(result.wasSuccessful());
+		assertTrue(!conflict);
+	}
+
+	@SuppressWarnings("deprecation")
+	@Test public void locksAreReportedInTheDescription() {
+		Description description= Request.aClass(Writers.class).getRunner()
+				.getDescription();
+		ResourceLock lock= description.getChildren().get(0).getAnnotation(
+				ResourceLock.class);
+		assertNotNull(lock);
+		assertEquals("port", lock.value()[0]);
+	}
+}
@@ -0,0 +1,91 @@
+package org.junit.tests.experimental.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.rules.TestName;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class VirtualThreadComputerTest {
+	public static class BlockingExample {
+		@Rule
+		public TestName name= new TestName();
+
+		@Test public void one() throws InterruptedException {
+			Thread.sleep(500);
+			assertEquals("one", name.getMethodName());
+		}
+
+		@Test public void two() throws InterruptedException {
+			Thread.sleep(500);
+			assertEquals("two", name.getMethodName());
+		}
+
+		@Test(timeout= 2000) public void three() throws InterruptedException {
+			Thread.sleep(500);
+			assertEquals("three", name.getMethodName());
+		}
+	}
+
+	public static class TimingOutExample {
+		@Test(timeout= 100) public void sleepsTooLong() throws InterruptedException {
+			Thread.sleep(5000);
+		}
+	}
+
+	private static final List<Thread> threads= new CopyOnWriteArrayList<Thread>();
+
+	public static class RecordsItsThread {
+		@Test public void one() {
+			threads.add(Thread.currentThread());
+		}
+
+		@Test public void two() {
+			threads.add(Thread.currentThread());
+		}
+	}
+
+	private static Method isVirtual() {
+		try {
+			Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return Thread.class.getMethod("isVirtual");
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	@Test public void runsTestsOnVirtualThreads() throws Exception {
+		Method isVirtual= isVirtual();
+		assumeTrue(isVirtual != null);
+		threads.clear();
+		Result result= JUnitCore.runClasses(ParallelComputer.virtualThreads(),
+				RecordsItsThread.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(2, threads.size());
+		for (Thread each : threads)
+			assertTrue((Boolean) isVirtual.invoke(each));
+	}
+
+	@Test(timeout= 1400) public void runsBlockingTestsConcurrently() {
+		Result result= JUnitCore.runClasses(ParallelComputer.virtualThreads(),
+				BlockingExample.class);
+		assertTrue(result.wasSuccessful());
+		assertEquals(3, result.getRunCount());
+	}
+
+	@Test(timeout= 2000) public void timeoutsStillFail() {
+		Result result= JUnitCore.runClasses(ParallelComputer.virtualThreads(),
+				TimingOutExample.class);
+		assertEquals(1, result.getFailureCount());
+	}
+}
@@ -0,0 +1,179 @@
+package org.junit.tests.experimental.report;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.report.XmlReportListener;
+import org.junit.runner.JUnitCore;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class XmlReportListenerTest {
+	private static File reports;
+
+	public static class Mixed {
+		@Test public void passes() {
+			System.out.println("out <&> \u0001");
+			System.err.println("err");
+		}
+
+		@Test public void fails() {
+			assertTrue("wrong", false);
+		}
+
+		@Test public void throwsException() {
+			throw new IllegalStateException("broken");
+		}
+
+		@Test public void assumes() {
+			assumeTrue(false);
+		}
+
+		@Ignore @Test public void ignored() {
+		}
+	}
+
+	public static class Chatty {
+		@Test public void printsALot() {
+			for (int i= 0; i < 10000; i++)
+				System.out.println("line " + i);
+		}
+	}
+
+	public static class Second {
+		@Test public void firstClassIsAlreadyReported() {
+			assertTrue(new File(reports, "TEST-" + Mixed.class.getName()
+					+ ".xml").exists());
+		}
+	}
+
+	public static class FailsBeforeClass {
+		@BeforeClass public static void fails() {
+			throw new IllegalStateException("no fixture");
+		}
+
+		@Test public void neverRuns() {
+		}
+	}
+
+	public static class AfterFailedClass {
+		@Test public void failedClassIsAlreadyReported() {
+			assertTrue(new File(reports, "TEST-"
+					+ FailsBeforeClass.class.getName() + ".xml").exists());
+		}
+	}
+
+	@Before public void createDirectory() throws IOException {
+		reports= File.createTempFile("junit", "reports");
+		reports.delete();
+	}
+
+	@After public void deleteDirectory() {
+		File[] files= reports.listFiles();
+		if (files != null)
+			for (File each : files)
+				each.delete();
+		reports.delete();
+	}
+
+	private static Element report(Class<?> type) throws Exception {
+		Document document= DocumentBuilderFactory.newInstance()
+				.newDocumentBuilder().parse(
+						new File(reports, "TEST-" + type.getName() + ".xml"));
+		return document.getDocumentElement();
+	}
+
+	private static Element testCase(Element suite, String name) {
+		NodeList cases= suite.getElementsByTagName("testcase");
+		for (int i= 0; i < cases.getLength(); i++) {
+			Element each= (Element) cases.item(i);
+			if (each.getAttribute("name").equals(name))
+				return each;
+		}
+		throw new AssertionError("no test case " + name);
+	}
+
+	private static String text(Element parent, String tag) {
+		return parent.getElementsByTagName(tag).item(0).getTextContent();
+	}
+
+	private static void run(Class<?>... classes) {
+		JUnitCore core= new JUnitCore();
+		core.addListener(new XmlReportListener(reports));
+		core.run(classes);
+	}
+
+	@Test public void reportsEachTestCase() throws Exception {
+		run(Mixed.class);
+		Element suite= report(Mixed.class);
+		assertEquals(Mixed.class.getName(), suite.getAttribute("name"));
+		assertEquals("5", suite.getAttribute("tests"));
+		assertEquals("1", suite.getAttribute("failures"));
+		assertEquals("1", suite.getAttribute("errors"));
+		assertEquals("2", suite.getAttribute("skipped"));
+
+		Element fails= testCase(suite, "fails");
+		assertEquals(Mixed.class.getName(), fails.getAttribute("classname"));
+		Element failure= (Element) fails.getElementsByTagName("failure").item(0);
+		assertEquals("wrong", failure.getAttribute("message"));
+		assertEquals(AssertionError.class.getName(), failure.getAttribute("type"));
+		assertTrue(failure.getTextContent().contains("Mixed.fails"));
+
+		Element error= (Element) testCase(suite, "throwsException")
+				.getElementsByTagName("error").item(0);
+		assertEquals("broken", error.getAttribute("message"));
+
+		assertEquals(1, testCase(suite, "ignored").getElementsByTagName("skipped").getLength());
+		assertEquals(1, testCase(suite, "assumes").getElementsByTagName("skipped").getLength());
+	}
+
+	@Test public void capturesWhatTestsPrint() throws Exception {
+		PrintStream out= System.out;
+		run(Mixed.class);
+		assertSame(out, System.out);
+		Element passes= testCase(report(Mixed.class), "passes");
+		assertEquals("out <&> ?", text(passes, "system-out").trim());
+		assertEquals("err", text(passes, "system-err").trim());
+		assertEquals(0, testCase(report(Mixed.class), "fails")
+				.getElementsByTagName("system-out").getLength());
+	}
+
+	@Test public void keepsLongOutput() throws Exception {
+		run(Chatty.class);
+		String out= text(testCase(report(Chatty.class), "printsALot"),
+				"system-out");
+		assertTrue(out.startsWith("line 0\n"));
+		assertTrue(out.endsWith("line 9999\n"));
+	}
+
+	@Test public void writesAClassThatFailsBeforeItsTestsAtOnce() throws Exception {
+		run(FailsBeforeClass.class, AfterFailedClass.class);
+		assertEquals("0", report(AfterFailedClass.class).getAttribute("failures"));
+		Element suite= report(FailsBeforeClass.class);
+		assertEquals("1", suite.getAttribute("errors"));
+		assertFalse(new File(reports, "TEST-" + FailsBeforeClass.class.getName()
+				+ "-2.xml").exists());
+	}
+
+	@Test public void writesEachClassOnceItIsDone() throws Exception {
+		run(Mixed.class, Second.class);
+		assertEquals("0", report(Second.class).getAttribute("failures"));
+		assertFalse(new File(reports, "TEST-" + Mixed.class.getName()
+				+ "-2.xml").exists());
+	}
+}
@@ -0,0 +1,87 @@
+package org.junit.tests.experimental.theories;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.rules.MethodRule;
+import org.junit.rules.TestName;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runners.model.TestClass;
+
+/**
+ * Prints how long a theory with 10,000 combinations of parameters takes to
+ * run, and how long the class scans behind it take, when each is done anew
+ * and when {@link TestClass#forClass(Class)} shares them. Run with
+ * {@code java org.junit.tests.experimental.theories.TheoryScanBenchmark}.
+ * Not part of {@link org.junit.tests.AllTests}.
+ */
+public class TheoryScanBenchmark {
+	private static final int VALUES= 100;
+
+	private static final int ROUNDS= 5;
+
+	public static class Base {
+		@Rule public MethodRule base= new TestName();
+
+		public void helperA() {}
+		public void helperB() {}
+		public void helperC() {}
+		public void helperD() {}
+		public void helperE() {}
+	}
+
+	@RunWith(Theories.class)
+	public static class TenThousandCombinations extends Base {
+		@DataPoints public static int[] values= values();
+
+		public int fieldA, fieldB, fieldC, fieldD, fieldE;
+
+		@Theory public void sum(int a, int b) {}
+
+		@Test public void plain() {}
+
+		public void helperF() {}
+		public void helperG() {}
+		public void helperH() {}
+		public void helperI() {}
+		public void helperJ() {}
+	}
+
+	private static int[] values() {
+		int[] results= new int[VALUES];
+		for (int i= 0; i < VALUES; i++)
+			results[i]= i;
+		return results;
+	}
+
+	public static void main(String... args) {
+		int combinations= VALUES * VALUES;
+		for (int round= 0; round < ROUNDS; round++) {
+			long start= System.nanoTime();
+			for (int i= 0; i < combinations; i++)
+				new TestClass(TenThousandCombinations.class);
+			long scanned= System.nanoTime() - start;
+
+			TestClass held= TestClass.forClass(TenThousandCombinations.class);
+			start= System.nanoTime();
+			for (int i= 0; i < combinations; i++)
+				TestClass.forClass(TenThousandCombinations.class);
+			long shared= System.nanoTime() - start;
+
+			start= System.nanoTime();
+			Result result= JUnitCore.runClasses(TenThousandCombinations.class);
+			long run= System.nanoTime() - start;
+
+			System.out.println(String.format(
+					"%,d scans: %,8.1f ms; shared: %,6.1f ms; theory run: %,8.1f ms (%s)",
+					combinations, scanned / 1e6, shared / 1e6, run / 1e6,
+					result.wasSuccessful() ? "passed" : "failed"));
+			if (TestClass.forClass(TenThousandCombinations.class) != held)
+				throw new AssertionError("TestClass was not shared");
+		}
+	}
+}
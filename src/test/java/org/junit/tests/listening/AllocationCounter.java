@@ -0,0 +1,46 @@
+package org.junit.tests.listening;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Counts the bytes allocated by the current thread, where the JVM can tell
+ * (through {@code com.sun.management.ThreadMXBean})
+ */
+class AllocationCounter {
+	private static final ThreadMXBean THREADS= ManagementFactory
+			.getThreadMXBean();
+
+	private static final Method ALLOCATED_BYTES= allocatedBytesMethod();
+
+	private static Method allocatedBytesMethod() {
+		try {
+			Class<?> bean= Class.forName("com.sun.management.ThreadMXBean");
+			if (!bean.isInstance(THREADS))
+				return null;
+			Method method= bean.getMethod("getThreadAllocatedBytes", long.class);
+			method.invoke(THREADS, Thread.currentThread().getId());
+			return method;
+		} catch (Exception e) {
+			// not available on this JVM
+			return null;
+		}
+	}
+
+	static boolean isAvailable() {
+		return ALLOCATED_BYTES != null;
+	}
+
+	/**
+	 * @return the bytes allocated by the current thread so far
+	 */
+	static long allocatedBytes() {
+		try {
+			return ((Number) ALLOCATED_BYTES.invoke(THREADS, Thread
+					.currentThread().getId())).longValue();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
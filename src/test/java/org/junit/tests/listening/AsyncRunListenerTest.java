@@ -0,0 +1,107 @@
+package org.junit.tests.listening;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.AsyncRunListener;
+import org.junit.runner.notification.AsyncRunListener.Backpressure;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+public class AsyncRunListenerTest {
+	private final RunNotifier fNotifier= new RunNotifier();
+
+	private final List<String> fLog= Collections
+			.synchronizedList(new ArrayList<String>());
+
+	private static Description test(String name) {
+		return Description.createTestDescription(AsyncRunListenerTest.class,
+				name);
+	}
+
+	private class SlowListener extends RunListener {
+		@Override
+		public void testStarted(Description description) throws Exception {
+			fLog.add("started " + description.getMethodName());
+		}
+
+		@Override
+		public void testFinished(Description description) throws Exception {
+			Thread.sleep(50);
+			fLog.add("finished " + description.getMethodName());
+		}
+
+		@Override
+		public void testRunFinished(Result result) throws Exception {
+			fLog.add("run finished");
+		}
+	}
+
+	@Test
+	public void testsDontWaitForTheListener() {
+		fNotifier.addListener(new AsyncRunListener(new SlowListener(), 16,
+				Backpressure.BLOCK));
+		long start= System.currentTimeMillis();
+		for (String each : Arrays.asList("a", "b", "c", "d")) {
+			fNotifier.fireTestStarted(test(each));
+			fNotifier.fireTestFinished(test(each));
+		}
+		assertTrue(System.currentTimeMillis() - start < 150);
+		fNotifier.fireTestRunFinished(new Result());
+		assertEquals(Arrays.asList("started a", "finished a", "started b",
+				"finished b", "started c", "finished c", "started d",
+				"finished d", "run finished"), fLog);
+	}
+
+	@Test
+	public void fullBufferDropsAndCounts() {
+		final CountDownLatch release= new CountDownLatch(1);
+		AsyncRunListener listener= new AsyncRunListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) throws Exception {
+				release.await();
+				fLog.add(description.getMethodName());
+			}
+		}, 2, Backpressure.DROP);
+		fNotifier.addListener(listener);
+		for (int i= 0; i < 10; i++)
+			fNotifier.fireTestStarted(test("t" + i));
+		release.countDown();
+		fNotifier.fireTestRunFinished(new Result());
+		assertTrue(listener.getDropped() > 0);
+		assertEquals(10, fLog.size() + listener.getDropped());
+	}
+
+	@Test
+	public void brokenListenerIsRemovedAndReported() throws Exception {
+		final List<Failure> failures= new ArrayList<Failure>();
+		fNotifier.addListener(new AsyncRunListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) throws Exception {
+				throw new Exception("cannot write report");
+			}
+		}, 4, Backpressure.BLOCK));
+		fNotifier.addListener(new RunListener() {
+			@Override
+			public void testFailure(Failure failure) throws Exception {
+				failures.add(failure);
+			}
+		});
+		fNotifier.fireTestStarted(test("a"));
+		fNotifier.fireTestRunFinished(new Result());
+		assertEquals(1, failures.size());
+		assertEquals(Description.TEST_MECHANISM, failures.get(0)
+				.getDescription());
+		assertEquals("cannot write report", failures.get(0).getMessage());
+	}
+}
@@ -0,0 +1,195 @@
+package org.junit.tests.listening;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.Plan;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.notification.BatchRunListener;
+import org.junit.runner.notification.EventBatch;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+public class BatchRunListenerTest {
+	private final RunNotifier fNotifier= new RunNotifier();
+
+	private static class SizeRecorder extends BatchRunListener {
+		final List<Integer> sizes= new ArrayList<Integer>();
+
+		@Override
+		public void testEvents(EventBatch batch) throws Exception {
+			sizes.add(batch.size());
+		}
+	}
+
+	private void fireTests(int count) {
+		for (int i= 0; i < count; i++) {
+			Description test= Description.createTestDescription(getClass(),
+					"test" + i);
+			fNotifier.fireTestStarted(test);
+			fNotifier.fireTestFinished(test);
+		}
+	}
+
+	@Test
+	public void batchesAreDeliveredByCountAndAtTheEnd() {
+		SizeRecorder recorder= new SizeRecorder();
+		fNotifier.setBatchLimits(3, 60000);
+		fNotifier.addBatchListener(recorder);
+		fireTests(7);
+		assertEquals(Arrays.asList(3, 3, 3, 3), recorder.sizes);
+		fNotifier.fireTestRunFinished(new Result());
+		assertEquals(Arrays.asList(3, 3, 3, 3, 2), recorder.sizes);
+	}
+
+	@Test
+	public void batchesAreDeliveredByAge() {
+		SizeRecorder recorder= new SizeRecorder();
+		fNotifier.setBatchLimits(1000, 0);
+		fNotifier.addBatchListener(recorder);
+		fireTests(2);
+		assertEquals(Arrays.asList(1, 1, 1, 1), recorder.sizes);
+	}
+
+	public static class Example {
+		@Test public void passes() {
+		}
+
+		@Test public void fails() {
+			fail();
+		}
+	}
+
+	@Test
+	public void resultCanBeFedFromBatches() {
+		Result result= new Result();
+		fNotifier.addBatchListener(RunNotifier.fromBatches(result
+				.createListener()));
+		Request.aClass(Example.class).getRunner().run(fNotifier);
+		fNotifier.fireTestRunFinished(result);
+		assertEquals(2, result.getRunCount());
+		assertEquals(1, result.getFailureCount());
+	}
+
+	@Test
+	public void discoveredTestsReachBatchListeners() {
+		final List<Plan> discovered= new ArrayList<Plan>();
+		fNotifier.addBatchListener(RunNotifier.fromBatches(new RunListener() {
+			@Override
+			public void testsDiscovered(Plan plan) {
+				discovered.add(plan);
+			}
+		}));
+		Plan plan= Request.aClass(Example.class).getRunner().getPlan();
+		fNotifier.fireTestsDiscovered(plan);
+		assertEquals(Arrays.asList(plan), discovered);
+	}
+
+	@Test
+	public void pendingEventsArriveBeforeADiscovery() {
+		final StringBuilder log= new StringBuilder();
+		fNotifier.setBatchLimits(1000, 60000);
+		fNotifier.addBatchListener(RunNotifier.fromBatches(new RunListener() {
+			@Override
+			public void testFinished(Description description) {
+				log.append("finished ");
+			}
+
+			@Override
+			public void testsDiscovered(Plan plan) {
+				log.append("discovered ");
+			}
+		}));
+		fireTests(1);
+		fNotifier.fireTestsDiscovered(Request.aClass(Example.class)
+				.getRunner().getPlan());
+		assertEquals("finished discovered ", log.toString());
+	}
+
+	@Test
+	public void eventsOfATestKeepTheirOrder() {
+		final StringBuilder log= new StringBuilder();
+		fNotifier.addBatchListener(RunNotifier.fromBatches(new RunListener() {
+			@Override
+			public void testStarted(Description description) {
+				log.append("started ");
+			}
+
+			@Override
+			public void testFailure(Failure failure) {
+				log.append("failed ");
+			}
+
+			@Override
+			public void testFinished(Description description) {
+				log.append("finished ");
+			}
+		}));
+		Request.method(Example.class, "fails").getRunner().run(fNotifier);
+		fNotifier.fireTestRunFinished(new Result());
+		assertEquals("started failed finished ", log.toString());
+	}
+
+	@Test
+	public void eventsOfSeveralTestsKeepTheirOrder() {
+		final StringBuilder log= new StringBuilder();
+		fNotifier.addBatchListener(RunNotifier.fromBatches(new RunListener() {
+			@Override
+			public void testStarted(Description description) {
+				log.append("started " + description.getMethodName() + " ");
+			}
+
+			@Override
+			public void testFailure(Failure failure) {
+				log.append("failed ");
+			}
+
+			@Override
+			public void testFinished(Description description) {
+				log.append("finished " + description.getMethodName() + " ");
+			}
+		}));
+		Request.aClass(Example.class).sortWith(new Comparator<Description>() {
+			public int compare(Description o1, Description o2) {
+				return o2.getMethodName().compareTo(o1.getMethodName());
+			}
+		}).getRunner().run(fNotifier);
+		fNotifier.fireTestRunFinished(new Result());
+		assertEquals("started passes finished passes "
+				+ "started fails failed finished fails ", log.toString());
+	}
+
+	@Test
+	public void throwingListenerIsRemovedAndReported() {
+		final List<Failure> failures= new ArrayList<Failure>();
+		fNotifier.addListener(new RunListener() {
+			@Override
+			public void testFailure(Failure failure) {
+				failures.add(failure);
+			}
+		});
+		SizeRecorder recorder= new SizeRecorder() {
+			@Override
+			public void testEvents(EventBatch batch) throws Exception {
+				super.testEvents(batch);
+				throw new Exception("cannot count");
+			}
+		};
+		fNotifier.setBatchLimits(1, 60000);
+		fNotifier.addBatchListener(recorder);
+		fireTests(2);
+		assertEquals(1, recorder.sizes.size());
+		assertEquals(1, failures.size());
+		assertEquals(Description.TEST_MECHANISM, failures.get(0)
+				.getDescription());
+	}
+}
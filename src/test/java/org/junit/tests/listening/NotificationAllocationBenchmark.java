@@ -0,0 +1,70 @@
+package org.junit.tests.listening;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.Request;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Prints the bytes allocated per test event fired, and per passing test run by
+ * the default runner. Run with
+ * {@code java org.junit.tests.listening.NotificationAllocationBenchmark}.
+ * Not part of {@link org.junit.tests.AllTests}.
+ */
+public class NotificationAllocationBenchmark {
+	private static final int EVENTS= 1000000;
+
+	private static final int RUNS= 2000;
+
+	private static final Description TEST= Description.createTestDescription(
+			NotificationAllocationBenchmark.class, "test");
+
+	public static class Passing {
+		@Test public void a() {}
+		@Test public void b() {}
+		@Test public void c() {}
+		@Test public void d() {}
+		@Test public void e() {}
+		@Test public void f() {}
+		@Test public void g() {}
+		@Test public void h() {}
+		@Test public void i() {}
+		@Test public void j() {}
+	}
+
+	public static void main(String... args) throws Exception {
+		if (!AllocationCounter.isAvailable()) {
+			System.out.println("This JVM can't count allocated bytes");
+			return;
+		}
+		RunNotifier notifier= new RunNotifier();
+		notifier.addListener(new ThreadSafeListener());
+		fire(notifier); // warm up
+		long before= AllocationCounter.allocatedBytes();
+		fire(notifier);
+		long allocated= AllocationCounter.allocatedBytes() - before;
+		System.out.println(String.format("%,10.2f bytes per event fired",
+				allocated / (2.0 * EVENTS)));
+
+		Runner runner= Request.aClass(Passing.class).getRunner();
+		run(runner, notifier); // warm up
+		before= AllocationCounter.allocatedBytes();
+		run(runner, notifier);
+		allocated= AllocationCounter.allocatedBytes() - before;
+		System.out.println(String.format("%,10.2f bytes per passing test",
+				allocated / (10.0 * RUNS)));
+	}
+
+	private static void fire(RunNotifier notifier) {
+		for (int i= 0; i < EVENTS; i++) {
+			notifier.fireTestStarted(TEST);
+			notifier.fireTestFinished(TEST);
+		}
+	}
+
+	private static void run(Runner runner, RunNotifier notifier) {
+		for (int i= 0; i < RUNS; i++)
+			runner.run(notifier);
+	}
+}
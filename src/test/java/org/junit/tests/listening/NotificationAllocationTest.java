@@ -0,0 +1,62 @@
+package org.junit.tests.listening;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.Request;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.RunNotifier;
+
+public class NotificationAllocationTest {
+	private static final Description TEST= Description.createTestDescription(
+			NotificationAllocationTest.class, "test");
+
+	public static class Passing {
+		@Test public void a() {}
+		@Test public void b() {}
+		@Test public void c() {}
+		@Test public void d() {}
+		@Test public void e() {}
+	}
+
+	private final RunNotifier fNotifier= new RunNotifier();
+
+	@Before public void addListener() {
+		assumeTrue(AllocationCounter.isAvailable());
+		fNotifier.addListener(new ThreadSafeListener());
+	}
+
+	@Test public void firingTestEventsAllocatesNothing() {
+		fire(100000); // warm up
+		long before= AllocationCounter.allocatedBytes();
+		fire(100000);
+		long allocated= AllocationCounter.allocatedBytes() - before;
+		assertTrue(allocated + " bytes allocated", allocated < 64 * 1024);
+	}
+
+	@Test public void passingTestsAllocateLittle() {
+		Runner runner= Request.aClass(Passing.class).getRunner();
+		run(runner, 2000); // warm up
+		long before= AllocationCounter.allocatedBytes();
+		run(runner, 2000);
+		long perTest= (AllocationCounter.allocatedBytes() - before) / 10000;
+		// a test instance and a few statements, about 72 bytes: a list
+		// copied per test, say, takes it past the limit
+		assertTrue(perTest + " bytes allocated per test", perTest < 112);
+	}
+
+	private void fire(int times) {
+		for (int i= 0; i < times; i++) {
+			fNotifier.fireTestStarted(TEST);
+			fNotifier.fireTestFinished(TEST);
+		}
+	}
+
+	private void run(Runner runner, int times) {
+		for (int i= 0; i < times; i++)
+			runner.run(fNotifier);
+	}
+}
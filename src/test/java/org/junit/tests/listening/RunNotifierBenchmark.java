@@ -0,0 +1,65 @@
+package org.junit.tests.listening;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * Measures the throughput of {@link RunNotifier#fireTestStarted(Description)}
+ * and {@link RunNotifier#fireTestFinished(Description)} pairs with 1 to 64
+ * threads firing at once, for a {@link RunListener.ThreadSafe} listener and
+ * for a plain one. Run with {@code java org.junit.tests.listening.RunNotifierBenchmark}.
+ * Not part of {@link org.junit.tests.AllTests}.
+ */
+public class RunNotifierBenchmark {
+	private static final int EVENTS_PER_THREAD= 200000;
+
+	private static final Description TEST= Description.createTestDescription(
+			RunNotifierBenchmark.class, "test");
+
+	static class PlainListener extends RunListener {
+	}
+
+	public static void main(String... args) throws Exception {
+		for (RunListener listener : new RunListener[] {
+				new ThreadSafeListener(), new PlainListener() }) {
+			System.out.println(listener.getClass().getSimpleName());
+			measure(listener, 1); // warm up
+			for (int threads= 1; threads <= 64; threads*= 2)
+				System.out.println(String.format(
+						"  %2d threads: %,12.0f events/s", threads, measure(
+								listener, threads)));
+		}
+	}
+
+	private static double measure(RunListener listener, int threads)
+			throws InterruptedException {
+		final RunNotifier notifier= new RunNotifier();
+		notifier.addListener(listener);
+		final CountDownLatch start= new CountDownLatch(1);
+		final CountDownLatch done= new CountDownLatch(threads);
+		for (int i= 0; i < threads; i++)
+			new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int j= 0; j < EVENTS_PER_THREAD; j++) {
+						notifier.fireTestStarted(TEST);
+						notifier.fireTestFinished(TEST);
+					}
+					done.countDown();
+				}
+			}.start();
+		long began= System.nanoTime();
+		start.countDown();
+		done.await();
+		long elapsed= System.nanoTime() - began;
+		return 2.0 * EVENTS_PER_THREAD * threads / (elapsed / 1e9);
+	}
+}
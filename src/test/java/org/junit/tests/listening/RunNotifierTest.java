@@ -0,0 +1,220 @@
+package org.junit.tests.listening;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.TestEvent;
+
+public class RunNotifierTest {
+	private final RunNotifier fNotifier= new RunNotifier();
+
+	private static final Description TEST= Description.createTestDescription(
+			RunNotifierTest.class, "test");
+
+	private static class CountingListener extends RunListener {
+		final AtomicInteger started= new AtomicInteger();
+
+		final List<Failure> failures= new ArrayList<Failure>();
+
+		@Override
+		public void testStarted(Description description) throws Exception {
+			started.incrementAndGet();
+		}
+
+		@Override
+		public void testFailure(Failure failure) throws Exception {
+			failures.add(failure);
+		}
+	}
+
+	@Test
+	public void throwingListenerIsRemovedAndReported() {
+		CountingListener throwing= new CountingListener() {
+			@Override
+			public void testStarted(Description description) throws Exception {
+				super.testStarted(description);
+				throw new Exception("listener is broken");
+			}
+		};
+		CountingListener counting= new CountingListener();
+		fNotifier.addListener(throwing);
+		fNotifier.addListener(counting);
+		fNotifier.fireTestStarted(TEST);
+		fNotifier.fireTestStarted(TEST);
+		assertEquals(1, throwing.started.get());
+		assertEquals(2, counting.started.get());
+		assertEquals(1, counting.failures.size());
+		assertEquals(Description.TEST_MECHANISM, counting.failures.get(0)
+				.getDescription());
+	}
+
+	@Test
+	public void removedListenerIsNotCalled() {
+		CountingListener listener= new CountingListener();
+		fNotifier.addListener(listener);
+		fNotifier.removeListener(listener);
+		fNotifier.fireTestStarted(TEST);
+		assertEquals(0, listener.started.get());
+	}
+
+	private void fireFromThreads(int threads, final int events)
+			throws InterruptedException {
+		List<Thread> all= new ArrayList<Thread>();
+		for (int i= 0; i < threads; i++)
+			all.add(new Thread() {
+				@Override
+				public void run() {
+					for (int j= 0; j < events; j++)
+						fNotifier.fireTestStarted(TEST);
+				}
+			});
+		for (Thread each : all)
+			each.start();
+		for (Thread each : all)
+			each.join();
+	}
+
+	@Test
+	public void listenersAreCalledOneThreadAtATime() throws Exception {
+		final AtomicInteger inside= new AtomicInteger();
+		final AtomicInteger overlaps= new AtomicInteger();
+		fNotifier.addListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) throws Exception {
+				if (inside.incrementAndGet() > 1)
+					overlaps.incrementAndGet();
+				Thread.yield();
+				inside.decrementAndGet();
+			}
+		});
+		fireFromThreads(8, 1000);
+		assertEquals(0, overlaps.get());
+	}
+
+	@RunListener.ThreadSafe
+	private static class MeetingListener extends RunListener {
+		final CyclicBarrier fBarrier= new CyclicBarrier(2);
+
+		final AtomicInteger met= new AtomicInteger();
+
+		@Override
+		public void testStarted(Description description) throws Exception {
+			fBarrier.await(5, TimeUnit.SECONDS);
+			met.incrementAndGet();
+		}
+	}
+
+	@Test
+	public void threadSafeListenersAreCalledConcurrently() throws Exception {
+		MeetingListener listener= new MeetingListener();
+		fNotifier.addListener(listener);
+		fireFromThreads(2, 1);
+		assertEquals(2, listener.met.get());
+		assertTrue(!listener.fBarrier.isBroken());
+	}
+
+	private static class FailureCounter extends RunListener {
+		final List<Failure> failures= new ArrayList<Failure>();
+
+		@Override
+		public void testFailure(Failure failure) throws Exception {
+			failures.add(failure);
+		}
+	}
+
+	@Test
+	public void findsTheEventsAListenerHandles() {
+		assertEquals(EnumSet.of(TestEvent.FAILED), TestEvent
+				.handledBy(new FailureCounter()));
+		assertEquals(EnumSet.of(TestEvent.STARTED, TestEvent.FAILED),
+				TestEvent.handledBy(new CountingListener()));
+		assertEquals(EnumSet.noneOf(TestEvent.class), TestEvent
+				.handledBy(new RunListener()));
+	}
+
+	@Test
+	public void listenerOnlyGetsTheEventsItSubscribedTo() {
+		final List<String> events= new ArrayList<String>();
+		RunListener listener= new CountingListener() {
+			@Override
+			public void testFailure(Failure failure) throws Exception {
+				events.add("failure");
+			}
+
+			@Override
+			public void testRunFinished(Result result) throws Exception {
+				events.add("run finished");
+			}
+		};
+		fNotifier.addListener(listener, EnumSet.of(TestEvent.FAILED));
+		fNotifier.fireTestStarted(TEST);
+		fNotifier.fireTestFailure(new Failure(TEST, new Exception()));
+		fNotifier.fireTestFinished(TEST);
+		fNotifier.fireTestRunFinished(new Result());
+		assertEquals(0, ((CountingListener) listener).started.get());
+		assertEquals(Arrays.asList("failure", "run finished"), events);
+	}
+
+	@Test
+	public void removedListenerGetsNoEventAtAll() {
+		FailureCounter listener= new FailureCounter();
+		fNotifier.addListener(listener, EnumSet.allOf(TestEvent.class));
+		fNotifier.removeListener(listener);
+		fNotifier.fireTestFailure(new Failure(TEST, new Exception()));
+		assertEquals(0, listener.failures.size());
+	}
+
+	@Test(timeout= 10000)
+	public void plainListenersDontWaitForEachOther() throws Exception {
+		final CountDownLatch entered= new CountDownLatch(1);
+		final CountDownLatch release= new CountDownLatch(1);
+		final CountDownLatch counted= new CountDownLatch(2);
+		fNotifier.addListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) throws Exception {
+				counted.countDown();
+			}
+		});
+		fNotifier.addListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) throws Exception {
+				entered.countDown();
+				release.await();
+			}
+		});
+		Thread first= fireStartedInThread();
+		entered.await();
+		// the first listener is not held up by the second one being busy
+		Thread second= fireStartedInThread();
+		assertTrue(counted.await(5, TimeUnit.SECONDS));
+		release.countDown();
+		first.join();
+		second.join();
+	}
+
+	private Thread fireStartedInThread() {
+		Thread thread= new Thread() {
+			@Override
+			public void run() {
+				fNotifier.fireTestStarted(TEST);
+			}
+		};
+		thread.start();
+		return thread;
+	}
+}
@@ -0,0 +1,11 @@
+package org.junit.tests.listening;
+
+import org.junit.runner.notification.RunListener;
+
+/**
+ * A listener that does nothing and is marked {@link RunListener.ThreadSafe},
+ * so that a notifier calls it without taking a lock
+ */
+@RunListener.ThreadSafe
+class ThreadSafeListener extends RunListener {
+}
@@ -0,0 +1,133 @@
+package org.junit.tests.listening;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.LatencyHistogram;
+import org.junit.runner.notification.TimingListener;
+import org.junit.tests.TestSystem;
+
+public class TimingListenerTest {
+	private static final long MILLI= 1000L * 1000;
+
+	public static class Sleepy {
+		@Test public void quick() {
+		}
+
+		@Test public void slow() throws InterruptedException {
+			Thread.sleep(30);
+		}
+	}
+
+	public static class Quick {
+		@Test public void quick() {
+		}
+	}
+
+	private static void assertClose(long expected, long actual) {
+		assertTrue(actual + " is not close to " + expected, Math.abs(actual
+				- expected) <= expected / 16);
+	}
+
+	@Test public void percentilesAreCloseToTheTruth() {
+		LatencyHistogram histogram= new LatencyHistogram(900);
+		for (int i= 1; i <= 1000; i++)
+			histogram.record(i * MILLI);
+		assertEquals(1000, histogram.getCount());
+		assertClose(500 * MILLI, histogram.getPercentileNanos(50));
+		assertClose(950 * MILLI, histogram.getPercentileNanos(95));
+		assertClose(990 * MILLI, histogram.getPercentileNanos(99));
+		assertEquals(1000 * MILLI, histogram.getPercentileNanos(100));
+		assertEquals(1000 * MILLI, histogram.getMaxNanos());
+		assertEquals(100, histogram.getSlowCount());
+	}
+
+	@Test public void smallAndHugeDurations() {
+		LatencyHistogram histogram= new LatencyHistogram(1000);
+		assertEquals(0, histogram.getPercentileNanos(50));
+		histogram.record(3000);
+		assertEquals(3000, histogram.getPercentileNanos(50));
+		histogram.record(10L * 3600 * 1000 * MILLI);
+		assertEquals(10L * 3600 * 1000 * MILLI, histogram.getMaxNanos());
+		assertEquals(1, histogram.getSlowCount());
+	}
+
+	@Test public void keepsAHistogramPerClass() {
+		TimingListener timing= new TimingListener().withSlowThreshold(20);
+		JUnitCore core= new JUnitCore();
+		core.addListener(timing);
+		core.run(Sleepy.class, Quick.class);
+		assertEquals(3, timing.getRunHistogram().getCount());
+		assertEquals(1, timing.getRunHistogram().getSlowCount());
+		Map<String, LatencyHistogram> classes= timing.getClassHistograms();
+		assertEquals(2, classes.get(Sleepy.class.getName()).getCount());
+		assertEquals(1, classes.get(Sleepy.class.getName()).getSlowCount());
+		assertTrue(classes.get(Sleepy.class.getName()).getMaxNanos() >= 30 * MILLI);
+		assertEquals(0, classes.get(Quick.class.getName()).getSlowCount());
+	}
+
+	@Test public void histogramsHoldTheDurationsOfTheResult() {
+		TimingListener timing= new TimingListener();
+		JUnitCore core= new JUnitCore();
+		core.addListener(timing);
+		Result result= core.run(Sleepy.class);
+		assertEquals(result.getRunTimeNanos(Description.createTestDescription(
+				Sleepy.class, "slow")), timing.getRunHistogram().getMaxNanos());
+	}
+
+	@Test public void eachRunOfAClassIsASampleOfItsOwn() {
+		TimingListener timing= new TimingListener().withSlowThreshold(20);
+		JUnitCore core= new JUnitCore();
+		core.addListener(timing);
+		core.run(Sleepy.class, Sleepy.class);
+		assertEquals(4, timing.getRunHistogram().getCount());
+		assertEquals(4, timing.getClassHistograms().get(Sleepy.class.getName())
+				.getCount());
+		assertEquals(2, timing.getRunHistogram().getSlowCount());
+	}
+
+	@Test public void exportsFromTheCommandLine() throws IOException {
+		File base= File.createTempFile("junit", "timing");
+		File json= new File(base.getPath() + ".json");
+		File prometheus= new File(base.getPath() + ".prom");
+		try {
+			new JUnitCore().runMain(new TestSystem(), "--timing=" + base,
+					Sleepy.class.getName());
+			String text= read(json);
+			assertTrue(text, text.contains("\"run\": {\"count\": 2, \"p50\": "));
+			assertTrue(text, text.contains("\"" + Sleepy.class.getName()
+					+ "\": {\"count\": 2"));
+			text= read(prometheus);
+			assertTrue(text, text.contains("# TYPE junit_test_duration_seconds summary"));
+			assertTrue(text, text.contains("junit_test_duration_seconds_count 2\n"));
+			assertTrue(text, text.contains("junit_test_duration_seconds{class=\""
+					+ Sleepy.class.getName() + "\",quantile=\"0.99\"} 0.0"));
+		} finally {
+			base.delete();
+			json.delete();
+			prometheus.delete();
+		}
+	}
+
+	private static String read(File file) throws IOException {
+		BufferedReader reader= new BufferedReader(new FileReader(file));
+		try {
+			StringBuilder text= new StringBuilder();
+			for (String line; (line= reader.readLine()) != null;)
+				text.append(line).append('\n');
+			return text.toString();
+		} finally {
+			reader.close();
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package org.junit.tests.manipulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.max.MaxHistory;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.notification.RunListener;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.InitializationError;
+
+public class ShardingTest {
+	public static class Many {
+		@Test public void a() {}
+		@Test public void b() {}
+		@Test public void c() {}
+		@Test public void d() {}
+		@Test public void e() {}
+		@Test public void f() {}
+		@Test public void g() {}
+	}
+
+	private static Set<String> run(Request request) {
+		final Set<String> started= new HashSet<String>();
+		JUnitCore core= new JUnitCore();
+		core.addListener(new RunListener() {
+			@Override
+			public void testStarted(Description description) {
+				synchronized (started) {
+					assertTrue(started.add(description.getDisplayName()));
+				}
+			}
+		});
+		core.run(request);
+		return started;
+	}
+
+	@Test
+	public void hashShardsPartitionTheTests() {
+		Set<String> all= new HashSet<String>();
+		int count= 0;
+		for (int i= 0; i < 3; i++) {
+			Set<String> shard= run(Request.aClass(Many.class).shard(i, 3));
+			count+= shard.size();
+			all.addAll(shard);
+		}
+		assertEquals(7, count);
+		assertEquals(run(Request.aClass(Many.class)), all);
+	}
+
+	@Test
+	public void hashShardsAreStable() {
+		assertEquals(run(Request.aClass(Many.class).shard(1, 2)),
+				run(Request.aClass(Many.class).shard(1, 2)));
+	}
+
+	@Test(expected= IllegalArgumentException.class)
+	public void shardIndexMustExist() {
+		Request.aClass(Many.class).shard(2, 2);
+	}
+
+	public static class CountingRunner extends BlockJUnit4ClassRunner {
+		static int constructed= 0;
+
+		public CountingRunner(Class<?> klass) throws InitializationError {
+			super(klass);
+			constructed++;
+		}
+	}
+
+	@RunWith(CountingRunner.class)
+	public static class Slow {
+		@Test public void slow() throws InterruptedException {
+			Thread.sleep(200);
+		}
+	}
+
+	@RunWith(CountingRunner.class)
+	public static class Fast1 {
+		@Test public void fast() {}
+	}
+
+	@RunWith(CountingRunner.class)
+	public static class Fast2 {
+		@Test public void fast() {}
+	}
+
+	@RunWith(CountingRunner.class)
+	public static class Fast3 {
+		@Test public void fast() {}
+	}
+
+	private static final Class<?>[] CLASSES= { Fast1.class, Slow.class,
+			Fast2.class, Fast3.class };
+
+	private File fHistoryFile;
+
+	private MaxHistory fHistory;
+
+	@Before
+	public void createHistory() {
+		fHistoryFile= new File("Sharding.ser");
+		if (fHistoryFile.exists())
+			fHistoryFile.delete();
+		fHistory= MaxHistory.forFolder(fHistoryFile);
+		CountingRunner.constructed= 0;
+	}
+
+	@After
+	public void forgetHistory() {
+		fHistoryFile.delete();
+	}
+
+	private Set<String> runShard(int index, int total) {
+		return run(Request.classes(CLASSES).filterWith(
+				fHistory.shard(index, total, CLASSES)));
+	}
+
+	@Test
+	public void withoutHistoryClassesAreDealtEvenly() {
+		assertEquals(2, runShard(0, 2).size());
+		assertEquals(2, runShard(1, 2).size());
+	}
+
+	@Test
+	public void durationShardsAreBalanced() {
+		JUnitCore core= new JUnitCore();
+		core.addListener(fHistory.listener());
+		Result result= core.run(CLASSES);
+		assertEquals(4, result.getRunCount());
+		Set<String> first= runShard(0, 2);
+		Set<String> second= runShard(1, 2);
+		Set<String> slowShard= first.size() == 1 ? first : second;
+		assertEquals(1, slowShard.size());
+		assertTrue(slowShard.contains("slow(" + Slow.class.getName() + ")"));
+		assertEquals(4, first.size() + second.size());
+	}
+
+	@Test
+	public void excludedClassesGetNoRunner() {
+		runShard(0, 4);
+		assertEquals(1, CountingRunner.constructed);
+	}
+
+	@Test
+	public void everyClassIsInExactlyOneDurationShard() {
+		Filter first= fHistory.shard(0, 2, CLASSES);
+		Filter second= fHistory.shard(1, 2, CLASSES);
+		for (Class<?> each : CLASSES)
+			assertTrue(first.shouldRunClass(each) != second.shouldRunClass(each));
+	}
+
+	@Test
+	public void shardsThatOutnumberTheClassesMayBeEmpty() {
+		int total= 2 * CLASSES.length;
+		int count= 0;
+		for (int i= 0; i < total; i++) {
+			Result byDuration= new JUnitCore().run(Request.classes(CLASSES)
+					.filterWith(fHistory.shard(i, total, CLASSES)));
+			Result byHash= new JUnitCore().run(Request.classes(CLASSES).shard(
+					i, total));
+			assertEquals(0, byDuration.getFailureCount());
+			assertEquals(0, byHash.getFailureCount());
+			assertEquals(byDuration.getRunCount(), runShard(i, total).size());
+			count+= byDuration.getRunCount();
+		}
+		assertEquals(CLASSES.length, count);
+	}
+
+	@Test
+	public void durationShardDoesNotFilterOtherClasses() {
+		assertTrue(fHistory.shard(0, 2, CLASSES).shouldRunClass(Many.class));
+	}
+}
@@ -1,6 +1,7 @@
 package org.junit.tests.running.classes;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.experimental.results.PrintableResult.testResult;
 import static org.junit.matchers.JUnitMatchers.containsString;
@@ -12,6 +13,7 @@ import java.util.Collections;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.Description;
 import org.junit.runner.JUnitCore;
 import org.junit.runner.Plan;
 import org.junit.runner.Request;
@@ -65,6 +67,17 @@ public class ParameterizedTestTest {
 				.getFailures().get(0).getTestHeader());
 	}
 
+	@Test
+	public void parameterSetsOfDifferentClassesAreNotEqual() throws Exception {
+		Description fibonacci= Request.aClass(FibonacciTest.class).getRunner()
+				.getPlan().getChildren().get(0).getDescription();
+		Description other= Request.aClass(BeforeAndAfter.class).getRunner()
+				.getPlan().getChildren().get(0).getDescription();
+		assertEquals(fibonacci.getDisplayName(), other.getDisplayName());
+		assertFalse(fibonacci.equals(other));
+		assertEquals(0, fibonacci.getParameterIndex());
+	}
+
 	@Test
 	public void countBeforeRun() throws Exception {
 		Runner runner= Request.aClass(FibonacciTest.class).getRunner();
@@ -1,7 +1,9 @@
 package org.junit.tests.running.classes;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -83,4 +85,22 @@ public class TestClassTest {
 		assertThat(new TestClass(SubclassWithField.class).getAnnotatedFields(
 				Rule.class).size(), is(1));
 	}
+
+	@Test
+	public void forClassSharesInstances() {
+		assertSame(TestClass.forClass(ManyMethods.class), TestClass
+				.forClass(ManyMethods.class));
+	}
+
+	@Test
+	public void missingAnnotationsGiveEmptyLists() {
+		assertTrue(TestClass.forClass(ManyMethods.class).getAnnotatedFields(
+				Rule.class).isEmpty());
+	}
+
+	@Test(expected= UnsupportedOperationException.class)
+	public void annotatedMethodsCannotBeChanged() {
+		TestClass.forClass(ManyMethods.class).getAnnotatedMethods(Test.class)
+				.clear();
+	}
 }
@@ -0,0 +1,103 @@
+package org.junit.tests.running.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.internal.TextListener;
+import org.junit.runner.FailureGroup;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.notification.Failure;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+public class FailureGroupTest {
+	@RunWith(Parameterized.class)
+	public static class FailsTheSameWay {
+		@Parameters public static Collection<Object[]> parameters() {
+			List<Object[]> parameters= new ArrayList<Object[]>();
+			for (int i= 0; i < 100; i++)
+				parameters.add(new Object[] { i });
+			return parameters;
+		}
+
+		private final int fParameter;
+
+		public FailsTheSameWay(int parameter) {
+			fParameter= parameter;
+		}
+
+		@Test public void sameMessage() {
+			throw new IllegalStateException("always");
+		}
+
+		@Test public void ownMessage() {
+			throw new IllegalStateException("parameter " + fParameter);
+		}
+	}
+
+	public static class FailsInTwoPlaces {
+		@Test public void here() {
+			throw new IllegalStateException();
+		}
+
+		@Test public void there() {
+			throw new IllegalStateException();
+		}
+	}
+
+	private static int distinctExceptions(List<Failure> failures) {
+		Map<Throwable, Boolean> exceptions= new IdentityHashMap<Throwable, Boolean>();
+		for (Failure each : failures)
+			exceptions.put(each.getException(), true);
+		return exceptions.size();
+	}
+
+	@Test public void equalFailuresShareTheirException() {
+		Result result= JUnitCore.runClasses(FailsTheSameWay.class);
+		assertEquals(200, result.getFailureCount());
+		// one for "always", and one for each of the other messages
+		assertEquals(101, distinctExceptions(result.getFailures()));
+	}
+
+	@Test public void failuresInOnePlaceAreGrouped() {
+		Result result= JUnitCore.runClasses(FailsTheSameWay.class);
+		List<FailureGroup> groups= result.getFailureGroups();
+		assertEquals(2, groups.size());
+		assertEquals(100, groups.get(0).size());
+		assertEquals(100, groups.get(1).size());
+		assertEquals(groups.get(0).getFingerprint(), groups.get(0).getFailures()
+				.get(99).getFingerprint());
+	}
+
+	@Test public void failuresInTwoPlacesAreNot() {
+		Result result= JUnitCore.runClasses(FailsInTwoPlaces.class);
+		assertEquals(2, result.getFailureGroups().size());
+		assertFalse(result.getFailures().get(0).getFingerprint().equals(
+				result.getFailures().get(1).getFingerprint()));
+	}
+
+	@Test public void repeatedFailuresArePrintedOnce() {
+		ByteArrayOutputStream output= new ByteArrayOutputStream();
+		JUnitCore core= new JUnitCore();
+		core.addListener(new TextListener(new PrintStream(output)));
+		core.run(FailsTheSameWay.class);
+		String text= output.toString();
+		assertTrue(text, text.contains(") sameMessage[1]("
+				+ FailsTheSameWay.class.getName() + ")\n"
+				+ "java.lang.IllegalStateException: always\n"
+				+ "\tat the same place as "));
+		assertTrue(text.length() < 50000);
+	}
+}
@@ -0,0 +1,91 @@
+package org.junit.tests.running.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.ParallelComputer;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+public class ResultTimingTest {
+	public static class Slow {
+		@Test public void quick() {
+		}
+
+		@Test public void slow() throws InterruptedException {
+			Thread.sleep(50);
+		}
+	}
+
+	public static class Quick {
+		@Test public void quick() {
+		}
+	}
+
+	private static Description test(Class<?> type, String name) {
+		return Description.createTestDescription(type, name);
+	}
+
+	@Test public void recordsEachTest() {
+		Result result= JUnitCore.runClasses(Slow.class);
+		long slow= result.getRunTimeNanos(test(Slow.class, "slow"));
+		assertTrue("slow took " + slow, slow >= 50L * 1000 * 1000);
+		assertTrue(result.getRunTimeNanos(test(Slow.class, "quick")) >= 0);
+		assertEquals(-1, result.getRunTimeNanos(test(Slow.class, "missing")));
+	}
+
+	@Test public void totalsByClass() {
+		Result result= JUnitCore.runClasses(Slow.class, Quick.class);
+		Map<String, Long> byClass= result.getRunTimeNanosByClass();
+		assertEquals(2, byClass.size());
+		assertEquals(result.getRunTimeNanos(test(Slow.class, "slow"))
+				+ result.getRunTimeNanos(test(Slow.class, "quick")),
+				(long) byClass.get(Slow.class.getName()));
+		assertEquals(result.getRunTimeNanos(test(Quick.class, "quick")),
+				(long) byClass.get(Quick.class.getName()));
+	}
+
+	@Test public void findsTheSlowestTests() {
+		Result result= JUnitCore.runClasses(Quick.class, Slow.class);
+		List<Description> slowest= result.getSlowestTests(1);
+		assertEquals(1, slowest.size());
+		assertEquals(test(Slow.class, "slow"), slowest.get(0));
+		assertEquals(3, result.getSlowestTests(10).size());
+	}
+
+	@Test public void recordsTestsThatRanInParallel() {
+		Result result= JUnitCore.runClasses(new ParallelComputer(true, true),
+				Slow.class, Quick.class);
+		assertEquals(3, result.getSlowestTests(10).size());
+		assertEquals(test(Slow.class, "slow"), result.getSlowestTests(1).get(0));
+		assertTrue(result.getRunTimeNanos(test(Quick.class, "quick")) >= 0);
+	}
+
+	@Test public void timesATestThatWasRunningWhenAsked() throws Exception {
+		Result result= new Result();
+		RunListener listener= result.createListener();
+		Description test= test(Quick.class, "quick");
+		listener.testStarted(test);
+		assertEquals(-1, result.getRunTimeNanos(test));
+		listener.testFinished(test);
+		assertTrue(result.getRunTimeNanos(test) >= 0);
+	}
+
+	@Test public void ignoredTestsAreNotTimed() {
+		Result result= JUnitCore.runClasses(IgnoredTest.class);
+		assertEquals(-1, result.getRunTimeNanos(test(IgnoredTest.class, "ignored")));
+		assertTrue(result.getRunTimeNanosByClass().isEmpty());
+	}
+
+	public static class IgnoredTest {
+		@Ignore @Test public void ignored() {
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package org.junit.tests.running.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Plan;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+public class StreamingRequestTest {
+	public static class First {
+		@Test public void first() {}
+	}
+
+	public static class Second {
+		@Test public void second() {}
+		@Test public void third() {}
+	}
+
+	public static class Invalid {
+		@Test public int notVoid() { return 0; }
+	}
+
+	private static CountDownLatch secondDiscovered;
+
+	public static class WaitsForDiscovery {
+		@Test public void waits() throws InterruptedException {
+			assertTrue(secondDiscovered.await(10, TimeUnit.SECONDS));
+		}
+	}
+
+	private static class Recorder extends RunListener {
+		final List<String> events= new ArrayList<String>();
+
+		@Override
+		public void testRunStarted(Plan plan) throws Exception {
+			events.add("run " + plan.getChildren().size());
+		}
+
+		@Override
+		public void testsDiscovered(Plan plan) throws Exception {
+			events.add("discovered " + plan.getDescription() + " " + plan.getLeafCount());
+			if (plan.getDescription().getDisplayName().equals(Second.class.getName()))
+				secondDiscovered.countDown();
+		}
+
+		@Override
+		public void testStarted(Description description) throws Exception {
+			events.add("started " + description.getMethodName());
+		}
+	}
+
+	private Result run(Request request, Recorder recorder) {
+		secondDiscovered= new CountDownLatch(1);
+		JUnitCore core= new JUnitCore();
+		core.addListener(recorder);
+		return core.run(request);
+	}
+
+	@Test public void classesJoinTheRunBeforeTheirTestsStart() {
+		Recorder recorder= new Recorder();
+		Result result= run(Request.streaming(First.class, Second.class), recorder);
+		assertEquals(3, result.getRunCount());
+		assertEquals("run 0", recorder.events.get(0));
+		List<String> events= recorder.events;
+		assertTrue(events.indexOf("discovered " + First.class.getName() + " 1") < events.indexOf("started first"));
+		assertTrue(events.indexOf("discovered " + Second.class.getName() + " 2") < events.indexOf("started second"));
+		assertTrue(events.indexOf("started first") < events.indexOf("started second"));
+	}
+
+	@Test public void discoversLaterClassesWhileEarlierOnesRun() {
+		Result result= run(Request.streaming(WaitsForDiscovery.class, Second.class), new Recorder());
+		assertEquals(0, result.getFailureCount());
+		assertEquals(3, result.getRunCount());
+	}
+
+	@Test public void filtersEachClass() {
+		Recorder recorder= new Recorder();
+		Request request= Request.streaming(First.class, Second.class).filterWith(
+				Description.createTestDescription(Second.class, "third"));
+		Result result= run(request, recorder);
+		assertEquals(1, result.getRunCount());
+		assertEquals(Arrays.asList("run 0", "discovered " + Second.class.getName() + " 1", "started third"),
+				recorder.events);
+	}
+
+	@Test public void reportsInvalidClasses() {
+		Result result= run(Request.streaming(Invalid.class, First.class), new Recorder());
+		assertEquals(1, result.getFailureCount());
+		assertEquals(2, result.getRunCount());
+	}
+}